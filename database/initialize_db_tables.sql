@@ -2,11 +2,48 @@ CREATE TABLE IF NOT EXISTS urls
 (
     id           BIGSERIAL PRIMARY KEY,
     original_url TEXT NOT NULL,
-    short_url_code    VARCHAR(10) UNIQUE,
+    short_url_code    VARCHAR(10),
     created_at   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     expires_at   TIMESTAMP WITH TIME ZONE
 );
 
-CREATE INDEX IF NOT EXISTS idx_short_url ON urls (short_url_code);
+-- The write service leases ids in blocks of this size (url.id-block.size) with a single nextval
+ALTER SEQUENCE urls_id_seq INCREMENT BY 10000;
+
+-- Generated short codes are decoded back into the id and resolved through the primary key
+-- (url.resolution.mode=ID), so short_url_code only has to be unique and indexed for the rows that
+-- actually carry a value: custom aliases, and generated codes written while
+-- url.short-code.persist-generated is still on.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_urls_short_url_code ON urls (short_url_code)
+    WHERE short_url_code IS NOT NULL;
+
+-- Migration of databases created before resolution by id: the partial index above replaces both
+-- the UNIQUE constraint and the duplicate plain index on short_url_code.
+ALTER TABLE urls DROP CONSTRAINT IF EXISTS urls_short_url_code_key;
+DROP INDEX IF EXISTS idx_short_url;
+
+-- Once every read service runs with url.resolution.mode=ID and the write service with
+-- url.short-code.persist-generated=false, the generated codes can be cleared in batches to shrink
+-- the index (all codes written before custom aliases existed are generated ones):
+--
+--   UPDATE urls SET short_url_code = NULL
+--   WHERE id IN (SELECT id FROM urls WHERE short_url_code IS NOT NULL LIMIT 10000);
 
 CREATE INDEX IF NOT EXISTS idx_urls_expires_at ON urls (expires_at);
+
+-- Hash of the normalized original URL, only written while url.dedup.enabled is on, so a URL
+-- shortened again within url.dedup.window is found through one index lookup. It is not unique:
+-- distinct URLs may share a hash, and a URL is shortened anew once the window has passed.
+ALTER TABLE urls ADD COLUMN IF NOT EXISTS original_url_hash BIGINT;
+CREATE INDEX IF NOT EXISTS idx_urls_original_url_hash ON urls (original_url_hash, created_at)
+    WHERE original_url_hash IS NOT NULL;
+
+-- IDs of mappings the write service deleted before they expired (url.tombstone.retention), so the
+-- incremental build of the read service's snapshot tier can drop them as well. Expired mappings
+-- need no tombstone, as the snapshot drops them by their expiry.
+CREATE TABLE IF NOT EXISTS url_tombstones
+(
+    id         BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_url_tombstones_deleted_at ON url_tombstones (deleted_at);
@@ -0,0 +1,168 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerbenchmarks.support.BenchmarkDatabase;
+import com.example.urlshortenerbenchmarks.support.InMemoryRedisTemplate;
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.RedisUrlCache;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.models.Resolution;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import com.example.urlshortenerreadservice.service.KnownIdFilter;
+import com.example.urlshortenerreadservice.service.PrimaryFallback;
+import com.example.urlshortenerreadservice.service.URLService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link URLService#resolveAll(List)} with resolving the same codes one by one through
+ * {@link URLService#resolve(String)}, for batches of {@code batchSize} consecutive codes, with
+ * in-memory stand-ins for Redis and PostgreSQL. The {@code tier} parameter selects where lookups
+ * are answered:
+ *
+ * <ul>
+ *   <li>{@code redis}: Redis, with the in-process cache disabled by a zero TTL and the snapshot
+ *       turned off;
+ *   <li>{@code database}: the database, with Redis dropping every write as well.
+ * </ul>
+ *
+ * <p>The in-memory Redis has no round trip to save, so against a real server the difference on
+ * the {@code redis} tier grows with the network latency, one round trip per batch instead of per
+ * code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BulkResolveBenchmark {
+  private static final int ROWS = 10_000;
+
+  @Param({"redis", "database"})
+  private String tier;
+
+  @Param({"ID", "CODE"})
+  private URLService.ResolutionMode resolution;
+
+  @Param({"1", "10", "100", "1000"})
+  private int batchSize;
+
+  private URLService urlService;
+  private List<String> codes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws IOException {
+    final var valueSerializer =
+        (RedisSerializer<Object>)
+            new RedisConfig()
+                .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT)
+                .getValueSerializer();
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var urlRepository = new URLRepositoryImpl(BenchmarkDatabase.create("bulk", ROWS));
+    final var negativeLookupCache =
+        new NegativeLookupCache(
+            Duration.ofSeconds(30), Duration.ofMinutes(10), 1_000_000, meterRegistry);
+    final var knownIdFilter =
+        new KnownIdFilter(
+            urlRepository,
+            ShortCodeCodec.plain(),
+            negativeLookupCache,
+            true,
+            resolution,
+            ROWS,
+            0.01,
+            10_000,
+            Duration.ofSeconds(5),
+            meterRegistry);
+    knownIdFilter.rebuild();
+
+    urlService =
+        new URLService(
+            new RedisUrlCache(
+                new InMemoryRedisTemplate(valueSerializer, tier.equals("redis")),
+                Duration.ofHours(5),
+                0.1,
+                1.0,
+                meterRegistry),
+            urlRepository,
+            new LocalUrlCache(
+                DataSize.ofMegabytes(64),
+                Duration.ZERO,
+                ShortCodeCodec.plain(),
+                resolution,
+                true,
+                DataSize.ofMegabytes(16),
+                16,
+                meterRegistry),
+            new SnapshotUrlCache(
+                urlRepository,
+                ShortCodeCodec.plain(),
+                false,
+                resolution,
+                Files.createTempDirectory("url-snapshot").resolve("urls.snapshot"),
+                600_000,
+                Duration.ofHours(1),
+                Duration.ofSeconds(5),
+                10_000,
+                meterRegistry),
+            ShortCodeCodec.plain(),
+            resolution,
+            1_000,
+            negativeLookupCache,
+            knownIdFilter,
+            new PrimaryFallback(urlRepository, false, 0, 1, meterRegistry, ObservationRegistry.NOOP),
+            meterRegistry,
+            ObservationRegistry.NOOP);
+
+    codes = new ArrayList<>(ROWS);
+    for (var i = 0; i < ROWS; i++) {
+      codes.add(ShortCodeGenerator.encodeToBase62(i + 1));
+      urlService.resolve(codes.get(i));
+    }
+  }
+
+  @Benchmark
+  public List<Resolution> resolveAll() {
+    return urlService.resolveAll(nextBatch());
+  }
+
+  @Benchmark
+  public void resolveEach(Blackhole blackhole) {
+    for (final var shortCode : nextBatch()) {
+      blackhole.consume(urlService.resolve(shortCode));
+    }
+  }
+
+  private List<String> nextBatch() {
+    final var start = ThreadLocalRandom.current().nextInt(ROWS - batchSize + 1);
+    return codes.subList(start, start + batchSize);
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.repository.ClickCountRepository;
+import com.example.urlshortenerreadservice.service.ClickCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ClickCounter#record(String)}, the only click-tracking work on the redirect path,
+ * from several threads at once. With {@code codes=1} every thread hits the same counter, the worst
+ * case for contention. Nothing is flushed, so no Redis connection is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class ClickCounterBenchmark {
+
+  @Param({"1", "10000"})
+  private int codes;
+
+  private ClickCounter clickCounter;
+  private String[] shortCodes;
+
+  @Setup
+  public void setUp() {
+    final var redisTemplate =
+        new RedisConfig()
+            .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT);
+    clickCounter =
+        new ClickCounter(
+            new ClickCountRepository(redisTemplate, "url:clicks"),
+            Integer.MAX_VALUE,
+            new SimpleMeterRegistry());
+
+    shortCodes = new String[codes];
+    for (var i = 0; i < codes; i++) {
+      shortCodes[i] = ShortCodeGenerator.encodeToBase62(i + 1);
+    }
+  }
+
+  @Benchmark
+  public void record() {
+    clickCounter.record(shortCodes[ThreadLocalRandom.current().nextInt(codes)]);
+  }
+}
@@ -0,0 +1,245 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerbenchmarks.support.BenchmarkDatabase;
+import com.example.urlshortenerbenchmarks.support.InMemoryRedisTemplate;
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.RedisUrlCache;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.contrloller.URLController;
+import com.example.urlshortenerreadservice.repository.ClickCountRepository;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import com.example.urlshortenerreadservice.service.ClickCounter;
+import com.example.urlshortenerreadservice.service.KnownIdFilter;
+import com.example.urlshortenerreadservice.service.PrimaryFallback;
+import com.example.urlshortenerreadservice.service.URLService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of redirect requests that do not resolve, over HTTP against the servlet
+ * {@link URLController} on an embedded Tomcat, so the cost of building and rendering the error
+ * response is included. The read service runs in {@code ID} resolution with in-memory stand-ins
+ * for Redis and PostgreSQL. The {@code miss} parameter selects the kind of code requested:
+ *
+ * <ul>
+ *   <li>{@code unknown}: generated codes of IDs that do not exist, rejected by the {@link
+ *       KnownIdFilter};
+ *   <li>{@code expired}: generated codes of expired mappings, answered by the {@link
+ *       NegativeLookupCache} after their first lookup.
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+public class NotFoundPathBenchmark {
+  private static final int ROWS = 10_000;
+
+  @Param({"unknown", "expired"})
+  private String miss;
+
+  private ServletWebServerApplicationContext context;
+  private HttpClient client;
+  private HttpRequest[] requests;
+
+  @Setup
+  public void setUp() throws IOException, InterruptedException {
+    context =
+        (ServletWebServerApplicationContext)
+            new SpringApplicationBuilder(Server.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+    client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    final var firstId = miss.equals("expired") ? ROWS + 1 : 3 * ROWS + 1;
+    final var expectedStatus = miss.equals("expired") ? 410 : 404;
+    requests = new HttpRequest[ROWS];
+    for (var i = 0; i < ROWS; i++) {
+      final var uri =
+          URI.create(
+              "http://localhost:"
+                  + context.getWebServer().getPort()
+                  + "/"
+                  + ShortCodeGenerator.encodeToBase62(firstId + i));
+      requests[i] = HttpRequest.newBuilder(uri).GET().build();
+      final var status =
+          client.send(requests[i], HttpResponse.BodyHandlers.discarding()).statusCode();
+      if (status != expectedStatus) {
+        throw new IllegalStateException(uri + " answered " + status + ", not " + expectedStatus);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    context.close();
+  }
+
+  @Benchmark
+  public int redirect() throws IOException, InterruptedException {
+    return client
+        .send(
+            requests[ThreadLocalRandom.current().nextInt(ROWS)],
+            HttpResponse.BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  /** The servlet stack of the read service, reduced to the redirect controller and error pages. */
+  @Configuration(proxyBeanMethods = false)
+  @ImportAutoConfiguration({
+    ServletWebServerFactoryAutoConfiguration.class,
+    DispatcherServletAutoConfiguration.class,
+    WebMvcAutoConfiguration.class,
+    HttpMessageConvertersAutoConfiguration.class,
+    JacksonAutoConfiguration.class,
+    ErrorMvcAutoConfiguration.class
+  })
+  @Import(URLController.class)
+  static class Server {
+
+    @Bean
+    SimpleMeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    ClickCounter clickCounter(SimpleMeterRegistry meterRegistry) {
+      final var redisTemplate =
+          new RedisConfig()
+              .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT);
+      return new ClickCounter(
+          new ClickCountRepository(redisTemplate, "url:clicks"), Integer.MAX_VALUE, meterRegistry);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    URLService urlService(SimpleMeterRegistry meterRegistry) throws IOException {
+      final var resolution = URLService.ResolutionMode.ID;
+      final var valueSerializer =
+          (RedisSerializer<Object>)
+              new RedisConfig()
+                  .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT)
+                  .getValueSerializer();
+      final var jdbcTemplate = BenchmarkDatabase.create("not-found", ROWS);
+      final var createdAt = OffsetDateTime.now().minusDays(8);
+      final var expired = new ArrayList<Object[]>(ROWS);
+      for (long id = ROWS + 1; id <= 2 * ROWS; id++) {
+        expired.add(
+            new Object[] {id, "https://example.com/" + id, createdAt, createdAt.plusDays(7)});
+      }
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO urls (id, original_url, created_at, expires_at) VALUES (?, ?, ?, ?)",
+          expired);
+
+      final var urlRepository = new URLRepositoryImpl(jdbcTemplate);
+      final var negativeLookupCache =
+          new NegativeLookupCache(
+              Duration.ofMinutes(10), Duration.ofMinutes(10), 1_000_000, meterRegistry);
+      final var knownIdFilter =
+          new KnownIdFilter(
+              urlRepository,
+              ShortCodeCodec.plain(),
+              negativeLookupCache,
+              true,
+              resolution,
+              2 * ROWS,
+              0.01,
+              10_000,
+              Duration.ofSeconds(5),
+              meterRegistry);
+      knownIdFilter.rebuild();
+      return new URLService(
+          new RedisUrlCache(
+              new InMemoryRedisTemplate(valueSerializer, false),
+              Duration.ofHours(5),
+              0.1,
+              1.0,
+              meterRegistry),
+          urlRepository,
+          new LocalUrlCache(
+              DataSize.ofMegabytes(64),
+              Duration.ofMinutes(10),
+              ShortCodeCodec.plain(),
+              resolution,
+              true,
+              DataSize.ofMegabytes(16),
+              16,
+              meterRegistry),
+          new SnapshotUrlCache(
+              urlRepository,
+              ShortCodeCodec.plain(),
+              false,
+              resolution,
+              Files.createTempDirectory("url-snapshot").resolve("urls.snapshot"),
+              600_000,
+              Duration.ofHours(1),
+              Duration.ofSeconds(5),
+              10_000,
+              meterRegistry),
+          ShortCodeCodec.plain(),
+          resolution,
+          1_000,
+          negativeLookupCache,
+          knownIdFilter,
+          new PrimaryFallback(
+              urlRepository, false, 0, 1, meterRegistry, ObservationRegistry.NOOP),
+          meterRegistry,
+          ObservationRegistry.NOOP);
+    }
+  }
+}
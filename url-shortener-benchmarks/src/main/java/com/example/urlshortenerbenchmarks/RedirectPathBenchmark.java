@@ -0,0 +1,175 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerbenchmarks.support.BenchmarkDatabase;
+import com.example.urlshortenerbenchmarks.support.InMemoryRedisTemplate;
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.RedisUrlCache;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.models.Resolution;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import com.example.urlshortenerreadservice.service.KnownIdFilter;
+import com.example.urlshortenerreadservice.service.PrimaryFallback;
+import com.example.urlshortenerreadservice.service.URLService;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link URLService#resolve(String)} end to end, with in-memory stand-ins for Redis
+ * and PostgreSQL. The {@code tier} parameter selects where lookups are answered:
+ *
+ * <ul>
+ *   <li>{@code local}: the in-process cache, off heap in {@code ID} resolution and in Caffeine in
+ *       {@code CODE} resolution;
+ *   <li>{@code snapshot}: the memory-mapped snapshot, with the in-process cache disabled by a zero
+ *       TTL and Redis dropping every write; in {@code CODE} resolution the snapshot is not used, so
+ *       this measures the database;
+ *   <li>{@code redis}: Redis, with the in-process cache disabled and the snapshot turned off;
+ *   <li>{@code database}: the database, with all caches dropping every write or turned off.
+ * </ul>
+ *
+ * <p>The {@code resolution} parameter selects the {@link URLService.ResolutionMode} used on a
+ * database lookup: by primary key after decoding the code, or by the {@code short_url_code} column.
+ *
+ * <p>{@link #getUnknownUrl()} looks up generated codes that do not exist. In {@code ID} resolution
+ * they are rejected by the {@link KnownIdFilter}; in {@code CODE} resolution only the first lookup
+ * of each reaches the database, later ones are answered by the {@link NegativeLookupCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RedirectPathBenchmark {
+  private static final int ROWS = 10_000;
+
+  @Param({"local", "snapshot", "redis", "database"})
+  private String tier;
+
+  @Param({"ID", "CODE"})
+  private URLService.ResolutionMode resolution;
+
+  private URLService urlService;
+  private String[] codes;
+  private String[] unknownCodes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws IOException {
+    final var valueSerializer =
+        (RedisSerializer<Object>)
+            new RedisConfig()
+                .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT)
+                .getValueSerializer();
+    final var redisTemplate =
+        new InMemoryRedisTemplate(valueSerializer, tier.equals("local") || tier.equals("redis"));
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var observationRegistry = ObservationRegistry.create();
+    observationRegistry
+        .observationConfig()
+        .observationHandler(
+            new DefaultMeterObservationHandler(
+                meterRegistry, DefaultMeterObservationHandler.IgnoredMeters.LONG_TASK_TIMER));
+    final var redisUrlCache =
+        new RedisUrlCache(redisTemplate, Duration.ofHours(5), 0.1, 1.0, meterRegistry);
+    final var localTtl = tier.equals("local") ? Duration.ofMinutes(10) : Duration.ZERO;
+    final var localUrlCache =
+        new LocalUrlCache(
+            DataSize.ofMegabytes(64),
+            localTtl,
+            ShortCodeCodec.plain(),
+            resolution,
+            true,
+            DataSize.ofMegabytes(16),
+            16,
+            meterRegistry);
+    final var urlRepository = new URLRepositoryImpl(BenchmarkDatabase.create("redirect", ROWS));
+    final var negativeLookupCache =
+        new NegativeLookupCache(
+            Duration.ofSeconds(30), Duration.ofMinutes(10), 1_000_000, meterRegistry);
+    final var knownIdFilter =
+        new KnownIdFilter(
+            urlRepository,
+            ShortCodeCodec.plain(),
+            negativeLookupCache,
+            true,
+            resolution,
+            ROWS,
+            0.01,
+            10_000,
+            Duration.ofSeconds(5),
+            meterRegistry);
+    knownIdFilter.rebuild();
+    final var snapshotUrlCache =
+        new SnapshotUrlCache(
+            urlRepository,
+            ShortCodeCodec.plain(),
+            tier.equals("snapshot"),
+            resolution,
+            Files.createTempDirectory("url-snapshot").resolve("urls.snapshot"),
+            600_000,
+            Duration.ofHours(1),
+            Duration.ofSeconds(5),
+            10_000,
+            meterRegistry);
+    snapshotUrlCache.refresh();
+
+    urlService =
+        new URLService(
+            redisUrlCache,
+            urlRepository,
+            localUrlCache,
+            snapshotUrlCache,
+            ShortCodeCodec.plain(),
+            resolution,
+            1_000,
+            negativeLookupCache,
+            knownIdFilter,
+            new PrimaryFallback(urlRepository, false, 0, 1, meterRegistry, observationRegistry),
+            meterRegistry,
+            observationRegistry);
+
+    codes = new String[ROWS];
+    unknownCodes = new String[ROWS];
+    for (var i = 0; i < ROWS; i++) {
+      codes[i] = ShortCodeGenerator.encodeToBase62(i + 1);
+      unknownCodes[i] = ShortCodeGenerator.encodeToBase62(ROWS + i + 1);
+      urlService.resolve(codes[i]);
+    }
+  }
+
+  @Benchmark
+  public Resolution getOriginalUrl() {
+    return urlService.resolve(codes[ThreadLocalRandom.current().nextInt(ROWS)]);
+  }
+
+  @Benchmark
+  public Resolution getUnknownUrl() {
+    return urlService.resolve(unknownCodes[ThreadLocalRandom.current().nextInt(ROWS)]);
+  }
+}
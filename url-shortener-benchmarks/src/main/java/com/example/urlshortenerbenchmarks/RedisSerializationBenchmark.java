@@ -0,0 +1,64 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization of cached {@link ResolvedUrl} entries with the value serializer configured
+ * by the read service's {@link RedisConfig}, in each {@link UrlRedisSerializer.Format}. No
+ * connection is opened; the factory only satisfies the template's configuration checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RedisSerializationBenchmark {
+  @Param({"JSON", "COMPACT"})
+  private UrlRedisSerializer.Format format;
+
+  private RedisSerializer<Object> serializer;
+  private ResolvedUrl url;
+  private byte[] serializedUrl;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    final var template = new RedisConfig().redisTemplate(new LettuceConnectionFactory(), format);
+    serializer = (RedisSerializer<Object>) template.getValueSerializer();
+
+    url =
+        new ResolvedUrl(
+            56800235583L,
+            "https://example.com/articles/56800235583?utm_source=benchmark",
+            OffsetDateTime.now().plusDays(7).toInstant().toEpochMilli());
+    serializedUrl = serializer.serialize(url);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.serialize(url);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return serializer.deserialize(serializedUrl);
+  }
+}
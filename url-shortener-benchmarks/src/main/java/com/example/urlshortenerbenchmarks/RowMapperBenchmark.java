@@ -0,0 +1,53 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerbenchmarks.support.BenchmarkDatabase;
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single-row lookups through the {@code RowMapper}s of both repositories against an
+ * in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RowMapperBenchmark {
+  private static final int ROWS = 10_000;
+
+  private com.example.urlshortenerservice.repository.URLRepositoryImpl writeRepository;
+  private com.example.urlshortenerreadservice.repository.URLRepositoryImpl readRepository;
+
+  @Setup
+  public void setUp() {
+    final var jdbcTemplate = BenchmarkDatabase.create("row-mapper", ROWS);
+    writeRepository = new com.example.urlshortenerservice.repository.URLRepositoryImpl(jdbcTemplate);
+    readRepository =
+        new com.example.urlshortenerreadservice.repository.URLRepositoryImpl(jdbcTemplate);
+  }
+
+  @Benchmark
+  public Optional<?> writeServiceFindById() {
+    return writeRepository.findById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+  }
+
+  @Benchmark
+  public Optional<?> readServiceFindByShortCode() {
+    return readRepository.findByShortCode(
+        ShortCodeGenerator.encodeToBase62(ThreadLocalRandom.current().nextLong(1, ROWS + 1)));
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.urlshortenerbenchmarks;
+
+import com.example.urlshortenerbenchmarks.support.LegacyShortCodeGenerator;
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Base62 encoding and decoding of ids of different magnitudes, against the previous
+ * {@code StringBuilder.insert} based implementation. Run with {@code -prof gc} to compare the
+ * allocations per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ShortCodeGeneratorBenchmark {
+
+  @Param({"125", "56800235583", "9223372036854775807"})
+  private long id;
+
+  private final char[] buffer = new char[ShortCodeGenerator.MAX_LENGTH];
+  private final ShortCodeCodec scrambledCodec = new ShortCodeCodec(10, true, 0x5EED);
+  private String code;
+  private String scrambledCode;
+  private long scrambledId;
+
+  @Setup
+  public void setUp() {
+    code = ShortCodeGenerator.encodeToBase62(id);
+    scrambledId = id % 839299365868340224L;
+    scrambledCode = scrambledCodec.encode(scrambledId);
+  }
+
+  @Benchmark
+  public String legacyEncodeToBase62() {
+    return LegacyShortCodeGenerator.encodeToBase62(id);
+  }
+
+  @Benchmark
+  public String encodeToBase62() {
+    return ShortCodeGenerator.encodeToBase62(id);
+  }
+
+  @Benchmark
+  public int encodeToBase62IntoBuffer() {
+    return ShortCodeGenerator.encodeToBase62(id, 0, buffer);
+  }
+
+  @Benchmark
+  public String scrambledEncode() {
+    return scrambledCodec.encode(scrambledId);
+  }
+
+  @Benchmark
+  public long legacyDecodeFromBase62() {
+    return LegacyShortCodeGenerator.decodeFromBase62(code);
+  }
+
+  @Benchmark
+  public long decodeFromBase62() {
+    return ShortCodeGenerator.decodeFromBase62(code);
+  }
+
+  @Benchmark
+  public long scrambledDecode() {
+    return scrambledCodec.decode(scrambledCode);
+  }
+}
@@ -0,0 +1,186 @@
+package com.example.urlshortenerbenchmarks.load;
+
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop HTTP load test of the redirect endpoint, for comparing the servlet and the reactive
+ * build of the read service under the same number of concurrent connections.
+ *
+ * <p>Each of {@code --connections} virtual threads sends {@code GET /<code>} back to back for
+ * {@code --duration}, after a {@code --warmup} whose requests are not recorded, with codes picked
+ * at random from the generated codes of IDs {@code 1..--ids}. Redirects are not followed. At the
+ * end the throughput, the count per status code and latency percentiles are printed.
+ *
+ * <p>Start the stack under test with the usual environment, e.g. {@code java -jar
+ * url-shortener-read-service-0.0.1.jar} built with and then without {@code -Preactive}, and run:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.urlshortenerbenchmarks.load.RedirectLoadTest \
+ *     --url=http://localhost:8081 --connections=10000 --ids=100000 --duration=60s
+ * </pre>
+ *
+ * <p>Thousands of connections need a matching open-file limit ({@code ulimit -n}) on both sides.
+ */
+public final class RedirectLoadTest {
+  private RedirectLoadTest() {}
+
+  public static void main(String[] args) throws InterruptedException {
+    final var options = parse(args);
+    final var baseUrl = options.getOrDefault("url", "http://localhost:8081");
+    final var connections = Integer.parseInt(options.getOrDefault("connections", "1000"));
+    final var ids = Long.parseLong(options.getOrDefault("ids", "10000"));
+    final var warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+    final var duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+
+    final var client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    final var recording = new AtomicBoolean();
+    final var stopped = new AtomicBoolean();
+    final var workers = new ArrayList<Worker>(connections);
+    final var done = new CountDownLatch(connections);
+
+    for (var i = 0; i < connections; i++) {
+      final var worker = new Worker(client, baseUrl, ids, recording, stopped);
+      workers.add(worker);
+      Thread.ofVirtual()
+          .name("load-" + i)
+          .start(
+              () -> {
+                try {
+                  worker.run();
+                } finally {
+                  done.countDown();
+                }
+              });
+    }
+
+    Thread.sleep(warmup);
+    recording.set(true);
+    final var start = System.nanoTime();
+    Thread.sleep(duration);
+    recording.set(false);
+    final var elapsedNanos = System.nanoTime() - start;
+    stopped.set(true);
+    done.await();
+
+    report(baseUrl, connections, elapsedNanos, workers);
+  }
+
+  private static void report(
+      String baseUrl, int connections, long elapsedNanos, List<Worker> workers) {
+    final var statuses = new TreeMap<Integer, Long>();
+    var count = 0;
+    for (final var worker : workers) {
+      worker.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+      count += worker.latencyCount;
+    }
+    final var latencies = new long[count];
+    var position = 0;
+    for (final var worker : workers) {
+      System.arraycopy(worker.latencies, 0, latencies, position, worker.latencyCount);
+      position += worker.latencyCount;
+    }
+    Arrays.sort(latencies);
+
+    System.out.printf("Target:      %s with %d connections%n", baseUrl, connections);
+    System.out.printf("Requests:    %d in %.1f s%n", count, elapsedNanos / 1e9);
+    System.out.printf("Throughput:  %.0f req/s%n", count / (elapsedNanos / 1e9));
+    System.out.printf("Statuses:    %s (-1 = I/O error)%n", statuses);
+    for (final var percentile : new String[] {"50", "90", "99", "99.9", "100"}) {
+      final var latency = percentile(latencies, Double.parseDouble(percentile));
+      System.out.printf("%-12s %.2f ms%n", "p" + percentile + ":", latency / 1e6);
+    }
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    final var index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    final var options = new HashMap<String, String>();
+    for (final var arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+      }
+      options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+    }
+    return options;
+  }
+
+  /** One connection's request loop, recording latencies only while the measurement runs. */
+  private static final class Worker {
+    private final HttpClient client;
+    private final String baseUrl;
+    private final long ids;
+    private final AtomicBoolean recording;
+    private final AtomicBoolean stopped;
+    private final Map<Integer, Long> statuses = new HashMap<>();
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+
+    private Worker(
+        HttpClient client,
+        String baseUrl,
+        long ids,
+        AtomicBoolean recording,
+        AtomicBoolean stopped) {
+      this.client = client;
+      this.baseUrl = baseUrl;
+      this.ids = ids;
+      this.recording = recording;
+      this.stopped = stopped;
+    }
+
+    private void run() {
+      while (!stopped.get()) {
+        final var id = ThreadLocalRandom.current().nextLong(ids) + 1;
+        final var uri = URI.create(baseUrl + "/" + ShortCodeGenerator.encodeToBase62(id));
+        final var request = HttpRequest.newBuilder(uri).GET().build();
+        final var start = System.nanoTime();
+        int status;
+        try {
+          status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+          status = -1;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        if (recording.get()) {
+          record(status, System.nanoTime() - start);
+        }
+      }
+    }
+
+    private void record(int status, long latencyNanos) {
+      statuses.merge(status, 1L, Long::sum);
+      if (latencyCount == latencies.length) {
+        latencies = Arrays.copyOf(latencies, latencies.length * 2);
+      }
+      latencies[latencyCount++] = latencyNanos;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.urlshortenerbenchmarks.support;
+
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+
+/**
+ * In-memory H2 stand-in for the PostgreSQL databases, created with the same {@code urls} and
+ * {@code url_tombstones} tables as {@code database/initialize_db_tables.sql} and filled with {@code
+ * rows} mappings whose ids run from 1 to {@code rows} and whose short codes are the Base62 encoding
+ * of the id.
+ */
+public final class BenchmarkDatabase {
+
+  private BenchmarkDatabase() {}
+
+  public static JdbcTemplate create(String name, int rows) {
+    final var dataSource =
+        new SingleConnectionDataSource(
+            "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", true);
+    final var jdbcTemplate = new JdbcTemplate(dataSource);
+
+    jdbcTemplate.execute("DROP ALL OBJECTS");
+    jdbcTemplate.execute("CREATE SEQUENCE urls_id_seq INCREMENT BY 10000");
+    jdbcTemplate.execute(
+        """
+        CREATE TABLE urls
+        (
+            id             BIGINT DEFAULT nextval('urls_id_seq') PRIMARY KEY,
+            original_url   TEXT NOT NULL,
+            short_url_code VARCHAR(10) UNIQUE,
+            created_at     TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+            expires_at     TIMESTAMP WITH TIME ZONE,
+            original_url_hash BIGINT
+        )
+        """);
+    jdbcTemplate.execute(
+        """
+        CREATE TABLE url_tombstones
+        (
+            id         BIGINT PRIMARY KEY,
+            deleted_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+        )
+        """);
+
+    final var createdAt = OffsetDateTime.now();
+    final var batch = new ArrayList<Object[]>(rows);
+    for (long id = 1; id <= rows; id++) {
+      batch.add(
+          new Object[] {
+            id,
+            "https://example.com/articles/" + id + "?utm_source=benchmark",
+            ShortCodeGenerator.encodeToBase62(id),
+            createdAt,
+            createdAt.plusDays(7)
+          });
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO urls (id, original_url, short_url_code, created_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+        batch);
+
+    return jdbcTemplate;
+  }
+}
@@ -0,0 +1,181 @@
+package com.example.urlshortenerbenchmarks.support;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory stand-in for a Redis-backed {@link RedisTemplate}. Values are stored as the bytes
+ * produced by the configured value serializer, so reads and writes pay the same serialization cost
+ * as against a real Redis server, minus the network round-trip.
+ *
+ * <p>Only the operations used on the redirect path are supported: {@code GET}, {@code MGET}, {@code
+ * SET} with an optional TTL and {@code DEL} through the template, and {@code GET}, {@code SET} with
+ * an expiration and {@code PTTL} inside {@link #executePipelined(RedisCallback)}. With {@code
+ * retainWrites} set to {@code false} every write is dropped, which turns the template into an
+ * always-missing cache.
+ */
+public class InMemoryRedisTemplate extends RedisTemplate<String, Object> {
+  private final Map<String, StoredValue> values = new ConcurrentHashMap<>();
+  private final boolean retainWrites;
+  private final ValueOperations<String, Object> valueOperations;
+
+  @SuppressWarnings("unchecked")
+  public InMemoryRedisTemplate(RedisSerializer<Object> valueSerializer, boolean retainWrites) {
+    this.retainWrites = retainWrites;
+    setKeySerializer(RedisSerializer.string());
+    setValueSerializer(valueSerializer);
+    this.valueOperations =
+        proxy(
+            ValueOperations.class,
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                  case "get" -> deserialize(bytes((String) args[0]));
+                  case "multiGet" ->
+                      ((Collection<String>) args[0])
+                          .stream().map(key -> deserialize(bytes(key))).toList();
+                  case "set" -> {
+                    set((String) args[0], args[1], args.length > 2 ? args[2] : null);
+                    yield null;
+                  }
+                  default -> throw unsupported(method.getName());
+                });
+  }
+
+  @Override
+  public ValueOperations<String, Object> opsForValue() {
+    return valueOperations;
+  }
+
+  @Override
+  public Boolean delete(String key) {
+    return values.remove(key) != null;
+  }
+
+  @Override
+  public Long delete(Collection<String> keys) {
+    return keys.stream().filter(key -> values.remove(key) != null).count();
+  }
+
+  @Override
+  public List<Object> executePipelined(RedisCallback<?> action) {
+    final var results = new ArrayList<Object>();
+    final RedisStringCommands stringCommands =
+        proxy(
+            RedisStringCommands.class,
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "get" -> results.add(deserialize(bytes(key(args[0]))));
+                case "set" -> {
+                  final var expiration = (Expiration) args[2];
+                  final var ttlNanos = expiration.getConverted(TimeUnit.NANOSECONDS);
+                  store(
+                      key(args[0]),
+                      (byte[]) args[1],
+                      expiration.isPersistent() ? -1 : System.nanoTime() + ttlNanos);
+                  results.add(true);
+                }
+                default -> throw unsupported(method.getName());
+              }
+              return null;
+            });
+    final RedisKeyCommands keyCommands =
+        proxy(
+            RedisKeyCommands.class,
+            (proxy, method, args) -> {
+              if (!method.getName().equals("pTtl")) {
+                throw unsupported(method.getName());
+              }
+              results.add(pTtl(key(args[0])));
+              return null;
+            });
+    final RedisConnection connection =
+        proxy(
+            RedisConnection.class,
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                  case "stringCommands" -> stringCommands;
+                  case "keyCommands" -> keyCommands;
+                  default -> throw unsupported(method.getName());
+                });
+
+    action.doInRedis(connection);
+    return results;
+  }
+
+  private byte[] bytes(String key) {
+    final var value = values.get(key);
+    if (value == null || value.isExpired()) {
+      return null;
+    }
+    return value.bytes;
+  }
+
+  private Object deserialize(byte[] bytes) {
+    return bytes == null ? null : getValueSerializer().deserialize(bytes);
+  }
+
+  private long pTtl(String key) {
+    final var value = values.get(key);
+    if (value == null || value.isExpired()) {
+      return -2;
+    }
+    return value.expiresAtNanos < 0 ? -1 : (value.expiresAtNanos - System.nanoTime()) / 1_000_000;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void set(String key, Object value, Object ttl) {
+    final var bytes = ((RedisSerializer<Object>) getValueSerializer()).serialize(value);
+    final var expiresAtNanos =
+        ttl instanceof Duration duration ? System.nanoTime() + duration.toNanos() : -1;
+    store(key, bytes, expiresAtNanos);
+  }
+
+  private void store(String key, byte[] bytes, long expiresAtNanos) {
+    if (retainWrites) {
+      values.put(key, new StoredValue(bytes, expiresAtNanos));
+    }
+  }
+
+  private static String key(Object rawKey) {
+    return new String((byte[]) rawKey, StandardCharsets.UTF_8);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static UnsupportedOperationException unsupported(String method) {
+    return new UnsupportedOperationException("Not supported by the in-memory stand-in: " + method);
+  }
+
+  private static final class StoredValue {
+    private final byte[] bytes;
+    private final long expiresAtNanos;
+
+    private StoredValue(byte[] bytes, long expiresAtNanos) {
+      this.bytes = bytes;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    private boolean isExpired() {
+      return expiresAtNanos >= 0 && System.nanoTime() - expiresAtNanos >= 0;
+    }
+  }
+}
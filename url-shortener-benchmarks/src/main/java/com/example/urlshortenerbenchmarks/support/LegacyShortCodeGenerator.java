@@ -0,0 +1,38 @@
+package com.example.urlshortenerbenchmarks.support;
+
+/**
+ * The Base62 encoder as it was before it was reworked to write into a buffer, kept as the baseline
+ * of {@code ShortCodeGeneratorBenchmark}.
+ */
+public final class LegacyShortCodeGenerator {
+  private static final String ALPHABET =
+      "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final int BASE = ALPHABET.length();
+
+  private LegacyShortCodeGenerator() {}
+
+  public static String encodeToBase62(long num) {
+    if (num == 0) {
+      return String.valueOf(ALPHABET.charAt(0));
+    }
+
+    final var result = new StringBuilder();
+
+    while (num > 0) {
+      result.insert(0, ALPHABET.charAt((int) (num % BASE)));
+      num /= BASE;
+    }
+
+    return result.toString();
+  }
+
+  public static long decodeFromBase62(String code) {
+    long result = 0;
+
+    for (var i = 0; i < code.length(); i++) {
+      result = Math.addExact(Math.multiplyExact(result, BASE), ALPHABET.indexOf(code.charAt(i)));
+    }
+
+    return result;
+  }
+}
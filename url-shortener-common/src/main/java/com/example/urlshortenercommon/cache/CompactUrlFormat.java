@@ -0,0 +1,163 @@
+package com.example.urlshortenercommon.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The compact binary form of a cached URL mapping in Redis, written by both services and read by
+ * the read service.
+ *
+ * <p>An entry starts with a two-byte header, {@code 0xFE} followed by the format version, which
+ * cannot be the first byte of a JSON document. Version 1 continues with a flags byte, the ID as an
+ * unsigned varint, the creation and expiration times as zig-zag varints of epoch milliseconds, and
+ * the UTF-8 bytes of the original URL up to the end of the value. The short code is not stored since
+ * it is already the key. Absent times are passed and reported as {@link #NO_TIME}.
+ */
+public final class CompactUrlFormat {
+  public static final byte MAGIC = (byte) 0xFE;
+  public static final byte VERSION = 1;
+
+  /** Stands for a creation or expiration time that is not set. */
+  public static final long NO_TIME = Long.MIN_VALUE;
+
+  private static final int HAS_ORIGINAL_URL = 1;
+  private static final int HAS_CREATED_AT = 1 << 1;
+  private static final int HAS_EXPIRES_AT = 1 << 2;
+  private static final int MAX_VARINT_LENGTH = 10;
+
+  private CompactUrlFormat() {}
+
+  /** Builds the caller's representation of a decoded entry, without an intermediate object. */
+  @FunctionalInterface
+  public interface Decoder<T> {
+    /**
+     * Creates the decoded mapping.
+     *
+     * @param id The ID of the mapping.
+     * @param originalUrl The original URL, or {@code null} if none was stored.
+     * @param createdAtMillis The creation time in epoch milliseconds, or {@link #NO_TIME}.
+     * @param expiresAtMillis The expiration time in epoch milliseconds, or {@link #NO_TIME}.
+     * @return The decoded mapping.
+     */
+    T decode(long id, String originalUrl, long createdAtMillis, long expiresAtMillis);
+  }
+
+  /**
+   * Tells whether a value starts with the compact header, of whatever version.
+   *
+   * @param bytes The stored value.
+   * @return {@code true} if the value is a compact entry rather than, e.g., a JSON document.
+   */
+  public static boolean isCompact(byte[] bytes) {
+    return bytes.length > 0 && bytes[0] == MAGIC;
+  }
+
+  /**
+   * Tells whether a compact entry has the version this format reads.
+   *
+   * @param bytes The stored value, starting with the compact header.
+   * @return {@code true} if {@link #decode(byte[], Decoder)} can read the entry.
+   */
+  public static boolean isCurrentVersion(byte[] bytes) {
+    return bytes.length >= 2 && bytes[0] == MAGIC && bytes[1] == VERSION;
+  }
+
+  /**
+   * Encodes a mapping.
+   *
+   * @param id The non-negative ID of the mapping.
+   * @param originalUrl The original URL, or {@code null}.
+   * @param createdAtMillis The creation time in epoch milliseconds, or {@link #NO_TIME}.
+   * @param expiresAtMillis The expiration time in epoch milliseconds, or {@link #NO_TIME}.
+   * @return The compact entry.
+   */
+  public static byte[] encode(
+      long id, String originalUrl, long createdAtMillis, long expiresAtMillis) {
+    final var urlBytes = originalUrl == null ? null : originalUrl.getBytes(StandardCharsets.UTF_8);
+    final var buffer =
+        new byte[3 + 3 * MAX_VARINT_LENGTH + (urlBytes == null ? 0 : urlBytes.length)];
+
+    var flags = 0;
+    flags |= urlBytes != null ? HAS_ORIGINAL_URL : 0;
+    flags |= createdAtMillis != NO_TIME ? HAS_CREATED_AT : 0;
+    flags |= expiresAtMillis != NO_TIME ? HAS_EXPIRES_AT : 0;
+
+    buffer[0] = MAGIC;
+    buffer[1] = VERSION;
+    buffer[2] = (byte) flags;
+    var position = writeVarint(buffer, 3, id);
+    if (createdAtMillis != NO_TIME) {
+      position = writeVarint(buffer, position, zigZag(createdAtMillis));
+    }
+    if (expiresAtMillis != NO_TIME) {
+      position = writeVarint(buffer, position, zigZag(expiresAtMillis));
+    }
+    if (urlBytes != null) {
+      System.arraycopy(urlBytes, 0, buffer, position, urlBytes.length);
+      position += urlBytes.length;
+    }
+
+    return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+  }
+
+  /**
+   * Decodes a compact entry of the current version.
+   *
+   * @param bytes The stored value, for which {@link #isCurrentVersion(byte[])} holds.
+   * @param decoder Builds the caller's representation of the mapping.
+   * @return What the decoder built.
+   * @throws IllegalArgumentException If the entry is truncated or malformed.
+   */
+  public static <T> T decode(byte[] bytes, Decoder<T> decoder) {
+    if (bytes.length < 4) {
+      throw new IllegalArgumentException("Truncated compact URL entry");
+    }
+    final var flags = bytes[2];
+    final var cursor = new int[] {3};
+
+    final var id = readVarint(bytes, cursor);
+    final var createdAtMillis =
+        (flags & HAS_CREATED_AT) != 0 ? unZigZag(readVarint(bytes, cursor)) : NO_TIME;
+    final var expiresAtMillis =
+        (flags & HAS_EXPIRES_AT) != 0 ? unZigZag(readVarint(bytes, cursor)) : NO_TIME;
+    final var originalUrl =
+        (flags & HAS_ORIGINAL_URL) != 0
+            ? new String(bytes, cursor[0], bytes.length - cursor[0], StandardCharsets.UTF_8)
+            : null;
+
+    return decoder.decode(id, originalUrl, createdAtMillis, expiresAtMillis);
+  }
+
+  private static int writeVarint(byte[] buffer, int position, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return position;
+  }
+
+  private static long readVarint(byte[] bytes, int[] cursor) {
+    var result = 0L;
+    for (var shift = 0; shift < 64; shift += 7) {
+      if (cursor[0] >= bytes.length) {
+        throw new IllegalArgumentException("Truncated compact URL entry");
+      }
+      final var b = bytes[cursor[0]++];
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in compact URL entry");
+  }
+
+  /** Zig-zag encodes epoch milliseconds for a compact varint. */
+  private static long zigZag(long epochMillis) {
+    return (epochMillis << 1) ^ (epochMillis >> 63);
+  }
+
+  private static long unZigZag(long zigZagEpochMillis) {
+    return (zigZagEpochMillis >>> 1) ^ -(zigZagEpochMillis & 1);
+  }
+}
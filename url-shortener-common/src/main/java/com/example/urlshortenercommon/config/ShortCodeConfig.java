@@ -0,0 +1,30 @@
+package com.example.urlshortenercommon.config;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the format of generated short codes. */
+@Configuration
+public class ShortCodeConfig {
+
+  /**
+   * Provides the {@link ShortCodeCodec} used to turn database IDs into short codes.
+   *
+   * <p>The write service encodes IDs with it and the read service decodes codes back into IDs, so
+   * both must be configured with the same width, scramble flag and key.
+   *
+   * @param width The fixed width of the codes, {@code 0} for codes as short as possible.
+   * @param scramble Whether sequential IDs are scrambled into non-sequential codes.
+   * @param scrambleKey The secret the scramble is derived from.
+   * @return The configured {@link ShortCodeCodec}.
+   */
+  @Bean
+  public ShortCodeCodec shortCodeCodec(
+      @Value("${url.short-code.width:0}") int width,
+      @Value("${url.short-code.scramble.enabled:false}") boolean scramble,
+      @Value("${url.short-code.scramble.key:0}") long scrambleKey) {
+    return new ShortCodeCodec(width, scramble, scrambleKey);
+  }
+}
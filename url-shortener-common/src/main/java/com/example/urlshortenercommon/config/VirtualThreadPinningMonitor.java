@@ -0,0 +1,95 @@
+package com.example.urlshortenercommon.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, e.g. while blocking inside a
+ * {@code synchronized} block or a native frame around JDBC or Redis I/O.
+ *
+ * <p>The monitor streams the JFR {@code jdk.VirtualThreadPinned} event in-process and logs every
+ * occurrence longer than the configured threshold together with the top of its stack trace. Each
+ * occurrence is also recorded in the {@code url.virtual.threads.pinned} timer, so pinning shows up
+ * on {@code /actuator/prometheus} as a count and a total pinned time. It is only active when the
+ * application runs with {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(
+    name = "url.virtual-threads.pinning-diagnostics.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_STACK_FRAMES = 8;
+
+  private final Duration threshold;
+  private final Timer pinnedTimer;
+  private RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(
+      MeterRegistry meterRegistry,
+      @Value("${url.virtual-threads.pinning-diagnostics.threshold:20ms}") Duration threshold) {
+    this.threshold = threshold;
+    this.pinnedTimer =
+        Timer.builder("url.virtual.threads.pinned")
+            .description("Virtual threads pinned to their carrier for longer than the threshold")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public synchronized void start() {
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+      recordingStream = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return recordingStream != null;
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedTimer.record(event.getDuration());
+
+    final var stack = new StringBuilder();
+    if (event.getStackTrace() != null) {
+      event.getStackTrace().getFrames().stream()
+          .limit(LOGGED_STACK_FRAMES)
+          .forEach(
+              frame ->
+                  stack
+                      .append("\n\tat ")
+                      .append(frame.getMethod().getType().getName())
+                      .append('.')
+                      .append(frame.getMethod().getName())
+                      .append(':')
+                      .append(frame.getLineNumber()));
+    }
+    log.warn(
+        "Virtual thread pinned to its carrier for {} ms{}",
+        event.getDuration().toMillis(),
+        stack);
+  }
+}
@@ -0,0 +1,208 @@
+package com.example.urlshortenercommon.utils;
+
+/**
+ * Converts between database IDs and short codes, on top of the Base62 encoding of {@link
+ * ShortCodeGenerator}.
+ *
+ * <p>Two optional transformations can be configured:
+ *
+ * <ul>
+ *   <li>a fixed width, which pads every code on the left to the same length;
+ *   <li>a keyed scramble, which maps the ID to another number of the same width before it is
+ *       encoded, so that sequential IDs do not produce sequential, guessable codes.
+ * </ul>
+ *
+ * <p>The scramble is a four-round Feistel network over the smallest even number of bits that
+ * covers {@code 62^width}, combined with cycle walking to stay inside that range. It is a bijection,
+ * so every ID below {@code 62^width} gets a distinct code of exactly {@code width} characters and
+ * {@link #decode(CharSequence)} recovers the ID. It hides the order of IDs from casual observers but
+ * is not meant to be cryptographically strong.
+ *
+ * <p>Instances are immutable and thread-safe. Writer and readers of the same codes must use the
+ * same width, scramble flag and key.
+ */
+public final class ShortCodeCodec {
+  private static final int ROUNDS = 4;
+
+  private final int width;
+  private final boolean scramble;
+  private final long domainSize;
+  private final int halfBits;
+  private final long halfMask;
+  private final long[] roundKeys;
+
+  /**
+   * Creates a codec.
+   *
+   * @param width The fixed width of the codes, or {@code 0} for codes as short as possible.
+   * @param scramble Whether IDs are scrambled before encoding. Requires a fixed width.
+   * @param scrambleKey The secret the scramble is derived from.
+   * @throws IllegalArgumentException If the width is out of range, or scrambling is requested
+   *     without a fixed width.
+   */
+  public ShortCodeCodec(int width, boolean scramble, long scrambleKey) {
+    if (width < 0 || width >= ShortCodeGenerator.MAX_LENGTH) {
+      throw new IllegalArgumentException(
+          "Width must be between 0 and " + (ShortCodeGenerator.MAX_LENGTH - 1) + ": " + width);
+    }
+    if (scramble && width == 0) {
+      throw new IllegalArgumentException("Scrambling short codes requires a fixed width");
+    }
+
+    this.width = width;
+    this.scramble = scramble;
+    this.domainSize = width == 0 ? Long.MAX_VALUE : pow62(width);
+
+    final var domainBits = 64 - Long.numberOfLeadingZeros(domainSize - 1);
+    this.halfBits = (domainBits + 1) / 2;
+    this.halfMask = (1L << halfBits) - 1;
+    this.roundKeys = new long[ROUNDS];
+
+    var state = scrambleKey;
+    for (var i = 0; i < ROUNDS; i++) {
+      state += 0x9E3779B97F4A7C15L;
+      roundKeys[i] = mix(state);
+    }
+  }
+
+  /**
+   * Returns a codec that produces the same codes as {@link ShortCodeGenerator#encodeToBase62(long)}.
+   *
+   * @return A codec without padding and without scrambling.
+   */
+  public static ShortCodeCodec plain() {
+    return new ShortCodeCodec(0, false, 0);
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public boolean isScrambled() {
+    return scramble;
+  }
+
+  /**
+   * Encodes a database ID into its short code.
+   *
+   * @param id The non-negative ID to encode.
+   * @return The short code of the ID.
+   * @throws IllegalArgumentException If the ID is negative or does not fit into the fixed width.
+   */
+  public String encode(long id) {
+    checkEncodable(id);
+    return ShortCodeGenerator.encodeToBase62(scramble ? permute(id) : id, width);
+  }
+
+  /**
+   * Encodes a database ID into the end of a caller-provided buffer, without allocating.
+   *
+   * @param id The non-negative ID to encode.
+   * @param buffer The buffer to write into. Must be at least {@link ShortCodeGenerator#MAX_LENGTH}
+   *     long.
+   * @return The index of the first character of the code in the buffer.
+   * @throws IllegalArgumentException If the ID is negative or does not fit into the fixed width.
+   */
+  public int encode(long id, char[] buffer) {
+    checkEncodable(id);
+    return ShortCodeGenerator.encodeToBase62(scramble ? permute(id) : id, width, buffer);
+  }
+
+  private void checkEncodable(long id) {
+    if (id < 0 || (width > 0 && id >= domainSize)) {
+      throw new IllegalArgumentException(
+          "Id " + id + " cannot be encoded into " + width + " Base62 characters");
+    }
+  }
+
+  /**
+   * Decodes a short code back into the database ID it was generated from.
+   *
+   * @param code The short code to decode.
+   * @return The ID the code was generated from.
+   * @throws IllegalArgumentException If the code is not a code this codec could have produced.
+   */
+  public long decode(CharSequence code) {
+    final var id = tryDecode(code);
+    if (id < 0) {
+      throw new IllegalArgumentException("Not a valid short code: " + code);
+    }
+    return id;
+  }
+
+  /**
+   * Decodes a short code like {@link #decode(CharSequence)}, but reports invalid input with a
+   * negative result instead of an exception. Only codes in the exact form this codec produces are
+   * accepted: without padding, a code must not start with the zero digit (except for the code of
+   * ID 0); with a fixed width, a code must be exactly that long.
+   *
+   * @param code The short code to decode.
+   * @return The ID the code was generated from, or {@code -1} if this codec could not have
+   *     produced the code.
+   */
+  public long tryDecode(CharSequence code) {
+    if (code == null || code.isEmpty()) {
+      return -1;
+    }
+    if (width == 0 ? code.length() > 1 && code.charAt(0) == '0' : code.length() != width) {
+      return -1;
+    }
+
+    final var value = ShortCodeGenerator.tryDecodeFromBase62(code);
+    if (value < 0 || (width > 0 && value >= domainSize)) {
+      return -1;
+    }
+    return scramble ? unpermute(value) : value;
+  }
+
+  private long permute(long value) {
+    do {
+      value = feistel(value);
+    } while (value >= domainSize);
+    return value;
+  }
+
+  private long unpermute(long value) {
+    do {
+      value = inverseFeistel(value);
+    } while (value >= domainSize);
+    return value;
+  }
+
+  private long feistel(long value) {
+    var left = value >>> halfBits;
+    var right = value & halfMask;
+    for (var round = 0; round < ROUNDS; round++) {
+      final var previousRight = right;
+      right = left ^ (mix(right ^ roundKeys[round]) & halfMask);
+      left = previousRight;
+    }
+    return (left << halfBits) | right;
+  }
+
+  private long inverseFeistel(long value) {
+    var left = value >>> halfBits;
+    var right = value & halfMask;
+    for (var round = ROUNDS - 1; round >= 0; round--) {
+      final var previousLeft = left;
+      left = right ^ (mix(left ^ roundKeys[round]) & halfMask);
+      right = previousLeft;
+    }
+    return (left << halfBits) | right;
+  }
+
+  /** The SplitMix64 finalizer, used as the Feistel round function. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+
+  private static long pow62(int exponent) {
+    var result = 1L;
+    for (var i = 0; i < exponent; i++) {
+      result *= 62;
+    }
+    return result;
+  }
+}
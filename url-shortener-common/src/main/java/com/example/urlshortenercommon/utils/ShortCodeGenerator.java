@@ -0,0 +1,172 @@
+package com.example.urlshortenercommon.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Utility class for generating short codes using Base62 encoding. Base62 encoding is used to
+ * convert a long integer ID into a shorter, alphanumeric string, suitable for use as a short URL
+ * code. This ensures that each generated short code is unique, assuming the input ID is unique
+ * (e.g., a primary key from a database).
+ *
+ * <p>Encoding writes the digits back-to-front and decoding uses a lookup table. Decoding and
+ * encoding into a caller-provided buffer do not allocate. Encoding into a {@link String} measures
+ * the code first and writes it into an array of exactly that many Latin-1 bytes, the form the
+ * string stores it in, so no buffer is sized for the longest code.
+ */
+public class ShortCodeGenerator {
+  private static final String ALPHABET =
+      "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final char[] DIGITS = ALPHABET.toCharArray();
+  private static final int BASE = DIGITS.length;
+  private static final byte[] DIGIT_VALUES = new byte[128];
+  private static final long[] POWERS = new long[10];
+
+  /** The length of the longest code, the one of {@link Long#MAX_VALUE}. */
+  public static final int MAX_LENGTH = 11;
+
+  static {
+    Arrays.fill(DIGIT_VALUES, (byte) -1);
+    for (var i = 0; i < BASE; i++) {
+      DIGIT_VALUES[DIGITS[i]] = (byte) i;
+    }
+    POWERS[0] = BASE;
+    for (var i = 1; i < POWERS.length; i++) {
+      POWERS[i] = POWERS[i - 1] * BASE;
+    }
+  }
+
+  /**
+   * Encodes a given long integer into a Base62 string. This method converts a numerical ID
+   * (typically a database primary key) into a compact, human-readable, and URL-friendly short code.
+   *
+   * <p>The encoding process works by repeatedly dividing the number by the base (62) and using the
+   * remainder to select a character from the {@code ALPHABET}. The characters are written from the
+   * end of the buffer towards its start, so they come out in the right order without shifting.
+   *
+   * @param num The long integer number to be encoded. Must be non-negative.
+   * @return A {@link String} representing the Base62 encoded short code. Returns "0" if the input
+   *     number is 0.
+   */
+  public static String encodeToBase62(long num) {
+    return encodeToBase62(num, 0);
+  }
+
+  /**
+   * Encodes a given long integer into a Base62 string of at least the given width, padding it on
+   * the left with the zero digit.
+   *
+   * @param num The long integer number to be encoded. Must be non-negative.
+   * @param width The minimum length of the code, or {@code 0} for no padding. Must not exceed
+   *     {@link #MAX_LENGTH}.
+   * @return A {@link String} representing the Base62 encoded short code.
+   * @throws IllegalArgumentException If the number is negative, or the width is out of range.
+   */
+  public static String encodeToBase62(long num, int width) {
+    checkArguments(num, width);
+
+    final var bytes = new byte[Math.max(digitCount(num), width)];
+    var position = bytes.length;
+
+    do {
+      bytes[--position] = (byte) DIGITS[(int) (num % BASE)];
+      num /= BASE;
+    } while (num > 0);
+
+    while (position > 0) {
+      bytes[--position] = (byte) DIGITS[0];
+    }
+
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Encodes a given long integer into the end of a caller-provided buffer, without allocating. The
+   * code occupies {@code buffer[start, buffer.length)}, where {@code start} is the returned index.
+   *
+   * @param num The long integer number to be encoded. Must be non-negative.
+   * @param width The minimum length of the code, or {@code 0} for no padding.
+   * @param buffer The buffer to write into. Must be at least {@link #MAX_LENGTH} long.
+   * @return The index of the first character of the code in the buffer.
+   * @throws IllegalArgumentException If the number is negative, or the width is out of range.
+   */
+  public static int encodeToBase62(long num, int width, char[] buffer) {
+    checkArguments(num, width);
+
+    var position = buffer.length;
+
+    do {
+      buffer[--position] = DIGITS[(int) (num % BASE)];
+      num /= BASE;
+    } while (num > 0);
+
+    final var start = buffer.length - width;
+    while (position > start) {
+      buffer[--position] = DIGITS[0];
+    }
+
+    return position;
+  }
+
+  private static void checkArguments(long num, int width) {
+    if (num < 0) {
+      throw new IllegalArgumentException("Number to encode must be non-negative: " + num);
+    }
+    if (width < 0 || width > MAX_LENGTH) {
+      throw new IllegalArgumentException("Width must be between 0 and " + MAX_LENGTH + ": " + width);
+    }
+  }
+
+  /** Returns the number of Base62 digits of a non-negative number, without padding. */
+  private static int digitCount(long num) {
+    var count = 1;
+    while (count <= POWERS.length && num >= POWERS[count - 1]) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Decodes a Base62 short code back into the long integer it was generated from. This is the
+   * inverse of {@link #encodeToBase62(long)}; leading zero digits added as padding are ignored.
+   *
+   * @param code The Base62 encoded short code.
+   * @return The decoded non-negative number.
+   * @throws IllegalArgumentException If the code is empty, contains characters outside of the
+   *     {@code ALPHABET}, or does not fit into a {@code long}.
+   */
+  public static long decodeFromBase62(CharSequence code) {
+    final var result = tryDecodeFromBase62(code);
+    if (result < 0) {
+      throw new IllegalArgumentException("Invalid Base62 short code: " + code);
+    }
+    return result;
+  }
+
+  /**
+   * Decodes a Base62 short code like {@link #decodeFromBase62(CharSequence)}, but reports invalid
+   * input with a negative result instead of an exception, for lookups of untrusted codes.
+   *
+   * @param code The Base62 encoded short code.
+   * @return The decoded non-negative number, or {@code -1} if the code is empty, contains
+   *     characters outside of the {@code ALPHABET}, or does not fit into a {@code long}.
+   */
+  public static long tryDecodeFromBase62(CharSequence code) {
+    if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+      return -1;
+    }
+
+    long result = 0;
+
+    for (var i = 0; i < code.length(); i++) {
+      final var character = code.charAt(i);
+      final var digit = character < DIGIT_VALUES.length ? DIGIT_VALUES[character] : -1;
+      if (digit < 0 || result > (Long.MAX_VALUE - digit) / BASE) {
+        return -1;
+      }
+      result = result * BASE + digit;
+    }
+
+    return result;
+  }
+}
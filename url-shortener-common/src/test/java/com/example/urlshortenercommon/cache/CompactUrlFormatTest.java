@@ -0,0 +1,62 @@
+package com.example.urlshortenercommon.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+
+class CompactUrlFormatTest {
+  private record Decoded(long id, String originalUrl, long createdAtMillis, long expiresAtMillis) {}
+
+  @Test
+  void encode_WhenOnlyCreationTimeIsSet_ThenWriteTheDocumentedLayout() {
+    // When
+    final var bytes = CompactUrlFormat.encode(42, "https://e.x", 1, CompactUrlFormat.NO_TIME);
+
+    // Then
+    final var expected = new byte[] {(byte) 0xFE, 1, 0b011, 42, 2};
+    final var originalUrl = "https://e.x".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertEquals(expected.length + originalUrl.length, bytes.length);
+    for (var i = 0; i < expected.length; i++) {
+      Assertions.assertEquals(expected[i], bytes[i], "Byte " + i);
+    }
+  }
+
+  @Test
+  void decode_WhenEncoded_ThenRoundTripEveryField() {
+    // Given
+    final var bytes =
+        CompactUrlFormat.encode(56800235583L, "https://example.com/ß", -1234L, 1748781015123L);
+
+    // When
+    final var decoded = CompactUrlFormat.decode(bytes, Decoded::new);
+
+    // Then
+    Assertions.assertEquals(
+        new Decoded(56800235583L, "https://example.com/ß", -1234L, 1748781015123L), decoded);
+  }
+
+  @Test
+  void decode_WhenFieldsAreAbsent_ThenReportNoTimeAndNoUrl() {
+    // Given
+    final var bytes =
+        CompactUrlFormat.encode(7, null, CompactUrlFormat.NO_TIME, CompactUrlFormat.NO_TIME);
+
+    // When
+    final var decoded = CompactUrlFormat.decode(bytes, Decoded::new);
+
+    // Then
+    Assertions.assertEquals(
+        new Decoded(7, null, CompactUrlFormat.NO_TIME, CompactUrlFormat.NO_TIME), decoded);
+  }
+
+  @Test
+  void decode_WhenEntryIsTruncated_ThenThrowIllegalArgumentException() {
+    // Given
+    final var bytes = new byte[] {CompactUrlFormat.MAGIC, CompactUrlFormat.VERSION, 0b100, 1, -1};
+
+    // When and Then
+    Assertions.assertTrue(CompactUrlFormat.isCurrentVersion(bytes));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> CompactUrlFormat.decode(bytes, Decoded::new));
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.urlshortenercommon.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+
+class ShortCodeCodecTest {
+  @Test
+  void encode_WhenCodecIsPlain_ThenMatchShortCodeGenerator() {
+    // Given
+    final var codec = ShortCodeCodec.plain();
+
+    // When and Then
+    Assertions.assertEquals(
+        ShortCodeGenerator.encodeToBase62(123456789L), codec.encode(123456789L));
+    Assertions.assertEquals(123456789L, codec.decode(codec.encode(123456789L)));
+  }
+
+  @Test
+  void encode_WhenScrambled_ThenEveryIdOfTheWidthRoundTripsToADistinctCode() {
+    // Given
+    final var codec = new ShortCodeCodec(2, true, 0x5EED);
+    final var codes = new HashSet<String>();
+
+    // When and Then
+    for (long id = 0; id < 62 * 62; id++) {
+      final var code = codec.encode(id);
+      Assertions.assertEquals(2, code.length());
+      Assertions.assertEquals(id, codec.decode(code));
+      codes.add(code);
+    }
+    Assertions.assertEquals(62 * 62, codes.size());
+  }
+
+  @Test
+  void encode_WhenScrambled_ThenSequentialIdsDoNotYieldSequentialCodes() {
+    // Given
+    final var codec = new ShortCodeCodec(7, true, 42);
+
+    // When
+    final var first = ShortCodeGenerator.decodeFromBase62(codec.encode(1_000_000));
+    final var second = ShortCodeGenerator.decodeFromBase62(codec.encode(1_000_001));
+    final var third = ShortCodeGenerator.decodeFromBase62(codec.encode(1_000_002));
+
+    // Then
+    Assertions.assertNotEquals(second - first, third - second);
+    Assertions.assertEquals(1_000_001, codec.decode(codec.encode(1_000_001)));
+  }
+
+  @Test
+  void encode_WhenKeysDiffer_ThenCodesDiffer() {
+    // Given
+    final var firstCodec = new ShortCodeCodec(7, true, 1);
+    final var secondCodec = new ShortCodeCodec(7, true, 2);
+
+    // When and Then
+    Assertions.assertNotEquals(firstCodec.encode(12345), secondCodec.encode(12345));
+  }
+
+  @Test
+  void encode_WhenIdDoesNotFitTheWidth_ThenThrowIllegalArgumentException() {
+    // Given
+    final var codec = new ShortCodeCodec(2, false, 0);
+
+    // When and Then
+    Assertions.assertEquals("ZZ", codec.encode(62 * 62 - 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> codec.encode(62 * 62));
+  }
+
+  @Test
+  void decode_WhenScrambledCodeHasWrongLength_ThenThrowIllegalArgumentException() {
+    // Given
+    final var codec = new ShortCodeCodec(7, true, 42);
+
+    // When and Then
+    Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode("abc"));
+  }
+
+  @Test
+  void constructor_WhenScrambleWithoutWidth_ThenThrowIllegalArgumentException() {
+    // When and Then
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ShortCodeCodec(0, true, 1));
+  }
+
+  @Test
+  void tryDecode_WhenCodeIsNotInCanonicalForm_ThenReturnNegative() {
+    // Given
+    final var plainCodec = ShortCodeCodec.plain();
+    final var paddedCodec = new ShortCodeCodec(6, false, 0);
+
+    // When and Then
+    Assertions.assertEquals(42, plainCodec.tryDecode("G"));
+    Assertions.assertEquals(0, plainCodec.tryDecode("0"));
+    Assertions.assertEquals(-1, plainCodec.tryDecode("0G"));
+    Assertions.assertEquals(-1, plainCodec.tryDecode("my-alias"));
+    Assertions.assertEquals(-1, plainCodec.tryDecode("ZZZZZZZZZZZZ"));
+    Assertions.assertEquals(42, paddedCodec.tryDecode("00000G"));
+    Assertions.assertEquals(-1, paddedCodec.tryDecode("G"));
+  }
+}
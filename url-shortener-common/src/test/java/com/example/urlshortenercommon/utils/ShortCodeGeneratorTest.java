@@ -0,0 +1,75 @@
+package com.example.urlshortenercommon.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ShortCodeGeneratorTest {
+  @Test
+  void encodeToBase62_WhenEncodingKnownIds_ThenReturnExpectedCodes() {
+    // When and Then
+    Assertions.assertEquals("0", ShortCodeGenerator.encodeToBase62(0));
+    Assertions.assertEquals("Z", ShortCodeGenerator.encodeToBase62(61));
+    Assertions.assertEquals("10", ShortCodeGenerator.encodeToBase62(62));
+    Assertions.assertEquals("aZl8N0y58M7", ShortCodeGenerator.encodeToBase62(Long.MAX_VALUE));
+  }
+
+  @Test
+  void decodeFromBase62_WhenDecodingEncodedIds_ThenReturnOriginalIds() {
+    // Given
+    final long[] ids = {0, 1, 61, 62, 3843, 10000, 1234567890123L, Long.MAX_VALUE};
+
+    // When and Then
+    for (final var id : ids) {
+      Assertions.assertEquals(
+          id, ShortCodeGenerator.decodeFromBase62(ShortCodeGenerator.encodeToBase62(id)));
+    }
+  }
+
+  @Test
+  void decodeFromBase62_WhenCodeHasInvalidCharacter_ThenThrowIllegalArgumentException() {
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ShortCodeGenerator.decodeFromBase62("ab-c"));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ShortCodeGenerator.decodeFromBase62(""));
+  }
+
+  @Test
+  void decodeFromBase62_WhenCodeOverflowsLong_ThenThrowIllegalArgumentException() {
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ShortCodeGenerator.decodeFromBase62("ZZZZZZZZZZZZ"));
+  }
+
+  @Test
+  void encodeToBase62_WhenWidthIsGiven_ThenCodeIsPaddedWithZeroDigit() {
+    // When and Then
+    Assertions.assertEquals("00000G", ShortCodeGenerator.encodeToBase62(42, 6));
+    Assertions.assertEquals("aZl8N0y58M7", ShortCodeGenerator.encodeToBase62(Long.MAX_VALUE, 6));
+    Assertions.assertEquals(42, ShortCodeGenerator.decodeFromBase62("00000G"));
+  }
+
+  @Test
+  void encodeToBase62_WhenNumberIsNegative_ThenThrowIllegalArgumentException() {
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ShortCodeGenerator.encodeToBase62(-1));
+  }
+
+  @Test
+  void encodeToBase62_WhenEncodingIntoString_ThenMatchesBufferEncoding() {
+    // Given
+    final long[] ids = {0, 61, 62, 3843, 3844, 56800235583L, 56800235584L, Long.MAX_VALUE};
+    final var buffer = new char[ShortCodeGenerator.MAX_LENGTH];
+
+    // When and Then
+    for (final var id : ids) {
+      for (var width = 0; width <= ShortCodeGenerator.MAX_LENGTH; width++) {
+        final var start = ShortCodeGenerator.encodeToBase62(id, width, buffer);
+        Assertions.assertEquals(
+            new String(buffer, start, buffer.length - start),
+            ShortCodeGenerator.encodeToBase62(id, width));
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.example.urlshortenerintegrationtests;
+
+import com.example.urlshortenerintegrationtests.redis.EmbeddedRedisServer;
+import com.example.urlshortenerreadservice.UrlShortenerReadServiceApplication;
+import com.example.urlshortenerservice.UrlShortenerServiceApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.FileSystemUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the write and the read service in this JVM against in-process stand-ins for their
+ * infrastructure: one H2 database in PostgreSQL mode, which serves as both the primary and the
+ * replica, and an {@link EmbeddedRedisServer}. No Docker or external server is needed.
+ *
+ * <p>Each service starts from its own {@code src/main/resources/application.properties}, read from
+ * the source tree so the stack runs with the settings that are deployed, with only the connection
+ * settings replaced, every HTTP server on a free port, reachability checks of new URLs turned off,
+ * the snapshot written to a temporary directory and the in-process caches sized down. The source
+ * directories of the services are taken from the {@code url-shortener.write-service.directory} and
+ * {@code url-shortener.read-service.directory} system properties, which the build sets, or else
+ * assumed to be siblings of the working directory.
+ *
+ * <p>Unlike in the deployment, the replica is the primary, so it never lags behind: mappings are
+ * readable as soon as the write service answers, and the purge of expired URLs has no replication
+ * to wait for.
+ */
+public final class LocalStack implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(LocalStack.class);
+
+  private static final AtomicInteger DATABASES = new AtomicInteger();
+
+  private final EmbeddedRedisServer redis;
+  private final SingleConnectionDataSource database;
+  private final Path snapshotDirectory;
+  private final ArrayList<ConfigurableApplicationContext> services = new ArrayList<>(2);
+  private ConfigurableApplicationContext writeService;
+  private ConfigurableApplicationContext readService;
+
+  private LocalStack(
+      EmbeddedRedisServer redis, SingleConnectionDataSource database, Path snapshotDirectory) {
+    this.redis = redis;
+    this.database = database;
+    this.snapshotDirectory = snapshotDirectory;
+  }
+
+  /**
+   * Starts the stack with the default settings.
+   *
+   * @return The running stack.
+   * @throws IOException If the Redis stand-in or the snapshot directory cannot be set up.
+   */
+  public static LocalStack start() throws IOException {
+    return start(Map.of());
+  }
+
+  /**
+   * Starts the stack, with additional properties passed to both services.
+   *
+   * @param properties Properties overriding those of the services' {@code application.properties}
+   *     and the stack's own settings, e.g. {@code url.resolution.mode}.
+   * @return The running stack.
+   * @throws IOException If the Redis stand-in or the snapshot directory cannot be set up.
+   */
+  public static LocalStack start(Map<String, String> properties) throws IOException {
+    final var databaseUrl =
+        "jdbc:h2:mem:local-stack-"
+            + DATABASES.incrementAndGet()
+            + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    final var database = new SingleConnectionDataSource(databaseUrl, "sa", "", true);
+    new ResourceDatabasePopulator(new ClassPathResource("local-stack/schema.sql"))
+        .execute(database);
+
+    final var stack =
+        new LocalStack(
+            EmbeddedRedisServer.start(0), database, Files.createTempDirectory("local-stack"));
+    try {
+      stack.writeService =
+          stack.startService(
+              UrlShortenerServiceApplication.class,
+              "url-shortener.write-service.directory",
+              "../url-shortener-service",
+              Map.of("url.validation.mode", "OFF", "url.purge.interval", "3600000"),
+              databaseUrl,
+              properties);
+      stack.readService =
+          stack.startService(
+              UrlShortenerReadServiceApplication.class,
+              "url-shortener.read-service.directory",
+              "../url-shortener-read-service",
+              Map.of(
+                  "url.primary-fallback.datasource.url", databaseUrl,
+                  "url.primary-fallback.datasource.username", "sa",
+                  "url.primary-fallback.datasource.password", "",
+                  "url.primary-fallback.datasource.driver-class-name", "org.h2.Driver",
+                  "url.snapshot.path",
+                      stack.snapshotDirectory.resolve("urls.snapshot").toString(),
+                  "url.cache.local.off-heap.max-size", "16MB",
+                  "url.negative-cache.bloom.expected-ids", "1000000"),
+              databaseUrl,
+              properties);
+    } catch (RuntimeException e) {
+      stack.close();
+      throw e;
+    }
+    log.info(
+        "Local stack started: write service on {}, read service on {}, Redis on port {}",
+        stack.getWriteServiceUrl(),
+        stack.getReadServiceUrl(),
+        stack.redis.getPort());
+    return stack;
+  }
+
+  private ConfigurableApplicationContext startService(
+      Class<?> application,
+      String directoryProperty,
+      String defaultDirectory,
+      Map<String, String> serviceProperties,
+      String databaseUrl,
+      Map<String, String> properties) {
+    final var directory = Path.of(System.getProperty(directoryProperty, defaultDirectory));
+    final var configuration = directory.resolve("src/main/resources/application.properties");
+
+    final var arguments = new LinkedHashMap<String, String>();
+    arguments.put("spring.config.location", "file:" + configuration.toAbsolutePath());
+    arguments.put("spring.main.banner-mode", "off");
+    arguments.put("spring.sql.init.mode", "never");
+    arguments.put("server.port", "0");
+    arguments.put("spring.datasource.url", databaseUrl);
+    arguments.put("spring.datasource.username", "sa");
+    arguments.put("spring.datasource.password", "");
+    arguments.put("spring.datasource.driver-class-name", "org.h2.Driver");
+    arguments.put("spring.data.redis.host", "127.0.0.1");
+    arguments.put("spring.data.redis.port", Integer.toString(redis.getPort()));
+    arguments.put("spring.data.redis.password", "");
+    arguments.putAll(serviceProperties);
+    arguments.putAll(properties);
+
+    final var service =
+        new SpringApplicationBuilder(application)
+            .run(
+                arguments.entrySet().stream()
+                    .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                    .toArray(String[]::new));
+    services.add(service);
+    return service;
+  }
+
+  public String getWriteServiceUrl() {
+    return "http://127.0.0.1:" + port(writeService);
+  }
+
+  public String getReadServiceUrl() {
+    return "http://127.0.0.1:" + port(readService);
+  }
+
+  public ConfigurableApplicationContext getWriteService() {
+    return writeService;
+  }
+
+  public ConfigurableApplicationContext getReadService() {
+    return readService;
+  }
+
+  public EmbeddedRedisServer getRedis() {
+    return redis;
+  }
+
+  /** Returns a {@link JdbcTemplate} on the database, e.g. to insert rows the API cannot create. */
+  public JdbcTemplate getJdbcTemplate() {
+    return new JdbcTemplate(database);
+  }
+
+  private static int port(ConfigurableApplicationContext service) {
+    return ((WebServerApplicationContext) service).getWebServer().getPort();
+  }
+
+  /** Stops the services, then drops the database and the Redis stand-in. */
+  @Override
+  public void close() throws IOException {
+    for (var i = services.size() - 1; i >= 0; i--) {
+      services.get(i).close();
+    }
+    try {
+      getJdbcTemplate().execute("SHUTDOWN");
+    } finally {
+      database.destroy();
+      redis.close();
+      FileSystemUtils.deleteRecursively(snapshotDirectory);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.urlshortenerintegrationtests.load;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of a {@link ReplayLoadDriver} run: per step of the profile, the number of requests, the
+ * count per status code and the latency percentiles, measured after the warmup.
+ */
+public final class LoadReport {
+  /** Status recorded for requests that failed with an I/O error instead of a response. */
+  public static final int IO_ERROR = -1;
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+  private final long elapsedNanos;
+  private final Map<String, StepResult> steps;
+
+  LoadReport(long elapsedNanos, Map<String, StepResult> steps) {
+    this.elapsedNanos = elapsedNanos;
+    this.steps = Collections.unmodifiableMap(new LinkedHashMap<>(steps));
+  }
+
+  /** Returns the results per step name, in profile order. */
+  public Map<String, StepResult> getSteps() {
+    return steps;
+  }
+
+  public long getCount() {
+    return steps.values().stream().mapToLong(StepResult::getCount).sum();
+  }
+
+  /** Returns the count per status code over all steps, with {@link #IO_ERROR} for I/O errors. */
+  public Map<Integer, Long> getStatuses() {
+    final var statuses = new TreeMap<Integer, Long>();
+    for (final var step : steps.values()) {
+      step.getStatuses().forEach((status, count) -> statuses.merge(status, count, Long::sum));
+    }
+    return statuses;
+  }
+
+  public double getThroughput() {
+    return getCount() / (elapsedNanos / 1e9);
+  }
+
+  /** Prints one line per step with its throughput, statuses and latency percentiles in ms. */
+  public void print(PrintStream out) {
+    out.printf(
+        "Requests: %d in %.1f s, %.0f req/s, statuses %s (-1 = I/O error)%n",
+        getCount(), elapsedNanos / 1e9, getThroughput(), getStatuses());
+    out.printf(
+        "%-20s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+        "step", "requests", "req/s", "p50", "p90", "p99", "p99.9", "max", "statuses");
+    for (final var step : steps.entrySet()) {
+      final var result = step.getValue();
+      out.printf(
+          "%-20s %9d %9.0f",
+          step.getKey(),
+          result.getCount(),
+          result.getCount() / (elapsedNanos / 1e9));
+      for (final var percentile : PERCENTILES) {
+        out.printf(" %9.2f", result.percentile(percentile) / 1e6);
+      }
+      out.printf("  %s%n", result.getStatuses());
+    }
+  }
+
+  /** Statuses and sorted latencies of the requests of one step. */
+  public static final class StepResult {
+    private final Map<Integer, Long> statuses;
+    private final long[] latencies;
+
+    StepResult(Map<Integer, Long> statuses, long[] latencies) {
+      this.statuses = Collections.unmodifiableMap(new TreeMap<>(statuses));
+      this.latencies = latencies.clone();
+      Arrays.sort(this.latencies);
+    }
+
+    public long getCount() {
+      return latencies.length;
+    }
+
+    public Map<Integer, Long> getStatuses() {
+      return statuses;
+    }
+
+    /**
+     * Returns a latency percentile.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The latency in nanoseconds, or 0 if the step sent no request.
+     */
+    public long percentile(double percentile) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      final var index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+      return latencies[Math.max(0, Math.min(latencies.length - 1, index))];
+    }
+  }
+}
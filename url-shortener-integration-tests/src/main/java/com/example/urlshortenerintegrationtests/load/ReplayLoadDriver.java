@@ -0,0 +1,405 @@
+package com.example.urlshortenerintegrationtests.load;
+
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerintegrationtests.LocalStack;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Closed-loop HTTP load driver that replays a load profile against the write and the read service.
+ *
+ * <p>A profile is a JSON Lines file with one request template per line:
+ *
+ * <pre>
+ * {"name": "shorten", "service": "write", "method": "POST", "path": "/api/v1/urls",
+ *  "body": {"originalUrl": "https://example.com/{seq}"}, "capture": "shortUrlCode"}
+ * {"name": "redirect", "service": "read", "method": "GET", "path": "/{code}", "repeat": 20}
+ * </pre>
+ *
+ * <p>{@code service} is {@code write} or {@code read}, {@code method} defaults to {@code GET}, and
+ * the optional {@code body} is sent as JSON. Each worker replays the lines in order, each one
+ * {@code repeat} times in a row, and starts over until the run ends, so the profile fixes both the
+ * mix and the order of the requests. In the path and the body:
+ *
+ * <ul>
+ *   <li>{@code {seq}} is replaced by a number unique within the run;
+ *   <li>{@code {code}} by a short code picked at random among those captured so far;
+ *   <li>{@code {unknown}} by the generated code of an ID far beyond any existing one;
+ *   <li>{@code "{codes}"}, a whole JSON string, by an array of up to ten captured codes.
+ * </ul>
+ *
+ * <p>The values of the {@code capture} field found anywhere in a successful response, such as the
+ * {@code shortUrlCode} of each item of a batch, are added to the captured codes. Redirects are not
+ * followed. Requests sent during the warmup are not recorded.
+ *
+ * <p>Run against a deployed stack, or without {@code --write-url} and {@code --read-url} against a
+ * {@link LocalStack} started in this JVM:
+ *
+ * <pre>
+ * mvn -B compile exec:java \
+ *     -Dexec.args="--workers=64 --warmup=10s --duration=60s --profile=my-profile.jsonl"
+ * </pre>
+ */
+public final class ReplayLoadDriver {
+  /** Profile on the classpath replayed when no {@code --profile} is given. */
+  public static final String DEFAULT_PROFILE = "load-profile.jsonl";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int CAPTURED_CODES = 1 << 16;
+  private static final int BULK_CODES = 10;
+
+  private final List<Step> profile;
+  private final String writeServiceUrl;
+  private final String readServiceUrl;
+  private final HttpClient client;
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicReferenceArray<String> capturedCodes =
+      new AtomicReferenceArray<>(CAPTURED_CODES);
+  private final AtomicLong capturedCount = new AtomicLong();
+
+  public ReplayLoadDriver(List<Step> profile, String writeServiceUrl, String readServiceUrl) {
+    if (profile.isEmpty()) {
+      throw new IllegalArgumentException("The load profile has no steps");
+    }
+    this.profile = List.copyOf(profile);
+    this.writeServiceUrl = writeServiceUrl;
+    this.readServiceUrl = readServiceUrl;
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    final var options = parse(args);
+    final var workers = Integer.parseInt(options.getOrDefault("workers", "64"));
+    final var warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+    final var duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+    final List<Step> profile;
+    if (options.containsKey("profile")) {
+      try (final var in = Files.newInputStream(Path.of(options.get("profile")))) {
+        profile = readProfile(in);
+      }
+    } else {
+      profile = readDefaultProfile();
+    }
+
+    if (options.containsKey("write-url") && options.containsKey("read-url")) {
+      new ReplayLoadDriver(profile, options.get("write-url"), options.get("read-url"))
+          .run(workers, warmup, duration)
+          .print(System.out);
+      return;
+    }
+    try (final var stack = LocalStack.start()) {
+      new ReplayLoadDriver(profile, stack.getWriteServiceUrl(), stack.getReadServiceUrl())
+          .run(workers, warmup, duration)
+          .print(System.out);
+    }
+  }
+
+  /** Reads the {@link #DEFAULT_PROFILE} from the classpath. */
+  public static List<Step> readDefaultProfile() throws IOException {
+    try (final var in =
+        ReplayLoadDriver.class.getClassLoader().getResourceAsStream(DEFAULT_PROFILE)) {
+      if (in == null) {
+        throw new IOException(DEFAULT_PROFILE + " is not on the classpath");
+      }
+      return readProfile(in);
+    }
+  }
+
+  /**
+   * Reads a load profile, one JSON request template per line; blank lines and lines starting with
+   * {@code #} are skipped.
+   *
+   * @param in The profile.
+   * @return The steps, in profile order.
+   * @throws IOException If the profile cannot be read or a line is not a valid step.
+   */
+  public static List<Step> readProfile(InputStream in) throws IOException {
+    final var steps = new ArrayList<Step>();
+    final var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      steps.add(Step.of(OBJECT_MAPPER.readTree(line)));
+    }
+    return steps;
+  }
+
+  /**
+   * Replays the profile with {@code workers} concurrent workers, each a virtual thread sending one
+   * request at a time, for {@code warmup} and then {@code duration}.
+   *
+   * @return The requests sent during {@code duration}.
+   */
+  public LoadReport run(int workers, Duration warmup, Duration duration)
+      throws InterruptedException {
+    final var recording = new AtomicBoolean();
+    final var stopped = new AtomicBoolean();
+    final var done = new CountDownLatch(workers);
+    final var running = new ArrayList<Worker>(workers);
+
+    for (var i = 0; i < workers; i++) {
+      final var worker = new Worker(recording, stopped);
+      running.add(worker);
+      Thread.ofVirtual()
+          .name("replay-" + i)
+          .start(
+              () -> {
+                try {
+                  worker.run();
+                } finally {
+                  done.countDown();
+                }
+              });
+    }
+
+    Thread.sleep(warmup);
+    recording.set(true);
+    final var start = System.nanoTime();
+    Thread.sleep(duration);
+    recording.set(false);
+    final var elapsedNanos = System.nanoTime() - start;
+    stopped.set(true);
+    done.await();
+
+    final var results = new LinkedHashMap<String, LoadReport.StepResult>();
+    for (final var step : profile) {
+      final var statuses = new HashMap<Integer, Long>();
+      var count = 0;
+      for (final var worker : running) {
+        final var recorder = worker.recorders.get(step.name);
+        recorder.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+        count += recorder.latencyCount;
+      }
+      final var latencies = new long[count];
+      var position = 0;
+      for (final var worker : running) {
+        final var recorder = worker.recorders.get(step.name);
+        System.arraycopy(recorder.latencies, 0, latencies, position, recorder.latencyCount);
+        position += recorder.latencyCount;
+      }
+      results.put(step.name, new LoadReport.StepResult(statuses, latencies));
+    }
+    return new LoadReport(elapsedNanos, results);
+  }
+
+  private HttpRequest request(Step step) {
+    final var seq = Long.toString(sequence.incrementAndGet());
+    final var baseUrl = step.service.equals("write") ? writeServiceUrl : readServiceUrl;
+    final var builder = HttpRequest.newBuilder(URI.create(baseUrl + expand(step.path, seq)));
+    if (step.body == null) {
+      return builder.method(step.method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+    return builder
+        .header("Content-Type", "application/json")
+        .method(step.method, HttpRequest.BodyPublishers.ofString(expand(step.body, seq)))
+        .build();
+  }
+
+  private String expand(String template, String seq) {
+    if (template.indexOf('{') < 0) {
+      return template;
+    }
+    var expanded = template.replace("{seq}", seq);
+    while (expanded.contains("{code}")) {
+      expanded = expanded.replaceFirst("\\{code}", randomCode());
+    }
+    while (expanded.contains("{unknown}")) {
+      expanded = expanded.replaceFirst("\\{unknown}", unknownCode());
+    }
+    if (expanded.contains("\"{codes}\"")) {
+      final var codes = new StringJoiner("\",\"", "[\"", "\"]");
+      for (var i = 0; i < BULK_CODES; i++) {
+        codes.add(randomCode());
+      }
+      expanded = expanded.replace("\"{codes}\"", codes.toString());
+    }
+    return expanded;
+  }
+
+  /** Returns a captured code, or an unknown one while nothing has been captured yet. */
+  private String randomCode() {
+    final var captured = Math.min(capturedCount.get(), CAPTURED_CODES);
+    if (captured == 0) {
+      return unknownCode();
+    }
+    return capturedCodes.get(ThreadLocalRandom.current().nextInt((int) captured));
+  }
+
+  private static String unknownCode() {
+    return ShortCodeGenerator.encodeToBase62(
+        ThreadLocalRandom.current().nextLong(1L << 40, 1L << 41));
+  }
+
+  private void capture(Step step, String body) {
+    try {
+      for (final var code : OBJECT_MAPPER.readTree(body).findValuesAsText(step.capture)) {
+        if (code != null && !code.isEmpty() && !code.equals("null")) {
+          final var index = capturedCount.getAndIncrement();
+          capturedCodes.set((int) (index % CAPTURED_CODES), code);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Step " + step.name + " returned invalid JSON", e);
+    }
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    final var options = new HashMap<String, String>();
+    for (final var arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+      }
+      options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+    }
+    return options;
+  }
+
+  /** One request template of a load profile. */
+  public static final class Step {
+    private final String name;
+    private final String service;
+    private final String method;
+    private final String path;
+    private final String body;
+    private final String capture;
+    private final int repeat;
+
+    private Step(
+        String name,
+        String service,
+        String method,
+        String path,
+        String body,
+        String capture,
+        int repeat) {
+      this.name = name;
+      this.service = service;
+      this.method = method;
+      this.path = path;
+      this.body = body;
+      this.capture = capture;
+      this.repeat = repeat;
+    }
+
+    static Step of(JsonNode node) throws IOException {
+      final var service = node.path("service").asText();
+      if (!service.equals("write") && !service.equals("read")) {
+        throw new IOException("Expected \"service\" to be write or read: " + node);
+      }
+      if (!node.hasNonNull("name") || !node.hasNonNull("path")) {
+        throw new IOException("Expected a \"name\" and a \"path\": " + node);
+      }
+      return new Step(
+          node.get("name").asText(),
+          service,
+          node.path("method").asText("GET"),
+          node.get("path").asText(),
+          node.hasNonNull("body") ? OBJECT_MAPPER.writeValueAsString(node.get("body")) : null,
+          node.hasNonNull("capture") ? node.get("capture").asText() : null,
+          Math.max(1, node.path("repeat").asInt(1)));
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  /** One worker's replay loop, recording latencies per step only while the measurement runs. */
+  private final class Worker {
+    private final AtomicBoolean recording;
+    private final AtomicBoolean stopped;
+    private final Map<String, Recorder> recorders = new HashMap<>();
+
+    private Worker(AtomicBoolean recording, AtomicBoolean stopped) {
+      this.recording = recording;
+      this.stopped = stopped;
+      for (final var step : profile) {
+        recorders.putIfAbsent(step.name, new Recorder());
+      }
+    }
+
+    private void run() {
+      while (!stopped.get()) {
+        for (final var step : profile) {
+          for (var i = 0; i < step.repeat && !stopped.get(); i++) {
+            if (!send(step)) {
+              return;
+            }
+          }
+        }
+      }
+    }
+
+    private boolean send(Step step) {
+      final var request = request(step);
+      final var start = System.nanoTime();
+      int status;
+      try {
+        if (step.capture == null) {
+          status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } else {
+          final var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+          status = response.statusCode();
+          if (status / 100 == 2) {
+            capture(step, response.body());
+          }
+        }
+      } catch (IOException e) {
+        status = LoadReport.IO_ERROR;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      if (recording.get()) {
+        recorders.get(step.name).record(status, System.nanoTime() - start);
+      }
+      return true;
+    }
+  }
+
+  private static final class Recorder {
+    private final Map<Integer, Long> statuses = new HashMap<>();
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+
+    private void record(int status, long latencyNanos) {
+      statuses.merge(status, 1L, Long::sum);
+      if (latencyCount == latencies.length) {
+        latencies = Arrays.copyOf(latencies, latencies.length * 2);
+      }
+      latencies[latencyCount++] = latencyNanos;
+    }
+  }
+}
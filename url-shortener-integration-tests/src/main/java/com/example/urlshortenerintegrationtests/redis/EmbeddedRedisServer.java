@@ -0,0 +1,545 @@
+package com.example.urlshortenerintegrationtests.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process server speaking the Redis serialization protocol (RESP2) on the loopback interface,
+ * so the services can run with their regular Lettuce clients and no Redis installation.
+ *
+ * <p>It implements the commands the services and Spring Data Redis send: {@code GET}, {@code SET}
+ * with {@code EX}, {@code PX}, {@code NX}, {@code XX}, {@code KEEPTTL} and {@code GET}, {@code
+ * MGET}, {@code DEL}, {@code EXISTS}, {@code (P)TTL}, {@code (P)EXPIRE}, {@code INCR(BY)}, the
+ * hash commands {@code HGET}, {@code HSET}, {@code HINCRBY}, {@code HDEL}, {@code HLEN} and {@code
+ * HGETALL}, and the connection and server commands a client issues on its own. {@code HELLO} is
+ * answered as by a server before Redis 6, so clients fall back to RESP2.
+ *
+ * <p>Like Redis, commands run one at a time, under a single lock; keys past their expiry are
+ * dropped when they are next accessed. Each connection is served by a virtual thread, which
+ * flushes the replies of pipelined commands together once no more input is buffered.
+ */
+public final class EmbeddedRedisServer implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(EmbeddedRedisServer.class);
+
+  private static final Object OK = new SimpleString("OK");
+  private static final Object QUIT = new SimpleString("OK");
+  private static final Object WRONG_TYPE =
+      new Error("WRONGTYPE Operation against a key holding the wrong kind of value");
+  private static final Object NOT_AN_INTEGER =
+      new Error("ERR value is not an integer or out of range");
+  private static final Object SYNTAX_ERROR = new Error("ERR syntax error");
+  private static final String INFO =
+      "# Server\r\nredis_version:5.0.0\r\nredis_mode:standalone\r\nembedded:1\r\n";
+
+  private final ServerSocket serverSocket;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+  private volatile boolean closed;
+
+  private EmbeddedRedisServer(ServerSocket serverSocket) {
+    this.serverSocket = serverSocket;
+    Thread.ofPlatform().name("embedded-redis-acceptor").daemon().start(this::accept);
+  }
+
+  /**
+   * Starts a server on the loopback interface.
+   *
+   * @param port The port to listen on, or {@code 0} for any free port.
+   * @return The running server.
+   * @throws IOException If the port cannot be bound.
+   */
+  public static EmbeddedRedisServer start(int port) throws IOException {
+    return new EmbeddedRedisServer(new ServerSocket(port, 1024, InetAddress.getLoopbackAddress()));
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** Returns the number of keys, including expired ones that have not been accessed since. */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Removes all keys, like {@code FLUSHALL}. */
+  public void flushAll() {
+    lock.lock();
+    try {
+      entries.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Stops accepting connections and closes the open ones. */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+    for (final var connection : connections) {
+      connection.close();
+    }
+  }
+
+  private void accept() {
+    while (!closed) {
+      try {
+        final var socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        connections.add(socket);
+        Thread.ofVirtual().name("embedded-redis-connection").start(() -> serve(socket));
+      } catch (IOException e) {
+        if (!closed) {
+          log.warn("Embedded Redis failed to accept a connection", e);
+        }
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket;
+        final var in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+        final var out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16)) {
+      while (true) {
+        final var command = readCommand(in);
+        if (command == null) {
+          return;
+        }
+        final var reply = command.isEmpty() ? null : executeLocked(command);
+        if (command.isEmpty()) {
+          continue;
+        }
+        write(out, reply);
+        if (reply == QUIT) {
+          out.flush();
+          return;
+        }
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      if (!closed) {
+        log.debug("Embedded Redis connection closed", e);
+      }
+    } finally {
+      connections.remove(socket);
+    }
+  }
+
+  private Object executeLocked(List<byte[]> command) {
+    lock.lock();
+    try {
+      return execute(command);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Object execute(List<byte[]> command) {
+    final var name = string(command.get(0)).toUpperCase(Locale.ROOT);
+    final var arity = command.size() - 1;
+    try {
+      return switch (name) {
+        case "PING" -> arity == 0 ? new SimpleString("PONG") : command.get(1);
+        case "ECHO" -> requireArity(name, arity, 1, 1) ? command.get(1) : null;
+        case "AUTH", "SELECT", "CLIENT", "READONLY", "READWRITE" -> OK;
+        case "QUIT" -> QUIT;
+        case "INFO" -> INFO.getBytes(StandardCharsets.UTF_8);
+        case "DBSIZE" -> (long) entries.size();
+        case "FLUSHALL", "FLUSHDB" -> {
+          entries.clear();
+          yield OK;
+        }
+        case "GET" -> requireArity(name, arity, 1, 1) ? getString(key(command, 1)) : null;
+        case "SET" -> requireArity(name, arity, 2, Integer.MAX_VALUE) ? set(command) : null;
+        case "MGET" -> {
+          requireArity(name, arity, 1, Integer.MAX_VALUE);
+          final var values = new ArrayList<Object>(arity);
+          for (var i = 1; i <= arity; i++) {
+            final var entry = live(key(command, i));
+            values.add(entry != null && entry.value instanceof byte[] bytes ? bytes : null);
+          }
+          yield values;
+        }
+        case "DEL", "UNLINK" -> {
+          requireArity(name, arity, 1, Integer.MAX_VALUE);
+          var removed = 0L;
+          for (var i = 1; i <= arity; i++) {
+            if (live(key(command, i)) != null) {
+              entries.remove(key(command, i));
+              removed++;
+            }
+          }
+          yield removed;
+        }
+        case "EXISTS" -> {
+          requireArity(name, arity, 1, Integer.MAX_VALUE);
+          var existing = 0L;
+          for (var i = 1; i <= arity; i++) {
+            existing += live(key(command, i)) != null ? 1 : 0;
+          }
+          yield existing;
+        }
+        case "PTTL", "TTL" -> {
+          requireArity(name, arity, 1, 1);
+          final var entry = live(key(command, 1));
+          if (entry == null) {
+            yield -2L;
+          }
+          if (entry.expiresAtMillis < 0) {
+            yield -1L;
+          }
+          final var remaining = entry.expiresAtMillis - System.currentTimeMillis();
+          yield name.equals("PTTL") ? remaining : (remaining + 999) / 1000;
+        }
+        case "PEXPIRE", "EXPIRE" -> {
+          requireArity(name, arity, 2, 2);
+          final var entry = live(key(command, 1));
+          if (entry == null) {
+            yield 0L;
+          }
+          final var ttl = Long.parseLong(string(command.get(2)));
+          entry.expiresAtMillis =
+              System.currentTimeMillis() + (name.equals("PEXPIRE") ? ttl : ttl * 1000);
+          yield 1L;
+        }
+        case "INCR", "DECR", "INCRBY", "DECRBY" -> {
+          final var byArgument = name.endsWith("BY");
+          requireArity(name, arity, byArgument ? 2 : 1, byArgument ? 2 : 1);
+          final var delta = byArgument ? Long.parseLong(string(command.get(2))) : 1;
+          yield incrementString(key(command, 1), name.startsWith("DECR") ? -delta : delta);
+        }
+        case "HGET" -> {
+          requireArity(name, arity, 2, 2);
+          final var hash = getHash(key(command, 1), false);
+          yield hash instanceof Map<?, ?> map ? map.get(string(command.get(2))) : hash;
+        }
+        case "HSET" -> {
+          if (arity < 3 || arity % 2 == 0) {
+            yield wrongArity(name);
+          }
+          final var hash = getHash(key(command, 1), true);
+          if (!(hash instanceof Map<?, ?>)) {
+            yield hash;
+          }
+          var added = 0L;
+          for (var i = 2; i < command.size(); i += 2) {
+            added += asHash(hash).put(string(command.get(i)), command.get(i + 1)) == null ? 1 : 0;
+          }
+          yield added;
+        }
+        case "HINCRBY" -> {
+          requireArity(name, arity, 3, 3);
+          final var hash = getHash(key(command, 1), true);
+          if (!(hash instanceof Map<?, ?>)) {
+            yield hash;
+          }
+          final var field = string(command.get(2));
+          final var current = asHash(hash).get(field);
+          final var value =
+              (current == null ? 0 : Long.parseLong(string(current)))
+                  + Long.parseLong(string(command.get(3)));
+          asHash(hash).put(field, Long.toString(value).getBytes(StandardCharsets.UTF_8));
+          yield value;
+        }
+        case "HDEL" -> {
+          requireArity(name, arity, 2, Integer.MAX_VALUE);
+          final var hash = getHash(key(command, 1), false);
+          if (!(hash instanceof Map<?, ?>)) {
+            yield hash == null ? 0L : hash;
+          }
+          var removed = 0L;
+          for (var i = 2; i < command.size(); i++) {
+            removed += asHash(hash).remove(string(command.get(i))) != null ? 1 : 0;
+          }
+          if (asHash(hash).isEmpty()) {
+            entries.remove(key(command, 1));
+          }
+          yield removed;
+        }
+        case "HLEN" -> {
+          requireArity(name, arity, 1, 1);
+          final var hash = getHash(key(command, 1), false);
+          yield hash instanceof Map<?, ?> map ? (long) map.size() : hash == null ? 0L : hash;
+        }
+        case "HGETALL" -> {
+          requireArity(name, arity, 1, 1);
+          final var hash = getHash(key(command, 1), false);
+          if (!(hash instanceof Map<?, ?>)) {
+            yield hash == null ? List.of() : hash;
+          }
+          final var fields = new ArrayList<Object>();
+          asHash(hash)
+              .forEach(
+                  (field, value) -> {
+                    fields.add(field.getBytes(StandardCharsets.ISO_8859_1));
+                    fields.add(value);
+                  });
+          yield fields;
+        }
+        default -> new Error("ERR unknown command '" + name + "'");
+      };
+    } catch (ArityException e) {
+      return wrongArity(name);
+    } catch (NumberFormatException e) {
+      return NOT_AN_INTEGER;
+    }
+  }
+
+  private Object set(List<byte[]> command) {
+    final var key = key(command, 1);
+    var expiresAtMillis = -1L;
+    var keepTtl = false;
+    var onlyIfAbsent = false;
+    var onlyIfPresent = false;
+    var returnPrevious = false;
+    for (var i = 3; i < command.size(); i++) {
+      final var option = string(command.get(i)).toUpperCase(Locale.ROOT);
+      switch (option) {
+        case "EX", "PX" -> {
+          if (++i == command.size()) {
+            return SYNTAX_ERROR;
+          }
+          final var ttl = Long.parseLong(string(command.get(i)));
+          expiresAtMillis = System.currentTimeMillis() + (option.equals("EX") ? ttl * 1000 : ttl);
+        }
+        case "KEEPTTL" -> keepTtl = true;
+        case "NX" -> onlyIfAbsent = true;
+        case "XX" -> onlyIfPresent = true;
+        case "GET" -> returnPrevious = true;
+        default -> {
+          return SYNTAX_ERROR;
+        }
+      }
+    }
+
+    final var previous = live(key);
+    if (returnPrevious && previous != null && !(previous.value instanceof byte[])) {
+      return WRONG_TYPE;
+    }
+    final var previousValue = previous == null ? null : previous.value;
+    if ((onlyIfAbsent && previous != null) || (onlyIfPresent && previous == null)) {
+      return returnPrevious ? previousValue : null;
+    }
+    if (keepTtl && previous != null) {
+      expiresAtMillis = previous.expiresAtMillis;
+    }
+    entries.put(key, new Entry(command.get(2), expiresAtMillis));
+    return returnPrevious ? previousValue : OK;
+  }
+
+  private Object getString(String key) {
+    final var entry = live(key);
+    if (entry == null) {
+      return null;
+    }
+    return entry.value instanceof byte[] bytes ? bytes : WRONG_TYPE;
+  }
+
+  private Object incrementString(String key, long delta) {
+    final var entry = live(key);
+    if (entry != null && !(entry.value instanceof byte[])) {
+      return WRONG_TYPE;
+    }
+    final var value = (entry == null ? 0 : Long.parseLong(string((byte[]) entry.value))) + delta;
+    final var bytes = Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    if (entry == null) {
+      entries.put(key, new Entry(bytes, -1));
+    } else {
+      entry.value = bytes;
+    }
+    return value;
+  }
+
+  /**
+   * Returns the hash stored under the key, creating it if asked to, {@code null} if there is none,
+   * or the {@code WRONGTYPE} error if the key holds a string.
+   */
+  private Object getHash(String key, boolean create) {
+    final var entry = live(key);
+    if (entry == null) {
+      if (!create) {
+        return null;
+      }
+      final var hash = new HashMap<String, byte[]>();
+      entries.put(key, new Entry(hash, -1));
+      return hash;
+    }
+    return entry.value instanceof Map<?, ?> ? entry.value : WRONG_TYPE;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, byte[]> asHash(Object hash) {
+    return (Map<String, byte[]>) hash;
+  }
+
+  /** Returns the entry under the key unless it has expired, in which case it is removed. */
+  private Entry live(String key) {
+    final var entry = entries.get(key);
+    if (entry != null
+        && entry.expiresAtMillis >= 0
+        && entry.expiresAtMillis <= System.currentTimeMillis()) {
+      entries.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  private static boolean requireArity(String name, int arity, int min, int max) {
+    if (arity < min || arity > max) {
+      throw new ArityException();
+    }
+    return true;
+  }
+
+  private static Object wrongArity(String name) {
+    return new Error("ERR wrong number of arguments for '" + name.toLowerCase(Locale.ROOT) + "'");
+  }
+
+  /** Keys are kept as Latin-1 strings, which map every byte to one char and back. */
+  private static String key(List<byte[]> command, int index) {
+    return new String(command.get(index), StandardCharsets.ISO_8859_1);
+  }
+
+  private static String string(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads one command, sent either as a RESP array of bulk strings or as an inline command.
+   *
+   * @return The command name and its arguments, an empty list for a blank line, or {@code null}
+   *     at the end of the stream.
+   */
+  private static List<byte[]> readCommand(InputStream in) throws IOException {
+    final var first = in.read();
+    if (first < 0) {
+      return null;
+    }
+    if (first != '*') {
+      final var line = (char) first + readLine(in);
+      final var command = new ArrayList<byte[]>();
+      for (final var part : line.trim().split("\\s+")) {
+        if (!part.isEmpty()) {
+          command.add(part.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return command;
+    }
+
+    final var count = Integer.parseInt(readLine(in));
+    final var command = new ArrayList<byte[]>(count);
+    for (var i = 0; i < count; i++) {
+      if (in.read() != '$') {
+        throw new IOException("Expected a bulk string");
+      }
+      final var bytes = in.readNBytes(Integer.parseInt(readLine(in)));
+      if (in.read() != '\r' || in.read() != '\n') {
+        throw new IOException("Expected CRLF after a bulk string");
+      }
+      command.add(bytes);
+    }
+    return command;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    final var line = new StringBuilder();
+    while (true) {
+      final var b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      if (b == '\n') {
+        final var end = line.length() - 1;
+        return end >= 0 && line.charAt(end) == '\r' ? line.substring(0, end) : line.toString();
+      }
+      line.append((char) b);
+    }
+  }
+
+  private static void write(OutputStream out, Object reply) throws IOException {
+    switch (reply) {
+      case null -> out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+      case SimpleString simple -> writeLine(out, '+', simple.value);
+      case Error error -> writeLine(out, '-', error.message);
+      case Long number -> writeLine(out, ':', number.toString());
+      case byte[] bytes -> {
+        writeLine(out, '$', Integer.toString(bytes.length));
+        out.write(bytes);
+        out.write('\r');
+        out.write('\n');
+      }
+      case List<?> list -> {
+        writeLine(out, '*', Integer.toString(list.size()));
+        for (final var element : list) {
+          write(out, element);
+        }
+      }
+      default -> throw new IllegalStateException("Unexpected reply: " + reply);
+    }
+  }
+
+  private static void writeLine(OutputStream out, char type, String line) throws IOException {
+    out.write(type);
+    out.write(line.getBytes(StandardCharsets.UTF_8));
+    out.write('\r');
+    out.write('\n');
+  }
+
+  private static final class Entry {
+    private Object value;
+    private long expiresAtMillis;
+
+    private Entry(Object value, long expiresAtMillis) {
+      this.value = value;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+
+  private static final class SimpleString {
+    private final String value;
+
+    private SimpleString(String value) {
+      this.value = value;
+    }
+  }
+
+  private static final class Error {
+    private final String message;
+
+    private Error(String message) {
+      this.message = message;
+    }
+  }
+
+  private static final class ArityException extends RuntimeException {
+    private ArityException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+-- The urls table of database/initialize_db_tables.sql in the SQL H2 understands: the id block
+-- sequence is created up front, and short_url_code gets a plain UNIQUE constraint in place of the
+-- partial unique index, which allows any number of NULLs all the same, and original_url_hash a
+-- plain index in place of the partial one.
+CREATE SEQUENCE IF NOT EXISTS urls_id_seq INCREMENT BY 10000;
+
+CREATE TABLE IF NOT EXISTS urls
+(
+    id             BIGINT DEFAULT nextval('urls_id_seq') PRIMARY KEY,
+    original_url   TEXT NOT NULL,
+    short_url_code VARCHAR(10) UNIQUE,
+    created_at     TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    expires_at     TIMESTAMP WITH TIME ZONE,
+    original_url_hash BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_urls_expires_at ON urls (expires_at);
+CREATE INDEX IF NOT EXISTS idx_urls_original_url_hash ON urls (original_url_hash, created_at);
+
+CREATE TABLE IF NOT EXISTS url_tombstones
+(
+    id         BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,217 @@
+package com.example.urlshortenerintegrationtests;
+
+import com.example.urlshortenercommon.utils.ShortCodeGenerator;
+import com.example.urlshortenerreadservice.service.ClickCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+class LocalStackTest {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static LocalStack stack;
+  private static HttpClient client;
+
+  @BeforeAll
+  static void startStack() throws IOException {
+    stack = LocalStack.start();
+    client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+  }
+
+  @AfterAll
+  static void stopStack() throws IOException {
+    client.close();
+    stack.close();
+  }
+
+  @Test
+  void redirect_WhenUrlWasShortened_ThenRedirectToOriginalUrl() throws Exception {
+    // Given
+    final var shortened =
+        post(
+            stack.getWriteServiceUrl() + "/api/v1/urls",
+            "{\"originalUrl\": \"https://example.com/articles/1\"}");
+    final var shortCode = OBJECT_MAPPER.readTree(shortened.body()).get("shortUrlCode").asText();
+
+    // When
+    final var response = get(stack.getReadServiceUrl() + "/" + shortCode);
+
+    // Then
+    Assertions.assertEquals(201, shortened.statusCode());
+    Assertions.assertEquals(302, response.statusCode());
+    Assertions.assertEquals(
+        "https://example.com/articles/1", response.headers().firstValue("Location").orElseThrow());
+  }
+
+  @Test
+  void redirect_WhenUrlsWereShortenedInBatch_ThenRedirectEveryCode() throws Exception {
+    // Given
+    final var shortened =
+        post(
+            stack.getWriteServiceUrl() + "/api/v1/urls/batch",
+            "[{\"originalUrl\": \"https://example.com/a\"},"
+                + " {\"originalUrl\": \"https://example.com/b\"}]");
+    final var items = OBJECT_MAPPER.readTree(shortened.body());
+
+    // When
+    final var first =
+        get(stack.getReadServiceUrl() + "/" + items.get(0).get("shortUrlCode").asText());
+    final var second =
+        get(stack.getReadServiceUrl() + "/" + items.get(1).get("shortUrlCode").asText());
+
+    // Then
+    Assertions.assertEquals(200, shortened.statusCode());
+    Assertions.assertEquals(
+        "https://example.com/a", first.headers().firstValue("Location").orElseThrow());
+    Assertions.assertEquals(
+        "https://example.com/b", second.headers().firstValue("Location").orElseThrow());
+  }
+
+  @Test
+  void shortenBatch_WhenArrayHasNullElement_ThenReportItAsFailed() throws Exception {
+    // When
+    final var shortened =
+        post(
+            stack.getWriteServiceUrl() + "/api/v1/urls/batch",
+            "[{\"originalUrl\": \"https://example.com/c\"}, null]");
+    final var items = OBJECT_MAPPER.readTree(shortened.body());
+
+    // Then
+    Assertions.assertEquals(200, shortened.statusCode());
+    Assertions.assertTrue(items.get(0).get("error").isNull());
+    Assertions.assertFalse(items.get(1).get("error").isNull());
+  }
+
+  @Test
+  void redirect_WhenCodeIsUnknown_ThenReturnNotFound() throws Exception {
+    // When
+    final var response =
+        get(stack.getReadServiceUrl() + "/" + ShortCodeGenerator.encodeToBase62(1L << 40));
+
+    // Then
+    Assertions.assertEquals(404, response.statusCode());
+  }
+
+  @Test
+  void redirect_WhenUrlHasExpired_ThenReturnGone() throws Exception {
+    // Given
+    final var jdbcTemplate = stack.getJdbcTemplate();
+    final var id = jdbcTemplate.queryForObject("SELECT nextval('urls_id_seq')", Long.class);
+    final var shortCode = ShortCodeGenerator.encodeToBase62(id);
+    final var createdAt = OffsetDateTime.now().minusDays(8);
+    jdbcTemplate.update(
+        "INSERT INTO urls (id, original_url, short_url_code, created_at, expires_at)"
+            + " VALUES (?, ?, ?, ?, ?)",
+        id,
+        "https://example.com/expired",
+        shortCode,
+        createdAt,
+        createdAt.plusDays(7));
+
+    // When
+    final var response = get(stack.getReadServiceUrl() + "/" + shortCode);
+
+    // Then
+    Assertions.assertEquals(410, response.statusCode());
+  }
+
+  @Test
+  void resolveAll_WhenCodesAreMixed_ThenReturnStatusOfEachCode() throws Exception {
+    // Given
+    final var shortened =
+        post(
+            stack.getWriteServiceUrl() + "/api/v1/urls",
+            "{\"originalUrl\": \"https://example.com/resolved\"}");
+    final var shortCode = OBJECT_MAPPER.readTree(shortened.body()).get("shortUrlCode").asText();
+    final var unknownCode = ShortCodeGenerator.encodeToBase62((1L << 40) + 1);
+
+    // When
+    final var response =
+        post(
+            stack.getReadServiceUrl() + "/api/v1/resolve",
+            OBJECT_MAPPER.writeValueAsString(List.of(shortCode, unknownCode)));
+    final var items = OBJECT_MAPPER.readTree(response.body());
+
+    // Then
+    Assertions.assertEquals(200, response.statusCode());
+    Assertions.assertEquals("FOUND", items.get(0).get("status").asText());
+    Assertions.assertEquals(
+        "https://example.com/resolved", items.get(0).get("originalUrl").asText());
+    Assertions.assertEquals("NOT_FOUND", items.get(1).get("status").asText());
+    Assertions.assertTrue(items.get(1).get("originalUrl").isNull());
+  }
+
+  @Test
+  void shortenUrl_WhenRetriedWithSameIdempotencyKey_ThenReturnFirstMapping() throws Exception {
+    // Given
+    final var url = stack.getWriteServiceUrl() + "/api/v1/urls";
+    final var body = "{\"originalUrl\": \"https://example.com/retried\"}";
+    final var first = post(url, body, "Idempotency-Key", "retry-1");
+
+    // When
+    final var retried = post(url, body, "Idempotency-Key", "retry-1");
+    final var reused =
+        post(url, "{\"originalUrl\": \"https://example.com/other\"}", "Idempotency-Key", "retry-1");
+
+    // Then
+    Assertions.assertEquals(201, retried.statusCode());
+    Assertions.assertEquals(
+        OBJECT_MAPPER.readTree(first.body()).get("shortUrlCode").asText(),
+        OBJECT_MAPPER.readTree(retried.body()).get("shortUrlCode").asText());
+    Assertions.assertEquals(400, reused.statusCode());
+    Assertions.assertEquals(
+        1,
+        stack
+            .getJdbcTemplate()
+            .queryForObject(
+                "SELECT COUNT(*) FROM urls WHERE original_url = 'https://example.com/retried'",
+                Integer.class));
+  }
+
+  @Test
+  void getClicks_WhenClicksWereFlushed_ThenCountEveryRedirect() throws Exception {
+    // Given
+    final var shortened =
+        post(
+            stack.getWriteServiceUrl() + "/api/v1/urls",
+            "{\"originalUrl\": \"https://example.com/clicked\"}");
+    final var shortCode = OBJECT_MAPPER.readTree(shortened.body()).get("shortUrlCode").asText();
+    for (var i = 0; i < 3; i++) {
+      get(stack.getReadServiceUrl() + "/" + shortCode);
+    }
+    stack.getReadService().getBean(ClickCounter.class).flush();
+
+    // When
+    final var response = get(stack.getReadServiceUrl() + "/api/v1/urls/" + shortCode + "/clicks");
+
+    // Then
+    Assertions.assertEquals(3, OBJECT_MAPPER.readTree(response.body()).get("clicks").asLong());
+  }
+
+  private static HttpResponse<String> get(String url) throws Exception {
+    return client.send(
+        HttpRequest.newBuilder(URI.create(url)).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static HttpResponse<String> post(String url, String body, String... headers)
+      throws Exception {
+    final var request =
+        HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+    if (headers.length > 0) {
+      request.headers(headers);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
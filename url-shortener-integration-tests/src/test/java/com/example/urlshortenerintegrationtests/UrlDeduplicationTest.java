@@ -0,0 +1,100 @@
+package com.example.urlshortenerintegrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+class UrlDeduplicationTest {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static LocalStack stack;
+  private static HttpClient client;
+
+  @BeforeAll
+  static void startStack() throws IOException {
+    stack = LocalStack.start(Map.of("url.dedup.enabled", "true"));
+    client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+  }
+
+  @AfterAll
+  static void stopStack() throws IOException {
+    client.close();
+    stack.close();
+  }
+
+  @Test
+  void shortenUrl_WhenUrlWasShortenedBefore_ThenReturnExistingMapping() throws Exception {
+    // Given
+    final var first = shorten("{\"originalUrl\": \"https://example.com/campaign\"}");
+
+    // When
+    final var repeated = shorten("{\"originalUrl\": \"https://EXAMPLE.com:443/campaign\"}");
+
+    // Then
+    Assertions.assertEquals(201, repeated.statusCode());
+    Assertions.assertEquals(
+        OBJECT_MAPPER.readTree(first.body()).get("shortUrlCode").asText(),
+        OBJECT_MAPPER.readTree(repeated.body()).get("shortUrlCode").asText());
+    Assertions.assertEquals(1, countRows("https://example.com/campaign"));
+  }
+
+  @Test
+  void shortenUrls_WhenBatchRepeatsUrls_ThenSaveEachUrlOnce() throws Exception {
+    // Given
+    shorten("{\"originalUrl\": \"https://example.com/known\"}");
+
+    // When
+    final var response =
+        post(
+            "/api/v1/urls/batch",
+            "[{\"originalUrl\": \"https://example.com/known\"},"
+                + " {\"originalUrl\": \"https://example.com/new\"},"
+                + " {\"originalUrl\": \"https://example.com/new\"}]");
+    final var items = OBJECT_MAPPER.readTree(response.body());
+
+    // Then
+    Assertions.assertEquals(200, response.statusCode());
+    Assertions.assertEquals(
+        items.get(1).get("shortUrlCode").asText(), items.get(2).get("shortUrlCode").asText());
+    Assertions.assertEquals(1, countRows("https://example.com/known"));
+    Assertions.assertEquals(1, countRows("https://example.com/new"));
+    Assertions.assertEquals(
+        302, get("/" + items.get(0).get("shortUrlCode").asText()).statusCode());
+    Assertions.assertEquals(
+        302, get("/" + items.get(2).get("shortUrlCode").asText()).statusCode());
+  }
+
+  private static int countRows(String originalUrl) {
+    return stack
+        .getJdbcTemplate()
+        .queryForObject(
+            "SELECT COUNT(*) FROM urls WHERE original_url = ?", Integer.class, originalUrl);
+  }
+
+  private static HttpResponse<String> shorten(String body) throws Exception {
+    return post("/api/v1/urls", body);
+  }
+
+  private static HttpResponse<String> get(String path) throws Exception {
+    return client.send(
+        HttpRequest.newBuilder(URI.create(stack.getReadServiceUrl() + path)).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static HttpResponse<String> post(String path, String body) throws Exception {
+    return client.send(
+        HttpRequest.newBuilder(URI.create(stack.getWriteServiceUrl() + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.urlshortenerintegrationtests.load;
+
+import com.example.urlshortenerintegrationtests.LocalStack;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+class ReplayLoadDriverTest {
+
+  @Test
+  void run_WhenDefaultProfileIsReplayed_ThenEveryStepSucceeds() throws Exception {
+    // Given
+    final var profile = ReplayLoadDriver.readDefaultProfile();
+
+    // When
+    final LoadReport report;
+    try (final var stack = LocalStack.start()) {
+      report =
+          new ReplayLoadDriver(profile, stack.getWriteServiceUrl(), stack.getReadServiceUrl())
+              .run(16, Duration.ofSeconds(1), Duration.ofSeconds(3));
+    }
+    report.print(System.out);
+
+    // Then
+    final var steps = report.getSteps();
+    Assertions.assertEquals(
+        Map.of(201, steps.get("shorten").getCount()), status(report, "shorten"));
+    Assertions.assertEquals(
+        Map.of(200, steps.get("shorten-batch").getCount()), status(report, "shorten-batch"));
+    Assertions.assertEquals(
+        Map.of(302, steps.get("redirect").getCount()), status(report, "redirect"));
+    Assertions.assertEquals(
+        Map.of(404, steps.get("redirect-unknown").getCount()), status(report, "redirect-unknown"));
+    Assertions.assertEquals(
+        Map.of(200, steps.get("resolve-bulk").getCount()), status(report, "resolve-bulk"));
+    Assertions.assertEquals(Map.of(200, steps.get("clicks").getCount()), status(report, "clicks"));
+    Assertions.assertTrue(steps.get("clicks").getCount() > 0);
+  }
+
+  @Test
+  void readProfile_WhenLineHasNoService_ThenFail() {
+    // Given
+    final var profile = "{\"name\": \"redirect\", \"path\": \"/{code}\"}\n";
+
+    // When
+    final var exception =
+        Assertions.assertThrows(
+            IOException.class,
+            () ->
+                ReplayLoadDriver.readProfile(
+                    new ByteArrayInputStream(profile.getBytes(StandardCharsets.UTF_8))));
+
+    // Then
+    Assertions.assertTrue(exception.getMessage().contains("service"), exception.getMessage());
+  }
+
+  private static Map<Integer, Long> status(LoadReport report, String step) {
+    return report.getSteps().get(step).getStatuses();
+  }
+}
@@ -0,0 +1,150 @@
+package com.example.urlshortenerintegrationtests.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class EmbeddedRedisServerTest {
+  private static EmbeddedRedisServer server;
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redisTemplate;
+
+  @BeforeAll
+  static void startServer() throws IOException {
+    server = EmbeddedRedisServer.start(0);
+    connectionFactory =
+        new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration("127.0.0.1", server.getPort()));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void stopServer() throws IOException {
+    connectionFactory.destroy();
+    server.close();
+  }
+
+  @AfterEach
+  void flush() {
+    server.flushAll();
+  }
+
+  @Test
+  void set_WhenValueHasTtl_ThenValueExpires() throws InterruptedException {
+    // Given
+    redisTemplate.opsForValue().set("short", "a", Duration.ofMillis(50));
+    redisTemplate.opsForValue().set("long", "b", Duration.ofHours(1));
+
+    // When
+    final var ttl = redisTemplate.getExpire("long", TimeUnit.MILLISECONDS);
+    Thread.sleep(100);
+
+    // Then
+    Assertions.assertTrue(ttl > 3_500_000 && ttl <= 3_600_000, "TTL was " + ttl);
+    Assertions.assertNull(redisTemplate.opsForValue().get("short"));
+    Assertions.assertEquals("b", redisTemplate.opsForValue().get("long"));
+    Assertions.assertEquals(-2, redisTemplate.getExpire("short"));
+  }
+
+  @Test
+  void setIfAbsent_WhenKeyExists_ThenValueIsKept() {
+    // Given
+    redisTemplate.opsForValue().set("key", "first");
+
+    // When
+    final var set = redisTemplate.opsForValue().setIfAbsent("key", "second");
+    final var setMissing = redisTemplate.opsForValue().setIfAbsent("missing", "value");
+
+    // Then
+    Assertions.assertEquals(Boolean.FALSE, set);
+    Assertions.assertEquals(Boolean.TRUE, setMissing);
+    Assertions.assertEquals("first", redisTemplate.opsForValue().get("key"));
+  }
+
+  @Test
+  void multiGet_WhenSomeKeysAreMissing_ThenReturnNullInTheirPlace() {
+    // Given
+    redisTemplate.opsForValue().set("a", "1");
+    redisTemplate.opsForValue().set("c", "3");
+
+    // When
+    final var values = redisTemplate.opsForValue().multiGet(List.of("a", "b", "c"));
+
+    // Then
+    Assertions.assertEquals(Arrays.asList("1", null, "3"), values);
+  }
+
+  @Test
+  void executePipelined_WhenManyCommandsAreSent_ThenEveryReplyIsReturnedInOrder() {
+    // Given
+    final var keys = 1_000;
+
+    // When
+    redisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              final var stringConnection = (StringRedisConnection) connection;
+              for (var i = 0; i < keys; i++) {
+                stringConnection.set(
+                    "key:" + i,
+                    Integer.toString(i),
+                    Expiration.from(Duration.ofMinutes(1)),
+                    RedisStringCommands.SetOption.upsert());
+              }
+              return null;
+            });
+    final var deleted = redisTemplate.delete(List.of("key:0", "key:1", "missing"));
+
+    // Then
+    Assertions.assertEquals(2, deleted);
+    Assertions.assertEquals(keys - 2, server.size());
+    Assertions.assertEquals("999", redisTemplate.opsForValue().get("key:999"));
+  }
+
+  @Test
+  void increment_WhenHashFieldIsIncremented_ThenReturnRunningTotal() {
+    // Given
+    redisTemplate.opsForHash().increment("clicks", "abc", 3);
+
+    // When
+    final var total = redisTemplate.opsForHash().increment("clicks", "abc", 4);
+
+    // Then
+    Assertions.assertEquals(7, total);
+    Assertions.assertEquals("7", redisTemplate.opsForHash().get("clicks", "abc"));
+    Assertions.assertNull(redisTemplate.opsForHash().get("clicks", "missing"));
+  }
+
+  @Test
+  void increment_WhenKeyHoldsAString_ThenFailWithWrongType() {
+    // Given
+    redisTemplate.opsForValue().set("key", "value");
+
+    // When
+    final var exception =
+        Assertions.assertThrows(
+            RedisSystemException.class,
+            () -> redisTemplate.opsForHash().increment("key", "field", 1));
+
+    // Then
+    final var message = exception.getMostSpecificCause().getMessage();
+    Assertions.assertTrue(message.contains("WRONGTYPE"), message);
+  }
+}
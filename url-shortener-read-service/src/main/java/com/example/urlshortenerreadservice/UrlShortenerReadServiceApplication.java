@@ -3,8 +3,11 @@ package com.example.urlshortenerreadservice;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(
+    scanBasePackages = {"com.example.urlshortenerreadservice", "com.example.urlshortenercommon"})
+@EnableScheduling
 public class UrlShortenerReadServiceApplication {
 
   public static void main(String[] args) {
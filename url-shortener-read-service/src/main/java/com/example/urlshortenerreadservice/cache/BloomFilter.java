@@ -0,0 +1,93 @@
+package com.example.urlshortenerreadservice.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of {@code long} keys.
+ *
+ * <p>{@link #mightContain(long)} never returns {@code false} for a key that was added, and returns
+ * {@code true} for a key that was not added with roughly the false positive probability the filter
+ * was sized for, as long as no more keys than expected are added. Keys cannot be removed.
+ *
+ * <p>The bit positions of a key are derived from one 64-bit mix of the key by double hashing. Bits
+ * are set with atomic updates, so keys can be added while other threads query the filter.
+ */
+public final class BloomFilter {
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  private BloomFilter(long bitCount, int hashCount) {
+    this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    this.bitCount = (long) words.length() << 6;
+    this.hashCount = hashCount;
+  }
+
+  /**
+   * Creates a filter sized for the given number of keys and false positive probability.
+   *
+   * @param expectedKeys The number of keys the filter is expected to hold.
+   * @param falsePositiveProbability The tolerated false positive probability, between 0 and 1.
+   * @return An empty filter.
+   * @throws IllegalArgumentException If an argument is out of range, or the filter would exceed
+   *     the maximum size of {@code 2^37} bits.
+   */
+  public static BloomFilter create(long expectedKeys, double falsePositiveProbability) {
+    if (expectedKeys <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException(
+          "Invalid Bloom filter size: " + expectedKeys + " keys at " + falsePositiveProbability);
+    }
+    final var ln2 = Math.log(2);
+    final var bits =
+        (long) Math.ceil(-expectedKeys * Math.log(falsePositiveProbability) / (ln2 * ln2));
+    if (bits > (long) Integer.MAX_VALUE << 6) {
+      throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+    }
+    final var hashes = (int) Math.max(1, Math.round((double) bits / expectedKeys * ln2));
+    return new BloomFilter(Math.max(64, bits), hashes);
+  }
+
+  public void add(long key) {
+    final var hash = mix(key);
+    final var h1 = (int) hash;
+    final var h2 = (int) (hash >>> 32);
+    for (var i = 0; i < hashCount; i++) {
+      final var bit = index(h1, h2, i);
+      final var mask = 1L << bit;
+      final var word = (int) (bit >>> 6);
+      if ((words.get(word) & mask) == 0) {
+        words.getAndAccumulate(word, mask, (current, update) -> current | update);
+      }
+    }
+  }
+
+  public boolean mightContain(long key) {
+    final var hash = mix(key);
+    final var h1 = (int) hash;
+    final var h2 = (int) (hash >>> 32);
+    for (var i = 0; i < hashCount; i++) {
+      final var bit = index(h1, h2, i);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the size of the filter in bytes. */
+  public long sizeInBytes() {
+    return bitCount >>> 3;
+  }
+
+  private long index(int h1, int h2, int i) {
+    final var combined = (h1 + (long) i * h2) & Long.MAX_VALUE;
+    return combined % bitCount;
+  }
+
+  /** The SplitMix64 finalizer, spreading sequential IDs over all bits. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+}
@@ -0,0 +1,193 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.service.URLService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process cache of {@link ResolvedUrl} entries that sits in front of Redis on the
+ * redirect path.
+ *
+ * <p>The cache is backed by Caffeine, which uses W-TinyLFU admission and eviction, so a handful of
+ * hot codes stay on heap while one-off lookups are rejected without flushing them. Entries are
+ * weighed by the approximate size of their original URL and every entry expires at the earlier of
+ * the configured local TTL and the expiration time of the mapping itself. Hit, miss and eviction
+ * counters are published through Micrometer under the {@code url.local} cache name.
+ *
+ * <p>In {@link URLService.ResolutionMode#ID}, generated codes are instead kept in an {@link
+ * OffHeapUrlTable} keyed by their ID, which holds only the original URL and expiration time of
+ * each mapping in a fixed budget of direct memory ({@code url.cache.local.off-heap.max-size}), so
+ * millions of entries cost the garbage collector nothing. Entries there follow the same TTL, but
+ * are evicted by recency of use when their part of the table is full rather than by frequency.
+ * Its lookups are counted in {@code url.local.off-heap.lookups} with a {@code result} tag of
+ * {@code hit} or {@code miss}.
+ */
+@Component
+public class LocalUrlCache {
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final Cache<String, ResolvedUrl> cache;
+  private final ShortCodeCodec shortCodeCodec;
+  private final OffHeapUrlTable offHeapTable;
+  private final long ttlMillis;
+  private final Counter offHeapHitCounter;
+  private final Counter offHeapMissCounter;
+
+  public LocalUrlCache(
+      @Value("${url.cache.local.max-size:64MB}") DataSize maxSize,
+      @Value("${url.cache.local.ttl:10m}") Duration ttl,
+      ShortCodeCodec shortCodeCodec,
+      @Value("${url.resolution.mode:ID}") URLService.ResolutionMode resolutionMode,
+      @Value("${url.cache.local.off-heap.enabled:true}") boolean offHeapEnabled,
+      @Value("${url.cache.local.off-heap.max-size:128MB}") DataSize offHeapMaxSize,
+      @Value("${url.cache.local.off-heap.stripes:64}") int offHeapStripes,
+      MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((String shortCode, ResolvedUrl url) -> weigh(shortCode, url))
+            .expireAfter(new UrlExpiry(ttl))
+            .recordStats()
+            .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "url.local");
+
+    this.shortCodeCodec = shortCodeCodec;
+    this.ttlMillis = ttl.toMillis();
+    this.offHeapTable =
+        offHeapEnabled && resolutionMode == URLService.ResolutionMode.ID
+            ? OffHeapUrlTable.create(offHeapMaxSize.toBytes(), offHeapStripes)
+            : null;
+    this.offHeapHitCounter = meterRegistry.counter("url.local.off-heap.lookups", "result", "hit");
+    this.offHeapMissCounter = meterRegistry.counter("url.local.off-heap.lookups", "result", "miss");
+    if (offHeapTable != null) {
+      Gauge.builder("url.local.off-heap.entries", offHeapTable, OffHeapUrlTable::size)
+          .register(meterRegistry);
+      Gauge.builder("url.local.off-heap.bytes", offHeapTable, OffHeapUrlTable::sizeInBytes)
+          .register(meterRegistry);
+      FunctionCounter.builder(
+              "url.local.off-heap.evictions", offHeapTable, OffHeapUrlTable::evictions)
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * Returns the cached {@link ResolvedUrl} for the given short code if it is present and not
+   * expired.
+   *
+   * @param shortCode The short code to look up.
+   * @return An {@link Optional} containing the cached {@link ResolvedUrl}, or an empty {@link
+   *     Optional} on a miss.
+   */
+  public Optional<ResolvedUrl> get(String shortCode) {
+    final var id = offHeapId(shortCode);
+    if (id < 0) {
+      return Optional.ofNullable(cache.getIfPresent(shortCode));
+    }
+    final var url = offHeapTable.get(id, System.currentTimeMillis());
+    if (url == null) {
+      offHeapMissCounter.increment();
+      return Optional.empty();
+    }
+    offHeapHitCounter.increment();
+    return Optional.of(url);
+  }
+
+  /**
+   * Stores a {@link ResolvedUrl} under its short code. Mappings that are already expired are not
+   * cached.
+   *
+   * @param shortCode The short code the mapping was resolved for.
+   * @param url The {@link ResolvedUrl}.
+   */
+  public void put(String shortCode, ResolvedUrl url) {
+    final var now = System.currentTimeMillis();
+    if (url.isExpired(now)) {
+      return;
+    }
+    final var id = offHeapId(shortCode);
+    if (id < 0) {
+      cache.put(shortCode, url);
+      return;
+    }
+    offHeapTable.put(url, now + ttlMillis);
+  }
+
+  /**
+   * Removes the entry for the given short code, if any.
+   *
+   * @param shortCode The short code to evict.
+   */
+  public void invalidate(String shortCode) {
+    final var id = offHeapId(shortCode);
+    if (id < 0) {
+      cache.invalidate(shortCode);
+    } else {
+      offHeapTable.remove(id);
+    }
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counters of the on-heap cache.
+   *
+   * @return The current {@link CacheStats}.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** Returns the ID the entry for the code is kept under off heap, or {@code -1} if it is not. */
+  private long offHeapId(String shortCode) {
+    return offHeapTable == null ? -1 : shortCodeCodec.tryDecode(shortCode);
+  }
+
+  private static int weigh(String shortCode, ResolvedUrl url) {
+    final var originalUrlLength = url.getOriginalUrl() == null ? 0 : url.getOriginalUrl().length();
+    return ENTRY_OVERHEAD_BYTES + 2 * (shortCode.length() + originalUrlLength);
+  }
+
+  /**
+   * Per-entry expiry policy: an entry lives for the configured TTL, but never past the expiration
+   * time of the mapping it holds.
+   */
+  private static final class UrlExpiry implements Expiry<String, ResolvedUrl> {
+    private final long ttlMillis;
+
+    private UrlExpiry(Duration ttl) {
+      this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public long expireAfterCreate(String shortCode, ResolvedUrl url, long currentTime) {
+      final var untilExpiry = url.getExpiresAtMillis() - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(untilExpiry, ttlMillis)));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String shortCode, ResolvedUrl url, long currentTime, long currentDuration) {
+      return expireAfterCreate(shortCode, url, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String shortCode, ResolvedUrl url, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of short codes that recently failed to resolve, so that repeated
+ * lookups of them are rejected without a round trip to Redis or the database.
+ *
+ * <p>Codes that were not found are remembered only briefly ({@code url.negative-cache.ttl}), since
+ * the mapping may simply not have reached the replica yet. Expired mappings never come back and
+ * are remembered for {@code url.negative-cache.expired-ttl}. Hit and miss counters are published
+ * through Micrometer under the {@code url.negative} cache name.
+ */
+@Component
+public class NegativeLookupCache {
+  /** Why a short code did not resolve. */
+  public enum Reason {
+    NOT_FOUND,
+    EXPIRED
+  }
+
+  private final Cache<String, Reason> markers;
+
+  public NegativeLookupCache(
+      @Value("${url.negative-cache.ttl:30s}") Duration notFoundTtl,
+      @Value("${url.negative-cache.expired-ttl:10m}") Duration expiredTtl,
+      @Value("${url.negative-cache.max-size:1000000}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this.markers =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new MarkerExpiry(notFoundTtl, expiredTtl))
+            .recordStats()
+            .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, markers, "url.negative");
+  }
+
+  /**
+   * Returns why the given short code failed to resolve recently, if it did.
+   *
+   * @param shortCode The short code to look up.
+   * @return The {@link Reason} of the recent failure, or an empty {@link Optional}.
+   */
+  public Optional<Reason> get(String shortCode) {
+    return Optional.ofNullable(markers.getIfPresent(shortCode));
+  }
+
+  /**
+   * Remembers that the given short code failed to resolve.
+   *
+   * @param shortCode The short code that failed to resolve.
+   * @param reason Why it failed.
+   */
+  public void put(String shortCode, Reason reason) {
+    markers.put(shortCode, reason);
+  }
+
+  /**
+   * Forgets a short code, e.g. because a mapping for it has just been created.
+   *
+   * @param shortCode The short code to forget.
+   */
+  public void invalidate(String shortCode) {
+    markers.invalidate(shortCode);
+  }
+
+  /** Keeps not-found markers for the short TTL and expired markers for the long one. */
+  private static final class MarkerExpiry implements Expiry<String, Reason> {
+    private final long notFoundTtlNanos;
+    private final long expiredTtlNanos;
+
+    private MarkerExpiry(Duration notFoundTtl, Duration expiredTtl) {
+      this.notFoundTtlNanos = notFoundTtl.toNanos();
+      this.expiredTtlNanos = expiredTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String shortCode, Reason reason, long currentTime) {
+      return reason == Reason.EXPIRED ? expiredTtlNanos : notFoundTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String shortCode, Reason reason, long currentTime, long currentDuration) {
+      return expireAfterCreate(shortCode, reason, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String shortCode, Reason reason, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
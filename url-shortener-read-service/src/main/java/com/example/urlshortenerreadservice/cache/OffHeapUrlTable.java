@@ -0,0 +1,369 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size hash table of original URLs keyed by ID, held in direct memory outside the heap.
+ *
+ * <p>The table is split into stripes, each a direct buffer of its own. A quarter of a stripe is an
+ * open-addressing slot array probed linearly, with 32 bytes per slot: the key, the time until which
+ * the entry may be served, the expiration time of the mapping, both in epoch milliseconds, and the
+ * position of the original URL in the rest of the stripe, which is filled with UTF-8 bytes from the
+ * front. The table never grows past its budget and costs the garbage collector nothing regardless
+ * of how many mappings it holds.
+ *
+ * <p>A stripe that runs out of slots evicts single entries with the CLOCK algorithm: a hand sweeps
+ * over the slots and evicts the first entry that has not been read since the hand last passed it,
+ * so hot entries survive while the rest of the stripe turns over. Removed slots are freed by
+ * shifting the rest of their probe sequence back. A stripe that runs out of bytes evicts the same
+ * way until a quarter of its data area is free of live entries and then compacts the live original
+ * URLs to the front.
+ *
+ * <p>Writes to a stripe are serialized by its lock. Reads take no lock: every write makes the
+ * version of the stripe odd while it changes the stripe and even again afterwards, and a read that
+ * saw the version change retries, falling back to the lock after a few attempts.
+ */
+public final class OffHeapUrlTable {
+  private static final int SLOT_BYTES = 32;
+  private static final double MAX_LOAD = 0.75;
+  private static final int OPTIMISTIC_READS = 4;
+
+  /** Marker for a read that saw an inconsistent slot. */
+  private static final ResolvedUrl TORN = new ResolvedUrl(-1, null, 0);
+
+  private final Stripe[] stripes;
+  private final int stripeMask;
+
+  private OffHeapUrlTable(int stripeCount, int stripeBytes) {
+    this.stripes = new Stripe[stripeCount];
+    for (var i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(stripeBytes);
+    }
+    this.stripeMask = stripeCount - 1;
+  }
+
+  /**
+   * Allocates a table.
+   *
+   * @param maxBytes The direct memory to allocate for the whole table.
+   * @param stripeCount The number of independently locked stripes, a power of two.
+   * @return An empty table.
+   * @throws IllegalArgumentException If the stripe count is not a power of two, or a stripe would
+   *     be smaller than 64 KB or larger than 1 GB.
+   */
+  public static OffHeapUrlTable create(long maxBytes, int stripeCount) {
+    if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+      throw new IllegalArgumentException("Stripe count must be a power of two: " + stripeCount);
+    }
+    final var stripeBytes = maxBytes / stripeCount;
+    if (stripeBytes < 1 << 16 || stripeBytes > 1 << 30) {
+      throw new IllegalArgumentException("Invalid off-heap stripe size: " + stripeBytes + " bytes");
+    }
+    return new OffHeapUrlTable(stripeCount, (int) stripeBytes);
+  }
+
+  /**
+   * Looks up the mapping with the given ID.
+   *
+   * @param id The ID to look up, at least {@code 0}.
+   * @param nowMillis The current time in epoch milliseconds.
+   * @return A new {@link ResolvedUrl}, or {@code null} if the ID is not in the table or may no
+   *     longer be served.
+   */
+  public ResolvedUrl get(long id, long nowMillis) {
+    final var hash = mix(id);
+    return stripe(hash).get(id + 1, hash, nowMillis);
+  }
+
+  /**
+   * Stores a mapping, replacing any previous one with the same ID.
+   *
+   * @param url The mapping, with an ID of at least {@code 0}.
+   * @param serveUntilMillis The time in epoch milliseconds after which the entry is no longer
+   *     served, if the mapping has not expired before.
+   */
+  public void put(ResolvedUrl url, long serveUntilMillis) {
+    final var hash = mix(url.getId());
+    stripe(hash)
+        .put(
+            url.getId() + 1,
+            hash,
+            url.getOriginalUrl().getBytes(StandardCharsets.UTF_8),
+            url.getExpiresAtMillis(),
+            Math.min(url.getExpiresAtMillis(), serveUntilMillis));
+  }
+
+  /**
+   * Stops serving the mapping with the given ID and frees its slot.
+   *
+   * @param id The ID of the mapping.
+   */
+  public void remove(long id) {
+    final var hash = mix(id);
+    stripe(hash).remove(id + 1, hash);
+  }
+
+  /** Returns the number of entries in the table, including outdated ones. */
+  public long size() {
+    var size = 0L;
+    for (final var stripe : stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+  /** Returns how many entries have been evicted to make room for others. */
+  public long evictions() {
+    var evictions = 0L;
+    for (final var stripe : stripes) {
+      evictions += stripe.evictions;
+    }
+    return evictions;
+  }
+
+  public long sizeInBytes() {
+    return (long) stripes.length * stripes[0].buffer.capacity();
+  }
+
+  /** Picks the stripe from the high half of the hash; slots are picked from the low half. */
+  private Stripe stripe(long hash) {
+    return stripes[(int) (hash >>> 32) & stripeMask];
+  }
+
+  /** SplitMix64 finalizer, so that sequential IDs spread over stripes and slots. */
+  private static long mix(long key) {
+    var z = key + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static final class Stripe {
+    private final ByteBuffer buffer;
+    private final int slotMask;
+    private final int maxSize;
+    private final int dataStart;
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The CLOCK reference bit of each slot, set by reads without the lock. */
+    private final boolean[] referenced;
+
+    private int dataEnd;
+    private int liveBytes;
+    private int hand;
+    private volatile int size;
+    private volatile long evictions;
+
+    private Stripe(int bytes) {
+      this.buffer = ByteBuffer.allocateDirect(bytes);
+      final var slots = Integer.highestOneBit(bytes / 4 / SLOT_BYTES);
+      this.slotMask = slots - 1;
+      this.maxSize = (int) (slots * MAX_LOAD);
+      this.dataStart = slots * SLOT_BYTES;
+      this.dataEnd = dataStart;
+      this.referenced = new boolean[slots];
+    }
+
+    private ResolvedUrl get(long key, long hash, long nowMillis) {
+      for (var attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+        final var before = version.get();
+        if ((before & 1) != 0) {
+          Thread.onSpinWait();
+          continue;
+        }
+        final var url = read(key, hash, nowMillis);
+        VarHandle.loadLoadFence();
+        if (version.get() == before) {
+          return url == TORN ? null : url;
+        }
+      }
+      lock.lock();
+      try {
+        return read(key, hash, nowMillis);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Probes for a key. Without the lock a concurrent write may leave the slot inconsistent, in
+     * which case the caller sees the version change and discards the result; {@link #TORN} is
+     * returned instead of reading outside the stripe.
+     */
+    private ResolvedUrl read(long key, long hash, long nowMillis) {
+      for (var probe = 0; probe <= slotMask; probe++) {
+        final var index = ((int) hash + probe) & slotMask;
+        final var slot = index * SLOT_BYTES;
+        final var slotKey = buffer.getLong(slot);
+        if (slotKey == 0) {
+          return null;
+        }
+        if (slotKey != key) {
+          continue;
+        }
+        if (buffer.getLong(slot + 8) <= nowMillis) {
+          return null;
+        }
+        final var expiresAtMillis = buffer.getLong(slot + 16);
+        final var offset = buffer.getInt(slot + 24);
+        final var length = buffer.getInt(slot + 28);
+        if (offset < dataStart || length < 0 || offset > buffer.capacity() - length) {
+          return TORN;
+        }
+        final var bytes = new byte[length];
+        buffer.get(offset, bytes);
+        referenced[index] = true;
+        return new ResolvedUrl(key - 1, new String(bytes, StandardCharsets.UTF_8), expiresAtMillis);
+      }
+      return null;
+    }
+
+    private void put(
+        long key, long hash, byte[] originalUrl, long expiresAtMillis, long serveUntilMillis) {
+      if (originalUrl.length > buffer.capacity() - dataStart) {
+        return;
+      }
+      lock.lock();
+      try {
+        beginWrite();
+        final var previous = find(key, hash);
+        if (buffer.getLong(previous) == key) {
+          delete(previous / SLOT_BYTES);
+        }
+        if (dataEnd > buffer.capacity() - originalUrl.length) {
+          makeRoom(originalUrl.length);
+        }
+        while (size >= maxSize) {
+          evict();
+        }
+        final var slot = find(key, hash);
+        buffer.put(dataEnd, originalUrl);
+        buffer.putLong(slot + 8, serveUntilMillis);
+        buffer.putLong(slot + 16, expiresAtMillis);
+        buffer.putInt(slot + 24, dataEnd);
+        buffer.putInt(slot + 28, originalUrl.length);
+        buffer.putLong(slot, key);
+        referenced[slot / SLOT_BYTES] = false;
+        dataEnd += originalUrl.length;
+        liveBytes += originalUrl.length;
+        size++;
+      } finally {
+        version.incrementAndGet();
+        lock.unlock();
+      }
+    }
+
+    private void remove(long key, long hash) {
+      lock.lock();
+      try {
+        beginWrite();
+        final var slot = find(key, hash);
+        if (buffer.getLong(slot) == key) {
+          delete(slot / SLOT_BYTES);
+        }
+      } finally {
+        version.incrementAndGet();
+        lock.unlock();
+      }
+    }
+
+    /** Returns the slot holding the key, or the empty slot where it would go. */
+    private int find(long key, long hash) {
+      var slot = ((int) hash & slotMask) * SLOT_BYTES;
+      while (buffer.getLong(slot) != 0 && buffer.getLong(slot) != key) {
+        slot = (slot + SLOT_BYTES) % dataStart;
+      }
+      return slot;
+    }
+
+    private void beginWrite() {
+      version.incrementAndGet();
+      VarHandle.storeStoreFence();
+    }
+
+    /** Advances the CLOCK hand to the next entry not read since its last pass, and evicts it. */
+    private void evict() {
+      while (true) {
+        final var index = hand;
+        hand = (hand + 1) & slotMask;
+        if (buffer.getLong(index * SLOT_BYTES) == 0) {
+          continue;
+        }
+        if (referenced[index]) {
+          referenced[index] = false;
+          continue;
+        }
+        delete(index);
+        evictions++;
+        return;
+      }
+    }
+
+    /**
+     * Evicts entries until a quarter of the data area, and at least {@code length} bytes, are free
+     * of live original URLs, and moves the live ones to the front of the data area.
+     */
+    private void makeRoom(int length) {
+      final var dataBytes = buffer.capacity() - dataStart;
+      final var maxLiveBytes = Math.min(dataBytes - dataBytes / 4, dataBytes - length);
+      while (liveBytes > maxLiveBytes) {
+        evict();
+      }
+      compact();
+    }
+
+    /** Moves the original URLs of all entries to the front of the data area, in their order. */
+    private void compact() {
+      final var entries = new long[size];
+      var count = 0;
+      for (var slot = 0; slot < dataStart; slot += SLOT_BYTES) {
+        if (buffer.getLong(slot) != 0) {
+          entries[count++] = (long) buffer.getInt(slot + 24) << 32 | slot;
+        }
+      }
+      Arrays.sort(entries, 0, count);
+      dataEnd = dataStart;
+      for (var i = 0; i < count; i++) {
+        final var slot = (int) entries[i];
+        final var offset = (int) (entries[i] >>> 32);
+        final var length = buffer.getInt(slot + 28);
+        buffer.put(dataEnd, buffer, offset, length);
+        buffer.putInt(slot + 24, dataEnd);
+        dataEnd += length;
+      }
+    }
+
+    /**
+     * Frees a slot, shifting later entries of the same probe sequence back into it so that linear
+     * probing still finds them.
+     */
+    private void delete(int index) {
+      liveBytes -= buffer.getInt(index * SLOT_BYTES + 28);
+      size--;
+      var free = index;
+      var next = index;
+      while (true) {
+        next = (next + 1) & slotMask;
+        final var key = buffer.getLong(next * SLOT_BYTES);
+        if (key == 0) {
+          break;
+        }
+        final var home = (int) mix(key - 1) & slotMask;
+        if (((next - home) & slotMask) >= ((next - free) & slotMask)) {
+          buffer.put(free * SLOT_BYTES, buffer, next * SLOT_BYTES, SLOT_BYTES);
+          referenced[free] = referenced[next];
+          free = next;
+        }
+      }
+      buffer.putLong(free * SLOT_BYTES, 0);
+      referenced[free] = false;
+    }
+  }
+}
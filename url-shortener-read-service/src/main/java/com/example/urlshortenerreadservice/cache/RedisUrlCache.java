@@ -0,0 +1,280 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Shared Redis cache of {@link ResolvedUrl} entries, keyed by short code.
+ *
+ * <p>Entries are written with the configured TTL shortened by a random jitter, so entries cached
+ * together do not all expire in the same instant. Reads fetch the value and its remaining TTL in
+ * one pipelined round trip, which lets {@link #shouldRefreshEarly(Entry)} apply probabilistic early
+ * expiration (XFetch): the closer an entry is to expiring, and the longer a database load takes,
+ * the more likely a read is to reload it ahead of time, so a hot entry is refreshed by one request
+ * before it expires instead of by all of them after.
+ *
+ * <p>Lookups are counted in {@code url.cache.redis.lookups} with a {@code result} tag of {@code
+ * hit} or {@code miss}, and every round trip is timed in {@code url.cache.redis.requests} with an
+ * {@code operation} tag of {@code get}, {@code put}, or {@code get-all} and {@code put-all} for the
+ * bulk operations. Unlike the database queries, these are plain timers rather than observations,
+ * since they sit on every Redis hit and must not allocate.
+ */
+@Component
+public class RedisUrlCache {
+  private final RedisTemplate<String, Object> redisTemplate;
+  private final Duration ttl;
+  private final double ttlJitter;
+  private final double earlyRefreshBeta;
+  private final Counter earlyRefreshCounter;
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Timer getTimer;
+  private final Timer putTimer;
+  private final Timer getAllTimer;
+  private final Timer putAllTimer;
+  private final DoubleSupplier random;
+  private volatile double loadTimeMillis = 1.0;
+
+  @Autowired
+  public RedisUrlCache(
+      RedisTemplate<String, Object> redisTemplate,
+      @Value("${url.cache.redis.ttl:5h}") Duration ttl,
+      @Value("${url.cache.redis.ttl-jitter:0.1}") double ttlJitter,
+      @Value("${url.cache.redis.early-refresh-beta:1.0}") double earlyRefreshBeta,
+      MeterRegistry meterRegistry) {
+    this(
+        redisTemplate,
+        ttl,
+        ttlJitter,
+        earlyRefreshBeta,
+        meterRegistry,
+        () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  /**
+   * Creates a cache that draws the random numbers of early refresh and TTL jitter from the given
+   * source, so tests can make them deterministic.
+   *
+   * @param random Supplies uniformly distributed numbers in {@code [0, 1)}.
+   */
+  RedisUrlCache(
+      RedisTemplate<String, Object> redisTemplate,
+      Duration ttl,
+      double ttlJitter,
+      double earlyRefreshBeta,
+      MeterRegistry meterRegistry,
+      DoubleSupplier random) {
+    this.redisTemplate = redisTemplate;
+    this.random = random;
+    this.ttl = ttl;
+    this.ttlJitter = ttlJitter;
+    this.earlyRefreshBeta = earlyRefreshBeta;
+    this.earlyRefreshCounter = meterRegistry.counter("url.cache.redis.early.refreshes");
+    this.hitCounter = meterRegistry.counter("url.cache.redis.lookups", "result", "hit");
+    this.missCounter = meterRegistry.counter("url.cache.redis.lookups", "result", "miss");
+    this.getTimer = meterRegistry.timer("url.cache.redis.requests", "operation", "get");
+    this.putTimer = meterRegistry.timer("url.cache.redis.requests", "operation", "put");
+    this.getAllTimer = meterRegistry.timer("url.cache.redis.requests", "operation", "get-all");
+    this.putAllTimer = meterRegistry.timer("url.cache.redis.requests", "operation", "put-all");
+  }
+
+  /**
+   * Returns the cached {@link ResolvedUrl} for the given short code with its remaining TTL.
+   *
+   * @param shortCode The short code to look up.
+   * @return The cached {@link Entry}, or {@code null} on a miss.
+   */
+  public Entry get(String shortCode) {
+    final var key = shortCode.getBytes(StandardCharsets.UTF_8);
+    final RedisCallback<Object> pipeline =
+        connection -> {
+          connection.stringCommands().get(key);
+          connection.keyCommands().pTtl(key);
+          return null;
+        };
+    final var start = System.nanoTime();
+    final List<Object> results;
+    try {
+      results = redisTemplate.executePipelined(pipeline);
+    } finally {
+      getTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    if (!(results.get(0) instanceof ResolvedUrl url)) {
+      missCounter.increment();
+      return null;
+    }
+    hitCounter.increment();
+    final var ttlMillis = results.get(1) instanceof Long remaining ? remaining : -1;
+    return new Entry(url, ttlMillis);
+  }
+
+  /**
+   * Returns the cached {@link ResolvedUrl} of each of the given short codes with a single {@code
+   * MGET}. Remaining TTLs are not fetched, so bulk reads take no part in early refresh.
+   *
+   * @param shortCodes The short codes to look up.
+   * @return The cached {@link ResolvedUrl} of each code in the same order, {@code null} on a miss.
+   */
+  public List<ResolvedUrl> getAll(List<String> shortCodes) {
+    final var start = System.nanoTime();
+    final List<Object> values;
+    try {
+      values = redisTemplate.opsForValue().multiGet(shortCodes);
+    } finally {
+      getAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    final var urls = new ArrayList<ResolvedUrl>(shortCodes.size());
+    var hits = 0;
+    for (var i = 0; i < shortCodes.size(); i++) {
+      if (values != null && values.get(i) instanceof ResolvedUrl url) {
+        urls.add(url);
+        hits++;
+      } else {
+        urls.add(null);
+      }
+    }
+    hitCounter.increment(hits);
+    missCounter.increment(shortCodes.size() - hits);
+    return urls;
+  }
+
+  /**
+   * Stores a {@link ResolvedUrl} under its short code with the jittered TTL.
+   *
+   * @param shortCode The short code the mapping was resolved for.
+   * @param url The resolved {@link ResolvedUrl}.
+   */
+  public void put(String shortCode, ResolvedUrl url) {
+    final var start = System.nanoTime();
+    try {
+      redisTemplate.opsForValue().set(shortCode, url, jitteredTtl());
+    } finally {
+      putTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Stores several {@link ResolvedUrl} entries in one pipelined round trip, each with its own
+   * jittered TTL.
+   *
+   * @param urls The resolved {@link ResolvedUrl} entries, keyed by the short code they were
+   *     resolved for.
+   */
+  public void putAll(Map<String, ResolvedUrl> urls) {
+    @SuppressWarnings("unchecked")
+    final var valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    final RedisCallback<Object> pipeline =
+        connection -> {
+          for (final var entry : urls.entrySet()) {
+            connection
+                .stringCommands()
+                .set(
+                    entry.getKey().getBytes(StandardCharsets.UTF_8),
+                    valueSerializer.serialize(entry.getValue()),
+                    Expiration.from(jitteredTtl()),
+                    RedisStringCommands.SetOption.upsert());
+          }
+          return null;
+        };
+    final var start = System.nanoTime();
+    try {
+      redisTemplate.executePipelined(pipeline);
+    } finally {
+      putAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Removes the entry for the given short code, if any.
+   *
+   * @param shortCode The short code to evict.
+   */
+  public void evict(String shortCode) {
+    redisTemplate.delete(shortCode);
+  }
+
+  /**
+   * Removes the entries for the given short codes with a single {@code DEL}.
+   *
+   * @param shortCodes The short codes to evict.
+   */
+  public void evictAll(Collection<String> shortCodes) {
+    redisTemplate.delete(shortCodes);
+  }
+
+  /**
+   * Decides whether a cache hit should be treated as a miss and reloaded ahead of its expiry. An
+   * entry is refreshed when {@code -loadTime * beta * ln(random)} reaches its remaining TTL.
+   *
+   * @param entry The entry returned by {@link #get(String)}.
+   * @return {@code true} if the caller should reload the entry now.
+   */
+  public boolean shouldRefreshEarly(Entry entry) {
+    if (entry.ttlMillis < 0 || earlyRefreshBeta <= 0) {
+      return false;
+    }
+    final var r = 1.0 - random.getAsDouble();
+    final var refresh = -loadTimeMillis * earlyRefreshBeta * Math.log(r) >= entry.ttlMillis;
+    if (refresh) {
+      earlyRefreshCounter.increment();
+    }
+    return refresh;
+  }
+
+  /**
+   * Feeds the duration of a database load into the moving average used by {@link
+   * #shouldRefreshEarly(Entry)}.
+   *
+   * @param nanos How long the load took, in nanoseconds.
+   */
+  public void recordLoadTime(long nanos) {
+    loadTimeMillis = 0.9 * loadTimeMillis + 0.1 * (nanos / 1_000_000.0);
+  }
+
+  /** Returns the configured TTL shortened by a random part of up to {@code ttlJitter} of it. */
+  Duration jitteredTtl() {
+    final var jitter = 1.0 - ttlJitter * random.getAsDouble();
+    return Duration.ofMillis((long) (ttl.toMillis() * jitter));
+  }
+
+  /** A cached {@link ResolvedUrl} and the time it has left in Redis. */
+  public static final class Entry {
+    private final ResolvedUrl url;
+    private final long ttlMillis;
+
+    public Entry(ResolvedUrl url, long ttlMillis) {
+      this.url = url;
+      this.ttlMillis = ttlMillis;
+    }
+
+    public ResolvedUrl getUrl() {
+      return url;
+    }
+
+    /** Returns the remaining TTL in milliseconds, or a negative value if it is unknown. */
+    public long getTtlMillis() {
+      return ttlMillis;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.urlshortenerreadservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. The first caller for a key runs the loader, callers
+ * that arrive while it is in flight wait for and share its result, or its exception, and the next
+ * caller after it finished starts a new load. Waiting parks the caller, which is cheap on virtual
+ * threads.
+ *
+ * <p>Leading and coalesced calls are counted in the {@code <name>} counter with a {@code type} tag
+ * of {@code leading} or {@code coalesced}.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the loaded values.
+ */
+public final class SingleFlight<K, V> {
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter leadingCounter;
+  private final Counter coalescedCounter;
+
+  public SingleFlight(String name, MeterRegistry meterRegistry) {
+    this.leadingCounter = meterRegistry.counter(name, "type", "leading");
+    this.coalescedCounter = meterRegistry.counter(name, "type", "coalesced");
+  }
+
+  /**
+   * Returns the value for the key, loading it unless a load for the same key is already in flight.
+   *
+   * @param key The key to load.
+   * @param loader Loads the value; only called by the leading caller.
+   * @return The loaded value.
+   */
+  public V load(K key, Supplier<V> loader) {
+    final var call = new CompletableFuture<V>();
+    final var existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      coalescedCounter.increment();
+      return await(existing);
+    }
+
+    leadingCounter.increment();
+    try {
+      final var value = loader.get();
+      call.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> call) {
+    try {
+      return call.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
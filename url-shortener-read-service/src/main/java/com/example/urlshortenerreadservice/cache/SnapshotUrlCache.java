@@ -0,0 +1,268 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.models.URL;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import com.example.urlshortenerreadservice.service.URLService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tier between the in-process {@link LocalUrlCache} and Redis that answers lookups of generated
+ * short codes from a memory-mapped {@link UrlSnapshot} of all mappings that had not expired when
+ * it was built. A hit costs a binary search over mapped memory and no network round trip, and the
+ * snapshot does not count against the heap, so it can hold far more mappings than the local cache.
+ *
+ * <p>The snapshot file at {@code url.snapshot.path} can live on a volume shared by all read
+ * instances. Every {@code url.snapshot.refresh-interval} an instance adopts the file if another
+ * instance has replaced it since, and only builds a new one itself if the file is older than the
+ * refresh interval. A new instance therefore starts with the shared snapshot instead of an empty
+ * tier. Building merges the mappings created since the previous build into the previous snapshot,
+ * found through the index on {@code expires_at} like in the {@code KnownIdFilter}, and drops
+ * entries that have expired as well as those the write service has deleted before they expired,
+ * which it leaves tombstones in {@code url_tombstones} for. Every {@code
+ * url.snapshot.full-rebuild-interval} the snapshot is instead rebuilt from the whole table.
+ *
+ * <p>Only generated codes are looked up, and only in {@link URLService.ResolutionMode#ID}, since
+ * the snapshot is keyed by ID. Lookups are counted in {@code url.snapshot.lookups} with a {@code
+ * result} tag of {@code hit} or {@code miss}.
+ */
+@Component
+public class SnapshotUrlCache {
+  private static final Logger log = LoggerFactory.getLogger(SnapshotUrlCache.class);
+
+  private final URLRepositoryImpl urlRepository;
+  private final ShortCodeCodec shortCodeCodec;
+  private final boolean enabled;
+  private final Path path;
+  private final long refreshIntervalMillis;
+  private final long fullRebuildIntervalMillis;
+  private final long refreshOverlapMillis;
+  private final int pageSize;
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private volatile UrlSnapshot snapshot;
+
+  public SnapshotUrlCache(
+      URLRepositoryImpl urlRepository,
+      ShortCodeCodec shortCodeCodec,
+      @Value("${url.snapshot.enabled:true}") boolean enabled,
+      @Value("${url.resolution.mode:ID}") URLService.ResolutionMode resolutionMode,
+      @Value("${url.snapshot.path:${java.io.tmpdir}/url-shortener/urls.snapshot}") Path path,
+      @Value("${url.snapshot.refresh-interval:600000}") long refreshIntervalMillis,
+      @Value("${url.snapshot.full-rebuild-interval:1h}") Duration fullRebuildInterval,
+      @Value("${url.snapshot.refresh-overlap:5s}") Duration refreshOverlap,
+      @Value("${url.snapshot.page-size:10000}") int pageSize,
+      MeterRegistry meterRegistry) {
+    this.urlRepository = urlRepository;
+    this.shortCodeCodec = shortCodeCodec;
+    this.enabled = enabled && resolutionMode == URLService.ResolutionMode.ID;
+    this.path = path;
+    this.refreshIntervalMillis = refreshIntervalMillis;
+    this.fullRebuildIntervalMillis = fullRebuildInterval.toMillis();
+    this.refreshOverlapMillis = refreshOverlap.toMillis();
+    this.pageSize = pageSize;
+    this.hitCounter = meterRegistry.counter("url.snapshot.lookups", "result", "hit");
+    this.missCounter = meterRegistry.counter("url.snapshot.lookups", "result", "miss");
+    Gauge.builder("url.snapshot.entries", this, cache -> cache.currentSize(UrlSnapshot::size))
+        .register(meterRegistry);
+    Gauge.builder("url.snapshot.bytes", this, cache -> cache.currentSize(UrlSnapshot::sizeInBytes))
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the mapping for the given short code if it is a generated code whose ID is in the
+   * snapshot and has not expired.
+   *
+   * @param shortCode The short code to look up.
+   * @return An {@link Optional} containing the {@link ResolvedUrl}, or an empty {@link Optional}
+   *     on a miss.
+   */
+  public Optional<ResolvedUrl> get(String shortCode) {
+    final var current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    final var id = shortCodeCodec.tryDecode(shortCode);
+    if (id < 0) {
+      return Optional.empty();
+    }
+    final var url = current.find(id);
+    if (url == null || url.isExpired(System.currentTimeMillis())) {
+      missCounter.increment();
+      return Optional.empty();
+    }
+    hitCounter.increment();
+    return Optional.of(url);
+  }
+
+  /** Adopts a newer shared snapshot, or builds the next one if the shared one is out of date. */
+  @Scheduled(
+      initialDelay = 0,
+      fixedDelayString = "${url.snapshot.refresh-interval:600000}",
+      scheduler = "backgroundTaskScheduler")
+  public void refresh() {
+    if (!enabled || !updateLock.tryLock()) {
+      return;
+    }
+    try {
+      final var now = System.currentTimeMillis();
+      var current = adoptShared(snapshot);
+      if (current != null && now - current.getBuiltAtMillis() < refreshIntervalMillis) {
+        return;
+      }
+
+      final var full =
+          current == null || now - current.getFullBuiltAtMillis() >= fullRebuildIntervalMillis;
+      current = full ? buildFull(now) : merge(current, now);
+      snapshot = current;
+      log.info(
+          "Built {} URL snapshot with {} entries ({} bytes)",
+          full ? "full" : "incremental",
+          current.size(),
+          current.sizeInBytes());
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to refresh URL snapshot, keeping the previous one", e);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Switches to the snapshot file if another instance has written a newer one to the shared path.
+   *
+   * @param current The snapshot in use, or {@code null}.
+   * @return The snapshot in use after adopting.
+   */
+  private UrlSnapshot adoptShared(UrlSnapshot current) {
+    if (!Files.isRegularFile(path)) {
+      return current;
+    }
+    try {
+      final var shared = UrlSnapshot.open(path);
+      if (current == null || shared.getBuiltAtMillis() > current.getBuiltAtMillis()) {
+        snapshot = shared;
+        return shared;
+      }
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable URL snapshot at {}", path, e);
+    }
+    return current;
+  }
+
+  /** Copies all mappings that have not expired into a new snapshot. */
+  private UrlSnapshot buildFull(long now) throws IOException {
+    final var watermark = latestExpiresAtMillis();
+    final var nowTime = toDateTime(now);
+    try (final var writer = new UrlSnapshotWriter(path)) {
+      var afterId = -1L;
+      while (true) {
+        final var page = urlRepository.findActiveAfter(afterId, nowTime, pageSize);
+        for (final var url : page) {
+          add(writer, url);
+        }
+        if (page.size() < pageSize) {
+          break;
+        }
+        afterId = page.getLast().getId();
+      }
+      return writer.commit(watermark, now, now);
+    }
+  }
+
+  /**
+   * Merges the mappings created since {@code previous} was built into a new snapshot. Both sides
+   * are walked in ID order; a mapping on both sides is taken from the database, and one of {@code
+   * previous} that has been deleted since it was built is dropped.
+   */
+  private UrlSnapshot merge(UrlSnapshot previous, long now) throws IOException {
+    final var watermark = Math.max(latestExpiresAtMillis(), previous.getWatermarkMillis());
+    final var from = toDateTime(previous.getWatermarkMillis() - refreshOverlapMillis);
+    final var deleted =
+        new HashSet<>(
+            urlRepository.findIdsDeletedFrom(
+                toDateTime(previous.getBuiltAtMillis() - refreshOverlapMillis)));
+    try (final var writer = new UrlSnapshotWriter(path)) {
+      var index = 0;
+      var afterId = -1L;
+      while (true) {
+        final var page = urlRepository.findExpiringFromAfter(from, afterId, pageSize);
+        for (final var url : page) {
+          for (; index < previous.size() && previous.idAt(index) < url.getId(); index++) {
+            copy(writer, previous, index, now, deleted);
+          }
+          if (index < previous.size() && previous.idAt(index) == url.getId()) {
+            index++;
+          }
+          if (url.getExpiresAt() == null || url.getExpiresAt().toInstant().toEpochMilli() > now) {
+            add(writer, url);
+          }
+        }
+        if (page.size() < pageSize) {
+          break;
+        }
+        afterId = page.getLast().getId();
+      }
+      for (; index < previous.size(); index++) {
+        copy(writer, previous, index, now, deleted);
+      }
+      return writer.commit(watermark, now, previous.getFullBuiltAtMillis());
+    }
+  }
+
+  private static void add(UrlSnapshotWriter writer, URL url) throws IOException {
+    writer.add(
+        url.getId(),
+        UrlSnapshot.toEpochMillis(url.getCreatedAt()),
+        UrlSnapshot.toEpochMillis(url.getExpiresAt()),
+        url.getOriginalUrl().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void copy(
+      UrlSnapshotWriter writer, UrlSnapshot previous, int index, long now, Set<Long> deleted)
+      throws IOException {
+    final var expiresAt = previous.expiresAtMillisAt(index);
+    if ((expiresAt == UrlSnapshot.NO_TIME || expiresAt > now)
+        && !deleted.contains(previous.idAt(index))) {
+      writer.add(
+          previous.idAt(index),
+          previous.createdAtMillisAt(index),
+          expiresAt,
+          previous.originalUrlAt(index));
+    }
+  }
+
+  private long latestExpiresAtMillis() {
+    return urlRepository.findLatestExpiresAt().map(UrlSnapshot::toEpochMillis).orElse(0L);
+  }
+
+  private double currentSize(ToLongFunction<UrlSnapshot> size) {
+    final var current = snapshot;
+    return current == null ? 0 : size.applyAsLong(current);
+  }
+
+  private static OffsetDateTime toDateTime(long epochMillis) {
+    return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+  }
+}
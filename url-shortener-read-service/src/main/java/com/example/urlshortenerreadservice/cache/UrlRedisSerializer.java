@@ -0,0 +1,109 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenercommon.cache.CompactUrlFormat;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.models.URL;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Redis value serializer that stores cached {@link ResolvedUrl} and {@link URL} entries in a
+ * compact binary form and delegates every other value to a JSON serializer. Cached entries are
+ * always read back as {@link ResolvedUrl}, whatever form they were written in.
+ *
+ * <p>Compact entries use the {@link CompactUrlFormat} the write service publishes mappings in. A
+ * {@link ResolvedUrl} is written without creation time, and the creation time is ignored when
+ * reading. In JSON, a {@link ResolvedUrl} is written as a {@link URL} so the JSON format stays the
+ * same.
+ *
+ * <p>Reading accepts both formats regardless of {@link Format}, so entries written by an older
+ * release stay readable during a rollout and a rollback to JSON does not break on compact entries.
+ * Compact entries with an unknown version are read as {@code null}, i.e. as a cache miss, so an
+ * older reader simply reloads and overwrites entries written by a newer one.
+ */
+public class UrlRedisSerializer implements RedisSerializer<Object> {
+  /** The format new cached URL entries are written in. */
+  public enum Format {
+    JSON,
+    COMPACT
+  }
+
+  private static final CompactUrlFormat.Decoder<ResolvedUrl> RESOLVED_URL =
+      (id, originalUrl, createdAtMillis, expiresAtMillis) ->
+          new ResolvedUrl(
+              id,
+              originalUrl,
+              expiresAtMillis == CompactUrlFormat.NO_TIME ? ResolvedUrl.NO_EXPIRY : expiresAtMillis);
+
+  private final Format format;
+  private final RedisSerializer<Object> jsonSerializer;
+
+  /**
+   * Creates a serializer.
+   *
+   * @param format The format new cached URL entries are written in.
+   * @param jsonSerializer The serializer for JSON entries and for values other than {@link URL}.
+   */
+  public UrlRedisSerializer(Format format, RedisSerializer<Object> jsonSerializer) {
+    this.format = format;
+    this.jsonSerializer = jsonSerializer;
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    if (value instanceof ResolvedUrl url) {
+      if (format == Format.JSON) {
+        return jsonSerializer.serialize(toUrl(url));
+      }
+      final var expires = url.getExpiresAtMillis() != ResolvedUrl.NO_EXPIRY;
+      return CompactUrlFormat.encode(
+          url.getId(),
+          url.getOriginalUrl(),
+          CompactUrlFormat.NO_TIME,
+          expires ? url.getExpiresAtMillis() : CompactUrlFormat.NO_TIME);
+    }
+    if (format == Format.COMPACT && value instanceof URL url) {
+      return CompactUrlFormat.encode(
+          url.getId(),
+          url.getOriginalUrl(),
+          toEpochMillis(url.getCreatedAt()),
+          toEpochMillis(url.getExpiresAt()));
+    }
+    return jsonSerializer.serialize(value);
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (!CompactUrlFormat.isCompact(bytes)) {
+      final var value = jsonSerializer.deserialize(bytes);
+      return value instanceof URL url ? ResolvedUrl.of(url) : value;
+    }
+    if (!CompactUrlFormat.isCurrentVersion(bytes)) {
+      return null;
+    }
+    try {
+      return CompactUrlFormat.decode(bytes, RESOLVED_URL);
+    } catch (IllegalArgumentException e) {
+      throw new SerializationException(e.getMessage(), e);
+    }
+  }
+
+  private static long toEpochMillis(OffsetDateTime dateTime) {
+    return dateTime == null ? CompactUrlFormat.NO_TIME : dateTime.toInstant().toEpochMilli();
+  }
+
+  private static URL toUrl(ResolvedUrl url) {
+    final var expiresAtMillis = url.getExpiresAtMillis();
+    final var expiresAt =
+        expiresAtMillis == ResolvedUrl.NO_EXPIRY
+            ? null
+            : OffsetDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneOffset.UTC);
+    return new URL(url.getId(), url.getOriginalUrl(), null, null, expiresAt);
+  }
+}
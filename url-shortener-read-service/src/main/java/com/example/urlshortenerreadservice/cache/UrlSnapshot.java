@@ -0,0 +1,154 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.models.URL;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only, memory-mapped file of {@link URL} mappings sorted by ID, written by {@link
+ * UrlSnapshotWriter}.
+ *
+ * <p>The file starts with a 40-byte header: the magic {@code "URLS"}, the format version, the
+ * number of entries, the size of the data section, and the watermark, build time and time of the
+ * last full build in epoch milliseconds. It continues with a fixed-size index entry per mapping,
+ * sorted by ID: the ID, the creation and expiration times in epoch milliseconds ({@link
+ * Long#MIN_VALUE} for none) and the offset of the original URL in the data section. The data
+ * section holds the UTF-8 bytes of all original URLs back to back.
+ *
+ * <p>Lookups binary-search the index in place, so the entries live in the page cache rather than
+ * on the heap and a snapshot of millions of mappings costs the garbage collector nothing. Only
+ * absolute reads are used on the shared buffer, so any number of threads can look up concurrently.
+ * Files are limited to 2 GB, the size of one {@link java.nio.MappedByteBuffer}.
+ */
+public final class UrlSnapshot {
+  static final int MAGIC = 0x55524C53;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 40;
+  static final int ENTRY_BYTES = 28;
+  static final long NO_TIME = Long.MIN_VALUE;
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int dataStart;
+  private final int dataBytes;
+  private final long watermarkMillis;
+  private final long builtAtMillis;
+  private final long fullBuiltAtMillis;
+
+  private UrlSnapshot(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_BYTES
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a URL snapshot of version " + VERSION);
+    }
+    this.buffer = buffer;
+    this.size = buffer.getInt(8);
+    this.dataBytes = buffer.getInt(12);
+    this.watermarkMillis = buffer.getLong(16);
+    this.builtAtMillis = buffer.getLong(24);
+    this.fullBuiltAtMillis = buffer.getLong(32);
+    this.dataStart = HEADER_BYTES + size * ENTRY_BYTES;
+    if (size < 0 || dataBytes < 0 || (long) dataStart + dataBytes != buffer.capacity()) {
+      throw new IOException("Truncated URL snapshot");
+    }
+  }
+
+  /**
+   * Maps a snapshot file into memory.
+   *
+   * @param path The snapshot file.
+   * @return The mapped snapshot.
+   * @throws IOException If the file cannot be read or is not a complete snapshot.
+   */
+  public static UrlSnapshot open(Path path) throws IOException {
+    try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("URL snapshot larger than 2 GB: " + path);
+      }
+      return new UrlSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Looks up the mapping with the given ID.
+   *
+   * @param id The ID to look up.
+   * @return A new {@link ResolvedUrl}, or {@code null} if the snapshot has no such ID.
+   */
+  public ResolvedUrl find(long id) {
+    var low = 0;
+    var high = size - 1;
+    while (low <= high) {
+      final var middle = (low + high) >>> 1;
+      final var middleId = idAt(middle);
+      if (middleId < id) {
+        low = middle + 1;
+      } else if (middleId > id) {
+        high = middle - 1;
+      } else {
+        final var expiresAtMillis = expiresAtMillisAt(middle);
+        return new ResolvedUrl(
+            id,
+            new String(originalUrlAt(middle), StandardCharsets.UTF_8),
+            expiresAtMillis == NO_TIME ? ResolvedUrl.NO_EXPIRY : expiresAtMillis);
+      }
+    }
+    return null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long sizeInBytes() {
+    return buffer.capacity();
+  }
+
+  /** Returns the latest expiration time of the mappings in the source table when this was built. */
+  public long getWatermarkMillis() {
+    return watermarkMillis;
+  }
+
+  public long getBuiltAtMillis() {
+    return builtAtMillis;
+  }
+
+  /** Returns when the full build this snapshot was incrementally derived from was made. */
+  public long getFullBuiltAtMillis() {
+    return fullBuiltAtMillis;
+  }
+
+  long idAt(int index) {
+    return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+  }
+
+  long createdAtMillisAt(int index) {
+    return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES + 8);
+  }
+
+  long expiresAtMillisAt(int index) {
+    return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES + 16);
+  }
+
+  byte[] originalUrlAt(int index) {
+    final var start = offsetAt(index);
+    final var end = index + 1 < size ? offsetAt(index + 1) : dataBytes;
+    final var bytes = new byte[end - start];
+    buffer.get(dataStart + start, bytes);
+    return bytes;
+  }
+
+  private int offsetAt(int index) {
+    return buffer.getInt(HEADER_BYTES + index * ENTRY_BYTES + 24);
+  }
+
+  static long toEpochMillis(OffsetDateTime dateTime) {
+    return dateTime == null ? NO_TIME : dateTime.toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.urlshortenerreadservice.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a {@link UrlSnapshot} file. Entries must be added in ascending ID order. The index and the
+ * data section are streamed into two temporary files next to the target, which are joined behind
+ * the header and atomically moved into place by {@link #commit(long, long, long)}, so readers of
+ * the target, also in other processes sharing the volume, only ever see a complete snapshot.
+ */
+public final class UrlSnapshotWriter implements Closeable {
+  private final Path target;
+  private final Path indexFile;
+  private final Path dataFile;
+  private final DataOutputStream index;
+  private final BufferedOutputStream data;
+  private long lastId = Long.MIN_VALUE;
+  private int size;
+  private long dataBytes;
+
+  public UrlSnapshotWriter(Path target) throws IOException {
+    this.target = target.toAbsolutePath();
+    Files.createDirectories(this.target.getParent());
+    final var prefix = this.target.getFileName() + ".";
+    this.indexFile = Files.createTempFile(this.target.getParent(), prefix, ".index");
+    this.dataFile = Files.createTempFile(this.target.getParent(), prefix, ".data");
+    this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)));
+    this.data = new BufferedOutputStream(Files.newOutputStream(dataFile));
+  }
+
+  /**
+   * Appends one mapping.
+   *
+   * @param id The ID, greater than that of the previous entry.
+   * @param createdAtMillis The creation time in epoch milliseconds, or {@link
+   *     UrlSnapshot#NO_TIME}.
+   * @param expiresAtMillis The expiration time in epoch milliseconds, or {@link
+   *     UrlSnapshot#NO_TIME}.
+   * @param originalUrl The UTF-8 bytes of the original URL.
+   * @throws IOException If writing fails or the snapshot would exceed 2 GB.
+   */
+  public void add(long id, long createdAtMillis, long expiresAtMillis, byte[] originalUrl)
+      throws IOException {
+    if (id <= lastId) {
+      throw new IllegalArgumentException(
+          "Snapshot IDs must be ascending: " + id + " after " + lastId);
+    }
+    final var fileBytes =
+        UrlSnapshot.HEADER_BYTES
+            + (long) (size + 1) * UrlSnapshot.ENTRY_BYTES
+            + dataBytes
+            + originalUrl.length;
+    if (fileBytes > Integer.MAX_VALUE) {
+      throw new IOException("URL snapshot would exceed 2 GB");
+    }
+    index.writeLong(id);
+    index.writeLong(createdAtMillis);
+    index.writeLong(expiresAtMillis);
+    index.writeInt((int) dataBytes);
+    data.write(originalUrl);
+    dataBytes += originalUrl.length;
+    lastId = id;
+    size++;
+  }
+
+  /**
+   * Completes the snapshot, replaces the target with it and maps it.
+   *
+   * @param watermarkMillis The latest expiration time in the source table when the build started.
+   * @param builtAtMillis The time of this build.
+   * @param fullBuiltAtMillis The time of the last full build this one derives from.
+   * @return The mapped snapshot.
+   * @throws IOException If the file cannot be written or moved into place.
+   */
+  public UrlSnapshot commit(long watermarkMillis, long builtAtMillis, long fullBuiltAtMillis)
+      throws IOException {
+    index.close();
+    data.close();
+
+    final var header = ByteBuffer.allocate(UrlSnapshot.HEADER_BYTES);
+    header.putInt(UrlSnapshot.MAGIC);
+    header.putInt(UrlSnapshot.VERSION);
+    header.putInt(size);
+    header.putInt((int) dataBytes);
+    header.putLong(watermarkMillis);
+    header.putLong(builtAtMillis);
+    header.putLong(fullBuiltAtMillis);
+    header.flip();
+
+    final var joined = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+    try {
+      try (final var out = FileChannel.open(joined, StandardOpenOption.WRITE)) {
+        while (header.hasRemaining()) {
+          out.write(header);
+        }
+        append(out, indexFile);
+        append(out, dataFile);
+        out.force(true);
+      }
+      Files.move(
+          joined, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(joined);
+      close();
+    }
+    return UrlSnapshot.open(target);
+  }
+
+  /** Discards the temporary files of an unfinished snapshot. */
+  @Override
+  public void close() throws IOException {
+    index.close();
+    data.close();
+    Files.deleteIfExists(indexFile);
+    Files.deleteIfExists(dataFile);
+  }
+
+  private static void append(FileChannel out, Path file) throws IOException {
+    try (final var in = FileChannel.open(file, StandardOpenOption.READ)) {
+      var position = 0L;
+      while (position < in.size()) {
+        position += in.transferTo(position, in.size() - position, out);
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.urlshortenerreadservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for the database connections of the read service: the regular pool on the
+ * streaming replica, configured through {@code spring.datasource.*}, a small read-only pool on the
+ * primary, configured through {@code url.primary-fallback.datasource.*}, which is only used to look
+ * up mappings the replica has not received yet, and a second small pool on the replica for the
+ * scheduled jobs, configured through {@code url.background.datasource.hikari.*}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  /**
+   * Provides the {@code spring.datasource.*} properties of the replica.
+   *
+   * @return The replica connection properties.
+   */
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource")
+  public DataSourceProperties replicaDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  /**
+   * Provides the {@code url.primary-fallback.datasource.*} properties of the primary.
+   *
+   * @return The primary connection properties.
+   */
+  @Bean
+  @ConfigurationProperties("url.primary-fallback.datasource")
+  public DataSourceProperties primaryDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  /**
+   * Provides the connection pool on the replica, bound from {@code spring.datasource.hikari.*} as
+   * Spring Boot's auto-configuration would.
+   *
+   * @param properties The replica connection properties.
+   * @return The replica pool.
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource replicaDataSource(
+      @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Provides the small read-only connection pool on the primary, bound from {@code
+   * url.primary-fallback.datasource.hikari.*}. Connections are only opened when a lookup actually
+   * falls back to the primary.
+   *
+   * @param properties The primary connection properties.
+   * @return The primary pool.
+   */
+  @Bean
+  @ConfigurationProperties("url.primary-fallback.datasource.hikari")
+  public HikariDataSource primaryDataSource(
+      @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+    final var dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary-fallback");
+    dataSource.setReadOnly(true);
+    dataSource.setMinimumIdle(0);
+    return dataSource;
+  }
+
+  /**
+   * Provides the connection pool on the replica for the scheduled jobs, bound from {@code
+   * url.background.datasource.hikari.*}. The snapshot and known-id filter rebuilds page through the
+   * whole table; on their own pool they can neither take the connections redirects wait for nor be
+   * starved by a burst of redirects.
+   *
+   * @param properties The replica connection properties.
+   * @return The background pool.
+   */
+  @Bean
+  @ConfigurationProperties("url.background.datasource.hikari")
+  public HikariDataSource backgroundDataSource(
+      @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+    final var dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("replica-background");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  /**
+   * Provides the {@link DataSource} used by the repositories, which routes queries to the replica
+   * unless they run inside {@link ReplicaRoutingDataSource#onPrimary(java.util.function.Supplier)}
+   * or {@link ReplicaRoutingDataSource#onBackgroundPool(Runnable)}.
+   *
+   * @param replicaDataSource The replica pool.
+   * @param primaryDataSource The primary pool.
+   * @param backgroundDataSource The replica pool of the scheduled jobs.
+   * @return The routing {@link DataSource}.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      @Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("backgroundDataSource") DataSource backgroundDataSource) {
+    return new ReplicaRoutingDataSource(replicaDataSource, primaryDataSource, backgroundDataSource);
+  }
+}
@@ -1,10 +1,15 @@
 package com.example.urlshortenerreadservice.config;
 
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection.PipeliningFlushPolicy;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -13,29 +18,57 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @Configuration
 public class RedisConfig {
 
+  /**
+   * Sets how {@link LettuceConnectionFactory} writes pipelined commands, such as bulk cache writes
+   * and click flushes. By default every command of a pipeline is written to the socket on its own;
+   * buffering them writes {@code flushSize} commands at a time, and the rest when the pipeline
+   * closes. A size of {@code 0} keeps the default.
+   *
+   * @param flushSize The number of pipelined commands written to the socket together.
+   * @return A post-processor that applies the flush policy to the connection factory.
+   */
+  @Bean
+  public static BeanPostProcessor lettucePipeliningFlushPolicy(
+      @Value("${url.redis.pipelining.flush-size:0}") int flushSize) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof LettuceConnectionFactory connectionFactory && flushSize > 0) {
+          connectionFactory.setPipeliningFlushPolicy(PipeliningFlushPolicy.buffered(flushSize));
+        }
+        return bean;
+      }
+    };
+  }
+
   /**
    * Configures and provides a custom {@link RedisTemplate} bean.
    *
    * <p>This method sets up the connection factory and defines custom serializers to handle complex
    * objects, preventing common serialization errors. The key serializer is set to {@link
-   * StringRedisSerializer} for human-readable keys, while the value serializer uses {@link
-   * GenericJackson2JsonRedisSerializer} to convert Java objects to JSON format.
+   * StringRedisSerializer} for human-readable keys. Values go through a {@link UrlRedisSerializer},
+   * which writes cached URL entries in the configured format and everything else as JSON with
+   * {@link GenericJackson2JsonRedisSerializer}, and reads both formats.
    *
    * @param connectionFactory The Redis connection factory provided by Spring Boot's
    *     auto-configuration.
+   * @param urlFormat The format cached URL entries are written in.
    * @return A fully configured {@link RedisTemplate} instance.
    */
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+  public RedisTemplate<String, Object> redisTemplate(
+      RedisConnectionFactory connectionFactory,
+      @Value("${url.cache.redis.format:COMPACT}") UrlRedisSerializer.Format urlFormat) {
     final var template = new RedisTemplate<String, Object>();
     template.setConnectionFactory(connectionFactory);
 
     final var jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper());
+    final var valueSerializer = new UrlRedisSerializer(urlFormat, jsonSerializer);
 
     template.setKeySerializer(new StringRedisSerializer());
     template.setHashKeySerializer(new StringRedisSerializer());
 
-    template.setValueSerializer(jsonSerializer);
+    template.setValueSerializer(valueSerializer);
     template.setHashValueSerializer(jsonSerializer);
 
     template.afterPropertiesSet();
@@ -0,0 +1,73 @@
+package com.example.urlshortenerreadservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link DataSource} that sends every query to the streaming replica, except those issued inside
+ * {@link #onPrimary(Supplier)}, which go to the primary, and those issued inside {@link
+ * #onBackgroundPool(Runnable)}, which go to the replica through a separate pool. The route is kept
+ * per thread, so it applies to the queries of one lookup or one background job only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+  /** The pool a query is sent through. */
+  public enum Route {
+    /** The replica pool serving redirects. */
+    REPLICA,
+    /** The pool on the primary, for mappings the replica has not received yet. */
+    PRIMARY,
+    /** The replica pool of scheduled jobs, so their long reads never hold redirect connections. */
+    BACKGROUND
+  }
+
+  private static final ThreadLocal<Route> CURRENT_ROUTE =
+      ThreadLocal.withInitial(() -> Route.REPLICA);
+
+  public ReplicaRoutingDataSource(DataSource replica, DataSource primary, DataSource background) {
+    setTargetDataSources(
+        Map.of(Route.REPLICA, replica, Route.PRIMARY, primary, Route.BACKGROUND, background));
+    setDefaultTargetDataSource(replica);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Runs the given queries against the primary instead of the replica.
+   *
+   * @param queries The queries to run.
+   * @return The result of {@code queries}.
+   */
+  public static <T> T onPrimary(Supplier<T> queries) {
+    return on(Route.PRIMARY, queries);
+  }
+
+  /**
+   * Runs the given job with its replica queries sent through the background pool.
+   *
+   * @param job The job to run.
+   */
+  public static void onBackgroundPool(Runnable job) {
+    on(
+        Route.BACKGROUND,
+        () -> {
+          job.run();
+          return null;
+        });
+  }
+
+  private static <T> T on(Route route, Supplier<T> queries) {
+    final var previous = CURRENT_ROUTE.get();
+    CURRENT_ROUTE.set(route);
+    try {
+      return queries.get();
+    } finally {
+      CURRENT_ROUTE.set(previous);
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return CURRENT_ROUTE.get();
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.urlshortenerreadservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Configuration class for the schedulers of the read service's periodic jobs.
+ *
+ * <p>Spring Boot's default scheduler runs every fixed-delay job on one thread, so a snapshot
+ * rebuild paging through the whole table would hold back the click flushes and the known-id filter
+ * refreshes queued behind it. The jobs are split instead: {@code taskScheduler}, the default for
+ * {@code @Scheduled} methods, runs the short frequent ones, and {@code backgroundTaskScheduler}
+ * runs the long rebuilds that name it. Every job of either scheduler queries the replica through
+ * the background pool of {@link DataSourceConfig}, away from redirects. Like Spring Boot's own
+ * scheduler both run jobs on virtual threads when {@code spring.threads.virtual.enabled} is set,
+ * but the runs each starts at once are limited through {@code url.scheduling.*} rather than {@code
+ * spring.task.scheduling.*}. The beans are declared as {@link TaskScheduler}s only, so Spring Boot
+ * still auto-configures the {@code applicationTaskExecutor} that backs off whenever an {@code
+ * Executor} bean is declared.
+ */
+@Configuration
+public class SchedulingConfig {
+
+  /**
+   * Provides the scheduler of the short, frequent jobs, such as the click flush.
+   *
+   * @param virtualThreads Whether jobs run on virtual threads instead of platform threads.
+   * @param concurrencyLimit The most runs started by the scheduler that may be in progress at once.
+   * @return The default scheduler.
+   */
+  @Bean
+  public TaskScheduler taskScheduler(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${url.scheduling.pool-size:2}") int concurrencyLimit) {
+    return scheduler("scheduling-", virtualThreads, concurrencyLimit);
+  }
+
+  /**
+   * Provides the scheduler of the long rebuilds, such as the snapshot refresh.
+   *
+   * @param virtualThreads Whether jobs run on virtual threads instead of platform threads.
+   * @param concurrencyLimit The most runs started by the scheduler that may be in progress at once.
+   * @return The background scheduler.
+   */
+  @Bean
+  public TaskScheduler backgroundTaskScheduler(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${url.scheduling.background.pool-size:2}") int concurrencyLimit) {
+    return scheduler("background-scheduling-", virtualThreads, concurrencyLimit);
+  }
+
+  private static SimpleAsyncTaskScheduler scheduler(
+      String threadNamePrefix, boolean virtualThreads, int concurrencyLimit) {
+    final var scheduler = new BackgroundTaskScheduler();
+    scheduler.setThreadNamePrefix(threadNamePrefix);
+    scheduler.setVirtualThreads(virtualThreads);
+    scheduler.setConcurrencyLimit(concurrencyLimit);
+    scheduler.setTaskDecorator(BackgroundTaskScheduler::onBackgroundPool);
+    return scheduler;
+  }
+
+  /**
+   * Sends the queries of every job through the background pool. Fixed-delay jobs run on the
+   * scheduler thread itself and skip the task decorator, so they are routed here as well.
+   */
+  private static final class BackgroundTaskScheduler extends SimpleAsyncTaskScheduler {
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        Runnable task, Instant startTime, Duration delay) {
+      return super.scheduleWithFixedDelay(onBackgroundPool(task), startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+      return super.scheduleWithFixedDelay(onBackgroundPool(task), delay);
+    }
+
+    private static Runnable onBackgroundPool(Runnable job) {
+      return () -> ReplicaRoutingDataSource.onBackgroundPool(job);
+    }
+  }
+}
@@ -1,45 +1,91 @@
 package com.example.urlshortenerreadservice.contrloller;
 
-import com.example.urlshortenerreadservice.exceptions.UrlNotFoundException;
+import com.example.urlshortenerreadservice.models.ClickCount;
+import com.example.urlshortenerreadservice.models.ResolveItemResult;
+import com.example.urlshortenerreadservice.service.ClickCounter;
 import com.example.urlshortenerreadservice.service.URLService;
-import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
-import java.io.IOException;
+import java.util.List;
 
-/** REST Controller for handling URL redirection and retrieval of URL details. */
+/**
+ * REST Controller for handling URL redirection and retrieval of URL details on the servlet stack.
+ * When built with the {@code reactive} Maven profile, {@code ReactiveURLController} serves the same
+ * endpoints instead.
+ */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class URLController {
 
   private final URLService urlService;
+  private final ClickCounter clickCounter;
 
-  public URLController(URLService urlService) {
+  public URLController(URLService urlService, ClickCounter clickCounter) {
     this.urlService = urlService;
+    this.clickCounter = clickCounter;
   }
 
   /**
    * Handles redirection for a given short URL code. If the short URL is found and not expired, it
-   * redirects to the original URL. Otherwise, it returns a 404 Not Found error.
+   * redirects to the original URL and records the click. Otherwise, it returns 404 Not Found, or
+   * 410 Gone if the mapping has expired, with an empty body. Misses are answered here rather than
+   * through an exception and the {@code /error} dispatch, which would cost several times more.
    *
    * @param shortCode The short code to redirect from.
-   * @param response The HttpServletResponse to perform the redirection.
+   * @return A {@link ResponseEntity} with status 302 and the original URL as {@code Location}, or
+   *     with status 404 or 410.
    */
   @GetMapping("/{shortCode}")
-  public void redirectToOriginalUrl(@PathVariable String shortCode, HttpServletResponse response)
-      throws IOException {
-    try {
-      final var url = urlService.getOriginalUrl(shortCode);
-
-      if (url.isEmpty()) {
-        throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+  public ResponseEntity<Void> redirectToOriginalUrl(@PathVariable String shortCode) {
+    final var resolution = urlService.resolve(shortCode);
+    return switch (resolution.getStatus()) {
+      case FOUND -> {
+        clickCounter.record(shortCode);
+        yield ResponseEntity.status(HttpStatus.FOUND)
+            .header(HttpHeaders.LOCATION, resolution.getUrl().getOriginalUrl())
+            .build();
       }
+      case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+      case EXPIRED -> ResponseEntity.status(HttpStatus.GONE).build();
+    };
+  }
+
+  /**
+   * Returns the number of times a short URL has been followed.
+   *
+   * @param shortCode The short code to return the click count of.
+   * @return A {@link ResponseEntity} with the {@link ClickCount} of the short code.
+   */
+  @GetMapping("/api/v1/urls/{shortCode}/clicks")
+  public ResponseEntity<ClickCount> getClicks(@PathVariable String shortCode) {
+    return ResponseEntity.ok(new ClickCount(shortCode, clickCounter.getClicks(shortCode)));
+  }
+
+  /**
+   * Resolves many short codes in one request, for clients such as link previews and crawlers that
+   * need the original URLs without following redirects. Clicks are not recorded.
+   *
+   * @param shortCodes The short codes to resolve, as a JSON array.
+   * @return A {@link ResponseEntity} containing one {@link ResolveItemResult} per short code, in
+   *     input order.
+   */
+  @PostMapping(value = "/api/v1/resolve", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<ResolveItemResult>> resolveAll(@RequestBody List<String> shortCodes) {
+    return ResponseEntity.ok(ResolveItemResult.of(shortCodes, urlService.resolveAll(shortCodes)));
+  }
 
-      response.sendRedirect(url.get().getOriginalUrl());
-    } catch (UrlNotFoundException e) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
-    }
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ProblemDetail handleIllegalArgumentException(IllegalArgumentException ex) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 }
@@ -0,0 +1,19 @@
+package com.example.urlshortenerreadservice.models;
+
+public class ClickCount {
+    private final String shortUrlCode;
+    private final long clicks;
+
+    public ClickCount(String shortUrlCode, long clicks) {
+        this.shortUrlCode = shortUrlCode;
+        this.clicks = clicks;
+    }
+
+    public String getShortUrlCode() {
+        return shortUrlCode;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+}
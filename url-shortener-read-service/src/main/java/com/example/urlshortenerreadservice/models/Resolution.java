@@ -0,0 +1,54 @@
+package com.example.urlshortenerreadservice.models;
+
+/**
+ * Outcome of resolving a short code: the {@link ResolvedUrl} it maps to, or why there is none.
+ * Misses are ordinary results rather than exceptions, since enumeration traffic makes them as
+ * common as hits; both kinds of miss are shared instances.
+ */
+public final class Resolution {
+    private static final Resolution NOT_FOUND = new Resolution(Status.NOT_FOUND, null);
+    private static final Resolution EXPIRED = new Resolution(Status.EXPIRED, null);
+
+    private final Status status;
+    private final ResolvedUrl url;
+
+    /** Whether a short code resolved, and if not, why. */
+    public enum Status {
+        /** The code maps to a URL that has not expired. */
+        FOUND,
+        /** No mapping exists for the code. */
+        NOT_FOUND,
+        /** The code maps to a URL that has expired. */
+        EXPIRED
+    }
+
+    private Resolution(Status status, ResolvedUrl url) {
+        this.status = status;
+        this.url = url;
+    }
+
+    public static Resolution found(ResolvedUrl url) {
+        return new Resolution(Status.FOUND, url);
+    }
+
+    public static Resolution notFound() {
+        return NOT_FOUND;
+    }
+
+    public static Resolution expired() {
+        return EXPIRED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /** Returns the {@link ResolvedUrl}, or {@code null} unless the status is {@code FOUND}. */
+    public ResolvedUrl getUrl() {
+        return url;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.urlshortenerreadservice.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of one short code of a bulk resolve request, without following the redirect. */
+public class ResolveItemResult {
+    private final String shortUrlCode;
+    private final Resolution.Status status;
+    private final String originalUrl;
+
+    private ResolveItemResult(String shortUrlCode, Resolution.Status status, String originalUrl) {
+        this.shortUrlCode = shortUrlCode;
+        this.status = status;
+        this.originalUrl = originalUrl;
+    }
+
+    public static ResolveItemResult of(String shortUrlCode, Resolution resolution) {
+        return new ResolveItemResult(
+                shortUrlCode,
+                resolution.getStatus(),
+                resolution.isFound() ? resolution.getUrl().getOriginalUrl() : null);
+    }
+
+    /** Pairs each short code with its {@link Resolution}, both lists being in the same order. */
+    public static List<ResolveItemResult> of(
+            List<String> shortUrlCodes, List<Resolution> resolutions) {
+        final var results = new ArrayList<ResolveItemResult>(shortUrlCodes.size());
+        for (var i = 0; i < shortUrlCodes.size(); i++) {
+            results.add(of(shortUrlCodes.get(i), resolutions.get(i)));
+        }
+        return results;
+    }
+
+    public String getShortUrlCode() {
+        return shortUrlCode;
+    }
+
+    public Resolution.Status getStatus() {
+        return status;
+    }
+
+    /** Returns the original URL, or {@code null} unless the status is {@code FOUND}. */
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+}
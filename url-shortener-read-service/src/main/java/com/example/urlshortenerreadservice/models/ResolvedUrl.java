@@ -0,0 +1,45 @@
+package com.example.urlshortenerreadservice.models;
+
+/**
+ * What the redirect path needs of a mapping: the original URL and when it expires, in epoch
+ * milliseconds. Unlike {@link URL}, it holds no date-time objects and cannot be changed, so one
+ * instance can be shared by all caches and requests.
+ */
+public final class ResolvedUrl {
+    /** Expiration time of mappings that do not expire. */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final long id;
+    private final String originalUrl;
+    private final long expiresAtMillis;
+
+    public ResolvedUrl(long id, String originalUrl, long expiresAtMillis) {
+        this.id = id;
+        this.originalUrl = originalUrl;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public static ResolvedUrl of(URL url) {
+        final var expiresAt = url.getExpiresAt();
+        return new ResolvedUrl(
+                url.getId(),
+                url.getOriginalUrl(),
+                expiresAt == null ? NO_EXPIRY : expiresAt.toInstant().toEpochMilli());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.urlshortenerreadservice.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Stores click counts per short code in a single Redis hash. The read service only has read
+ * access to the database replica, so Redis serves as its writable store.
+ */
+@Repository
+public class ClickCountRepository {
+  private final RedisTemplate<String, Object> redisTemplate;
+  private final byte[] hashKey;
+
+  public ClickCountRepository(
+      RedisTemplate<String, Object> redisTemplate,
+      @Value("${url.clicks.redis-key:url:clicks}") String hashKey) {
+    this.redisTemplate = redisTemplate;
+    this.hashKey = hashKey.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Adds the given deltas to the stored counts with one pipelined {@code HINCRBY} per short code,
+   * so a whole batch costs a single round trip.
+   *
+   * @param deltas The number of clicks to add, by short code.
+   */
+  public void incrementAll(Map<String, Long> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    redisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              for (final var delta : deltas.entrySet()) {
+                connection
+                    .hashCommands()
+                    .hIncrBy(hashKey, field(delta.getKey()), delta.getValue());
+              }
+              return null;
+            });
+  }
+
+  /**
+   * Returns the stored click count of a short code.
+   *
+   * @param shortCode The short code to look up.
+   * @return The number of flushed clicks, {@code 0} if none were recorded.
+   */
+  public long findClicks(String shortCode) {
+    final var value =
+        redisTemplate.execute(
+            (RedisCallback<byte[]>)
+                connection -> connection.hashCommands().hGet(hashKey, field(shortCode)));
+    return value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+  }
+
+  private static byte[] field(String shortCode) {
+    return shortCode.getBytes(StandardCharsets.UTF_8);
+  }
+}
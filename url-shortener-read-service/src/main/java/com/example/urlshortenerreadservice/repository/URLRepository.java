@@ -1,9 +1,33 @@
 package com.example.urlshortenerreadservice.repository;
 
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
 import com.example.urlshortenerreadservice.models.URL;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface URLRepository {
-    Optional<URL> findByShortCode(String shortCode);
+    Optional<ResolvedUrl> findByShortCode(String shortCode);
+
+    Optional<ResolvedUrl> findById(long id);
+
+    List<ResolvedUrl> findByIds(long[] ids);
+
+    Map<String, ResolvedUrl> findByShortCodes(List<String> shortCodes);
+
+    List<Long> findIdsAfter(long afterId, int limit);
+
+    List<Long> findIdsExpiringFrom(OffsetDateTime from);
+
+    Optional<OffsetDateTime> findLatestExpiresAt();
+
+    long findMaxId();
+
+    List<URL> findActiveAfter(long afterId, OffsetDateTime now, int limit);
+
+    List<URL> findExpiringFromAfter(OffsetDateTime from, long afterId, int limit);
+
+    List<Long> findIdsDeletedFrom(OffsetDateTime from);
 }
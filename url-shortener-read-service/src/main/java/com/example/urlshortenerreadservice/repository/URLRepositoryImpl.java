@@ -1,18 +1,31 @@
 package com.example.urlshortenerreadservice.repository;
 
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
 import com.example.urlshortenerreadservice.models.URL;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /** Managing URL data in the database */
 @Repository
 public class URLRepositoryImpl implements URLRepository {
+  /**
+   * Selects what the redirect path needs, with the expiration time computed as epoch milliseconds
+   * by the database, so no date-time objects are created per row.
+   */
+  private static final String RESOLVED_COLUMNS =
+      "id, original_url, FLOOR(EXTRACT(EPOCH FROM expires_at) * 1000) AS expires_at_millis";
+
+  private static final String SELECT_RESOLVED = "SELECT " + RESOLVED_COLUMNS + " FROM urls";
 
   private final JdbcTemplate jdbcTemplate;
 
@@ -21,21 +34,185 @@ public class URLRepositoryImpl implements URLRepository {
   }
 
   /**
-   * Retrieves a {@link URL} object from the database based on its short URL code. This method
-   * queries the 'urls' table and maps the result to a {@link URL} object.
+   * Retrieves a {@link ResolvedUrl} from the database based on its short URL code. This method
+   * queries the 'urls' table and maps the result to a {@link ResolvedUrl} object.
    *
    * @param shortCode The short URL code to search for.
-   * @return An {@link Optional} containing the {@link URL} object if found, or an empty {@link
+   * @return An {@link Optional} containing the {@link ResolvedUrl} if found, or an empty {@link
    *     Optional} if no URL matches the given short code.
    */
   @Override
-  public Optional<URL> findByShortCode(String shortCode) {
-    final var sql =
-        "SELECT id, original_url, short_url_code, created_at, expires_at FROM urls WHERE short_url_code = ?";
-    final var result = jdbcTemplate.query(sql, rowMapper, shortCode);
+  public Optional<ResolvedUrl> findByShortCode(String shortCode) {
+    final var sql = SELECT_RESOLVED + " WHERE short_url_code = ?";
+    final var result = jdbcTemplate.query(sql, resolvedRowMapper, shortCode);
+    return result.stream().findFirst();
+  }
+
+  /**
+   * Retrieves a {@link ResolvedUrl} from the database based on its primary key. Generated short
+   * codes are decoded back into the ID they were derived from, so this lookup goes through the
+   * primary key index instead of the index on {@code short_url_code}.
+   *
+   * @param id The ID of the URL to retrieve.
+   * @return An {@link Optional} containing the {@link ResolvedUrl} if found, or an empty {@link
+   *     Optional} if no URL has the given ID.
+   */
+  @Override
+  public Optional<ResolvedUrl> findById(long id) {
+    final var sql = SELECT_RESOLVED + " WHERE id = ?";
+    final var result = jdbcTemplate.query(sql, resolvedRowMapper, id);
     return result.stream().findFirst();
   }
 
+  /**
+   * Retrieves the {@link ResolvedUrl} of each of the given IDs that exists, in one query through
+   * the primary key index.
+   *
+   * @param ids The IDs of the URLs to retrieve.
+   * @return The {@link ResolvedUrl} of each existing ID, in no particular order.
+   */
+  @Override
+  public List<ResolvedUrl> findByIds(long[] ids) {
+    final var sql = SELECT_RESOLVED + " WHERE id = ANY(?)";
+    final var boxed = new Long[ids.length];
+    for (var i = 0; i < ids.length; i++) {
+      boxed[i] = ids[i];
+    }
+    return jdbcTemplate.query(
+        sql,
+        ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", boxed)),
+        resolvedRowMapper);
+  }
+
+  /**
+   * Retrieves the {@link ResolvedUrl} of each of the given short URL codes that exists, in one
+   * query.
+   *
+   * @param shortCodes The short URL codes to search for.
+   * @return The {@link ResolvedUrl} of each existing code, keyed by the code.
+   */
+  @Override
+  public Map<String, ResolvedUrl> findByShortCodes(List<String> shortCodes) {
+    final var sql =
+        "SELECT short_url_code, " + RESOLVED_COLUMNS + " FROM urls WHERE short_url_code = ANY(?)";
+    final var urls = new HashMap<String, ResolvedUrl>();
+    jdbcTemplate.query(
+        sql,
+        ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", shortCodes.toArray())),
+        (RowCallbackHandler)
+            rs -> urls.put(rs.getString("short_url_code"), resolvedRowMapper.mapRow(rs, 0)));
+    return urls;
+  }
+
+  /**
+   * Retrieves one page of IDs in ascending order, for scanning all mappings by primary key without
+   * an offset.
+   *
+   * @param afterId The last ID of the previous page, or {@code -1} for the first page.
+   * @param limit The maximum number of IDs to return.
+   * @return The IDs greater than {@code afterId}, in ascending order.
+   */
+  @Override
+  public List<Long> findIdsAfter(long afterId, int limit) {
+    final var sql = "SELECT id FROM urls WHERE id > ? ORDER BY id LIMIT ?";
+    return jdbcTemplate.queryForList(sql, Long.class, afterId, limit);
+  }
+
+  /**
+   * Retrieves the IDs of all mappings expiring at or after the given time. Every mapping expires a
+   * fixed time after it was created, so this returns the mappings created since a point in time
+   * through the index on {@code expires_at}.
+   *
+   * @param from The earliest expiration time to include.
+   * @return The matching IDs, in no particular order.
+   */
+  @Override
+  public List<Long> findIdsExpiringFrom(OffsetDateTime from) {
+    final var sql = "SELECT id FROM urls WHERE expires_at >= ?";
+    return jdbcTemplate.queryForList(sql, Long.class, from);
+  }
+
+  /**
+   * Retrieves the latest expiration time of all mappings.
+   *
+   * @return An {@link Optional} containing the latest expiration time, or an empty {@link
+   *     Optional} if there are no mappings with an expiration time.
+   */
+  @Override
+  public Optional<OffsetDateTime> findLatestExpiresAt() {
+    final var sql = "SELECT MAX(expires_at) FROM urls";
+    return Optional.ofNullable(jdbcTemplate.queryForObject(sql, OffsetDateTime.class));
+  }
+
+  /**
+   * Retrieves the highest ID of all mappings.
+   *
+   * @return The highest ID, or {@code 0} if there are no mappings.
+   */
+  @Override
+  public long findMaxId() {
+    final var sql = "SELECT COALESCE(MAX(id), 0) FROM urls";
+    return jdbcTemplate.queryForObject(sql, Long.class);
+  }
+
+  /**
+   * Retrieves one page of mappings that have not expired, in ascending ID order, for copying all
+   * of them by primary key without an offset.
+   *
+   * @param afterId The last ID of the previous page, or {@code -1} for the first page.
+   * @param now The time at which mappings count as expired.
+   * @param limit The maximum number of mappings to return.
+   * @return The mappings with an ID greater than {@code afterId}, in ascending ID order.
+   */
+  @Override
+  public List<URL> findActiveAfter(long afterId, OffsetDateTime now, int limit) {
+    final var sql =
+        "SELECT id, original_url, short_url_code, created_at, expires_at FROM urls"
+            + " WHERE id > ? AND (expires_at IS NULL OR expires_at > ?) ORDER BY id LIMIT ?";
+    return jdbcTemplate.query(sql, rowMapper, afterId, now, limit);
+  }
+
+  /**
+   * Retrieves one page of the mappings expiring at or after the given time, in ascending ID order.
+   * Like {@link #findIdsExpiringFrom(OffsetDateTime)}, this returns the mappings created since a
+   * point in time.
+   *
+   * @param from The earliest expiration time to include.
+   * @param afterId The last ID of the previous page, or {@code -1} for the first page.
+   * @param limit The maximum number of mappings to return.
+   * @return The matching mappings with an ID greater than {@code afterId}, in ascending ID order.
+   */
+  @Override
+  public List<URL> findExpiringFromAfter(OffsetDateTime from, long afterId, int limit) {
+    final var sql =
+        "SELECT id, original_url, short_url_code, created_at, expires_at FROM urls"
+            + " WHERE expires_at >= ? AND id > ? ORDER BY id LIMIT ?";
+    return jdbcTemplate.query(sql, rowMapper, from, afterId, limit);
+  }
+
+  /**
+   * Retrieves the IDs of the mappings the write service deleted at or after the given time before
+   * they expired, from the tombstones it leaves in {@code url_tombstones}.
+   *
+   * @param from The earliest deletion time to include.
+   * @return The matching IDs, in no particular order.
+   */
+  @Override
+  public List<Long> findIdsDeletedFrom(OffsetDateTime from) {
+    final var sql = "SELECT id FROM url_tombstones WHERE deleted_at >= ?";
+    return jdbcTemplate.queryForList(sql, Long.class, from);
+  }
+
+  private final RowMapper<ResolvedUrl> resolvedRowMapper =
+      (rs, rowNum) -> {
+        final var expiresAtMillis = rs.getLong("expires_at_millis");
+        final var expires = !rs.wasNull();
+        return new ResolvedUrl(
+            rs.getLong("id"),
+            rs.getString("original_url"),
+            expires ? expiresAtMillis : ResolvedUrl.NO_EXPIRY);
+      };
+
   private final RowMapper<URL> rowMapper =
       new RowMapper<URL>() {
         @Override
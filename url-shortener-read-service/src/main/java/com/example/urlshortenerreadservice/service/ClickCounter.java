@@ -0,0 +1,161 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenerreadservice.repository.ClickCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts redirects per short code without ever blocking a redirect on I/O.
+ *
+ * <p>Clicks are added to a {@link LongAdder} per code, which spreads concurrent increments over
+ * striped cells instead of contending on one value. Every {@code url.clicks.flush-interval} the
+ * accumulated deltas are drained and written to Redis by {@link ClickCountRepository} in one
+ * pipelined batch, and once more when the service shuts down. A failed flush puts its deltas back,
+ * so a Redis outage delays counts rather than losing them.
+ *
+ * <p>Loss is bounded: a crash loses at most the clicks of one flush interval, and at most {@code
+ * url.clicks.max-pending-codes} distinct codes are buffered; clicks on further codes are dropped
+ * and counted as {@code url.clicks.dropped} until the next flush.
+ */
+@Service
+public class ClickCounter implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(ClickCounter.class);
+  /**
+   * Stops after the web server, which stops in a phase just below {@link
+   * SmartLifecycle#DEFAULT_PHASE}, and before the Redis connection factory, which stops in phase 0.
+   */
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE / 2;
+
+  private final ClickCountRepository clickCountRepository;
+  private final int maxPendingCodes;
+  private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final Counter flushedCounter;
+  private final Counter droppedCounter;
+  private final Counter flushFailureCounter;
+  private volatile boolean running;
+
+  public ClickCounter(
+      ClickCountRepository clickCountRepository,
+      @Value("${url.clicks.max-pending-codes:100000}") int maxPendingCodes,
+      MeterRegistry meterRegistry) {
+    this.clickCountRepository = clickCountRepository;
+    this.maxPendingCodes = maxPendingCodes;
+    this.flushedCounter = meterRegistry.counter("url.clicks.flushed");
+    this.droppedCounter = meterRegistry.counter("url.clicks.dropped");
+    this.flushFailureCounter = meterRegistry.counter("url.clicks.flush.failures");
+    meterRegistry.gaugeMapSize("url.clicks.pending.codes", Tags.empty(), pending);
+  }
+
+  /**
+   * Records one click on a short code. Only touches memory.
+   *
+   * @param shortCode The short code that was followed.
+   */
+  public void record(String shortCode) {
+    add(shortCode, 1);
+  }
+
+  /**
+   * Returns the number of clicks on a short code, including the ones not flushed yet.
+   *
+   * @param shortCode The short code to look up.
+   * @return The total number of recorded clicks.
+   */
+  public long getClicks(String shortCode) {
+    final var adder = pending.get(shortCode);
+    return clickCountRepository.findClicks(shortCode) + (adder == null ? 0 : adder.sum());
+  }
+
+  /** Writes the clicks accumulated since the last flush to Redis. */
+  @Scheduled(fixedDelayString = "${url.clicks.flush-interval:1000}")
+  public void flush() {
+    if (!flushLock.tryLock()) {
+      return;
+    }
+    try {
+      final var deltas = drain();
+      if (deltas.isEmpty()) {
+        return;
+      }
+      try {
+        clickCountRepository.incrementAll(deltas);
+        flushedCounter.increment(deltas.values().stream().mapToLong(Long::longValue).sum());
+      } catch (RuntimeException e) {
+        flushFailureCounter.increment();
+        log.warn("Failed to flush clicks of {} short codes, keeping them", deltas.size(), e);
+        deltas.forEach(this::add);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  /** Flushes the clicks recorded since the last flush, while Redis is still connected. */
+  @Override
+  public void stop() {
+    flush();
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  /**
+   * Takes the accumulated deltas out of the buffer. Counters that saw no clicks since the previous
+   * drain are removed, so codes that are no longer followed do not stay in memory. The counter is
+   * read once more after its removal; only a click that lands on it after that second read is lost.
+   *
+   * @return The number of clicks per short code since the previous drain.
+   */
+  Map<String, Long> drain() {
+    final var deltas = new HashMap<String, Long>();
+    for (final var entry : pending.entrySet()) {
+      final var adder = entry.getValue();
+      var delta = adder.sumThenReset();
+      if (delta == 0 && pending.remove(entry.getKey(), adder)) {
+        delta = adder.sumThenReset();
+      }
+      if (delta > 0) {
+        deltas.put(entry.getKey(), delta);
+      }
+    }
+    return deltas;
+  }
+
+  private void add(String shortCode, long clicks) {
+    var adder = pending.get(shortCode);
+    if (adder == null) {
+      if (pending.size() >= maxPendingCodes) {
+        droppedCounter.increment(clicks);
+        return;
+      }
+      adder = pending.computeIfAbsent(shortCode, code -> new LongAdder());
+    }
+    adder.add(clicks);
+  }
+}
@@ -0,0 +1,163 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.cache.BloomFilter;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a {@link BloomFilter} of the IDs that exist on the replica, so lookups of generated short
+ * codes whose ID certainly does not exist can be rejected without querying the database.
+ *
+ * <p>The filter is rebuilt from scratch every {@code url.negative-cache.bloom.rebuild-interval} by
+ * paging through the primary key, which also drops purged IDs. In between, mappings created since
+ * the last refresh are added every {@code url.negative-cache.bloom.refresh-interval}. Since every
+ * mapping expires a fixed time after it was created, new mappings are found through the index on
+ * {@code expires_at}, with an overlap that covers clock skew between write instances. IDs cannot be
+ * tracked by their value instead, because write instances lease blocks of IDs and fill them at
+ * different speeds. When a new ID is added, a cached not-found marker for its code is dropped.
+ *
+ * <p>A mapping is therefore unknown to the filter only while it is younger than the refresh
+ * interval plus the replication lag, the same window in which the replica itself does not know it
+ * yet; in that window it is normally served from Redis, where the write service publishes it.
+ * Until the first build has finished nothing is rejected.
+ */
+@Component
+public class KnownIdFilter {
+  private static final Logger log = LoggerFactory.getLogger(KnownIdFilter.class);
+  private static final OffsetDateTime EPOCH =
+      OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+  private final URLRepositoryImpl urlRepository;
+  private final ShortCodeCodec shortCodeCodec;
+  private final NegativeLookupCache negativeLookupCache;
+  private final boolean enabled;
+  private final long expectedIds;
+  private final double falsePositiveProbability;
+  private final int pageSize;
+  private final Duration refreshOverlap;
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private final AtomicLong idCount = new AtomicLong();
+  private final Counter rejectionCounter;
+  private volatile BloomFilter filter;
+  private volatile OffsetDateTime watermark = EPOCH;
+
+  public KnownIdFilter(
+      URLRepositoryImpl urlRepository,
+      ShortCodeCodec shortCodeCodec,
+      NegativeLookupCache negativeLookupCache,
+      @Value("${url.negative-cache.bloom.enabled:true}") boolean enabled,
+      @Value("${url.resolution.mode:ID}") URLService.ResolutionMode resolutionMode,
+      @Value("${url.negative-cache.bloom.expected-ids:10000000}") long expectedIds,
+      @Value("${url.negative-cache.bloom.false-positive-probability:0.01}")
+          double falsePositiveProbability,
+      @Value("${url.negative-cache.bloom.page-size:10000}") int pageSize,
+      @Value("${url.negative-cache.bloom.refresh-overlap:5s}") Duration refreshOverlap,
+      MeterRegistry meterRegistry) {
+    this.urlRepository = urlRepository;
+    this.shortCodeCodec = shortCodeCodec;
+    this.negativeLookupCache = negativeLookupCache;
+    this.enabled = enabled && resolutionMode == URLService.ResolutionMode.ID;
+    this.expectedIds = expectedIds;
+    this.falsePositiveProbability = falsePositiveProbability;
+    this.pageSize = pageSize;
+    this.refreshOverlap = refreshOverlap;
+    this.rejectionCounter = meterRegistry.counter("url.negative.bloom.rejections");
+    Gauge.builder("url.negative.bloom.ids", idCount, AtomicLong::get).register(meterRegistry);
+  }
+
+  /**
+   * Tells whether the given ID certainly does not exist on the replica.
+   *
+   * @param id The ID decoded from a short code.
+   * @return {@code true} if the ID is certainly unknown; {@code false} if it may exist or the
+   *     filter has not been built yet.
+   */
+  public boolean isKnownAbsent(long id) {
+    final var current = filter;
+    if (current == null || current.mightContain(id)) {
+      return false;
+    }
+    rejectionCounter.increment();
+    return true;
+  }
+
+  /** Rebuilds the filter from all IDs on the replica. */
+  @Scheduled(
+      initialDelay = 0,
+      fixedDelayString = "${url.negative-cache.bloom.rebuild-interval:21600000}",
+      scheduler = "backgroundTaskScheduler")
+  public void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    updateLock.lock();
+    try {
+      final var latestExpiresAt = urlRepository.findLatestExpiresAt().orElse(EPOCH);
+      final var next =
+          BloomFilter.create(
+              Math.max(expectedIds, idCount.get() + idCount.get() / 4), falsePositiveProbability);
+
+      var count = 0L;
+      var afterId = -1L;
+      while (true) {
+        final var ids = urlRepository.findIdsAfter(afterId, pageSize);
+        ids.forEach(next::add);
+        count += ids.size();
+        if (ids.size() < pageSize) {
+          break;
+        }
+        afterId = ids.getLast();
+      }
+
+      filter = next;
+      watermark = latestExpiresAt;
+      idCount.set(count);
+      log.info("Rebuilt known-id filter with {} ids ({} bytes)", count, next.sizeInBytes());
+    } catch (RuntimeException e) {
+      log.warn("Failed to rebuild known-id filter, keeping the previous one", e);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /** Adds the IDs of mappings created since the previous refresh. */
+  @Scheduled(fixedDelayString = "${url.negative-cache.bloom.refresh-interval:2000}")
+  public void refresh() {
+    final var current = filter;
+    if (!enabled || current == null || !updateLock.tryLock()) {
+      return;
+    }
+    try {
+      final var latestExpiresAt = urlRepository.findLatestExpiresAt().orElse(EPOCH);
+      for (final var id : urlRepository.findIdsExpiringFrom(watermark.minus(refreshOverlap))) {
+        if (!current.mightContain(id)) {
+          current.add(id);
+          idCount.incrementAndGet();
+          negativeLookupCache.invalidate(shortCodeCodec.encode(id));
+        }
+      }
+      if (latestExpiresAt.isAfter(watermark)) {
+        watermark = latestExpiresAt;
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to refresh known-id filter", e);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+}
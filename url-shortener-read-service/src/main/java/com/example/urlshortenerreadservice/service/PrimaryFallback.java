@@ -0,0 +1,169 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenerreadservice.config.ReplicaRoutingDataSource;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Looks up mappings on the primary when the replica does not have them yet, so a generated short
+ * code resolved right after it was created does not end in a false 404.
+ *
+ * <p>Only IDs that may be fresh are retried: those above the highest ID on the replica minus {@code
+ * url.primary-fallback.recent-id-window}. The window is needed because write instances lease blocks
+ * of IDs and fill them at different speeds, so a fresh ID can be lower than IDs the replica already
+ * has; it should span a few blocks per write instance. Lookups of old or invented IDs therefore
+ * never reach the primary. Fallbacks are limited to {@code url.primary-fallback.max-per-second},
+ * with bursts of up to one second's worth, and run on their own small pool, so a flood of unknown
+ * codes cannot load the primary.
+ *
+ * <p>Outcomes are counted in {@code url.primary.fallback} with a {@code result} tag of {@code
+ * found}, {@code missing} or {@code throttled}, and the queries on the primary are observed as
+ * {@code url.database.queries} with a {@code database} tag of {@code primary}.
+ */
+@Component
+public class PrimaryFallback {
+  private static final Logger log = LoggerFactory.getLogger(PrimaryFallback.class);
+  private static final long BURST_NANOS = 1_000_000_000L;
+
+  private final URLRepositoryImpl urlRepository;
+  private final boolean enabled;
+  private final long recentIdWindow;
+  private final long intervalNanos;
+  private final AtomicLong theoreticalArrival;
+  private final Counter foundCounter;
+  private final Counter missingCounter;
+  private final Counter throttledCounter;
+  private final ObservationRegistry observationRegistry;
+  private volatile long replicaMaxId = -1;
+
+  public PrimaryFallback(
+      URLRepositoryImpl urlRepository,
+      @Value("${url.primary-fallback.enabled:true}") boolean enabled,
+      @Value("${url.primary-fallback.recent-id-window:100000}") long recentIdWindow,
+      @Value("${url.primary-fallback.max-per-second:50}") int maxPerSecond,
+      MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry) {
+    if (maxPerSecond <= 0) {
+      throw new IllegalArgumentException("Primary fallbacks per second must be positive");
+    }
+    this.urlRepository = urlRepository;
+    this.enabled = enabled;
+    this.recentIdWindow = recentIdWindow;
+    this.intervalNanos = BURST_NANOS / maxPerSecond;
+    this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    this.foundCounter = meterRegistry.counter("url.primary.fallback", "result", "found");
+    this.missingCounter = meterRegistry.counter("url.primary.fallback", "result", "missing");
+    this.throttledCounter = meterRegistry.counter("url.primary.fallback", "result", "throttled");
+    this.observationRegistry = observationRegistry;
+  }
+
+  /**
+   * Tells whether the given ID may belong to a mapping the replica has not received yet. Until the
+   * highest ID on the replica is known, every ID may.
+   *
+   * @param id The ID decoded from a short code.
+   * @return {@code true} if a miss on the replica may be retried on the primary.
+   */
+  public boolean isRecent(long id) {
+    final var maxId = replicaMaxId;
+    return enabled && (maxId < 0 || id > maxId - recentIdWindow);
+  }
+
+  /**
+   * Looks the given ID up on the primary, if it may be fresh and the rate limit allows it.
+   *
+   * @param id The ID that was not found on the replica.
+   * @return An {@link Optional} containing the {@link ResolvedUrl} found on the primary, or an
+   *     empty {@link Optional} if it was not found or not looked up.
+   */
+  public Optional<ResolvedUrl> findById(long id) {
+    if (!isRecent(id)) {
+      return Optional.empty();
+    }
+    if (!tryAcquire()) {
+      throttledCounter.increment();
+      return Optional.empty();
+    }
+    final var url = queryPrimary("id", () -> urlRepository.findById(id));
+    (url.isPresent() ? foundCounter : missingCounter).increment();
+    return url;
+  }
+
+  /**
+   * Looks those of the given IDs up on the primary that may be fresh, in one query that takes a
+   * single permit from the rate limit. Outcomes are counted per ID.
+   *
+   * @param ids The IDs that were not found on the replica.
+   * @return The {@link ResolvedUrl} of each ID found on the primary, in no particular order, or an
+   *     empty list if none was found or looked up.
+   */
+  public List<ResolvedUrl> findByIds(long[] ids) {
+    final var recentIds = Arrays.stream(ids).filter(this::isRecent).toArray();
+    if (recentIds.length == 0) {
+      return List.of();
+    }
+    if (!tryAcquire()) {
+      throttledCounter.increment(recentIds.length);
+      return List.of();
+    }
+    final var urls = queryPrimary("ids", () -> urlRepository.findByIds(recentIds));
+    foundCounter.increment(urls.size());
+    missingCounter.increment(recentIds.length - urls.size());
+    return urls;
+  }
+
+  /** Refreshes the highest ID on the replica, which bounds the IDs that may be fresh. */
+  @Scheduled(fixedDelayString = "${url.primary-fallback.max-id-refresh-interval:1000}")
+  public void refreshReplicaMaxId() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      replicaMaxId = urlRepository.findMaxId();
+    } catch (DataAccessException e) {
+      log.warn("Failed to read the highest ID on the replica", e);
+    }
+  }
+
+  private <T> T queryPrimary(String lookup, Supplier<T> query) {
+    return Observation.createNotStarted("url.database.queries", observationRegistry)
+        .contextualName("primary")
+        .lowCardinalityKeyValue("database", "primary")
+        .lowCardinalityKeyValue("lookup", lookup)
+        .observe(() -> ReplicaRoutingDataSource.onPrimary(query));
+  }
+
+  /**
+   * Takes one permit from the rate limit, tracking the time at which the next permit would be due
+   * if they were spread evenly (GCRA). A permit is granted as long as that time is at most one
+   * burst ahead of now.
+   */
+  private boolean tryAcquire() {
+    final var now = System.nanoTime();
+    while (true) {
+      final var arrival = theoreticalArrival.get();
+      final var next = Math.max(arrival - now, 0) + now + intervalNanos;
+      if (next - now > BURST_NANOS) {
+        return false;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        return true;
+      }
+    }
+  }
+}
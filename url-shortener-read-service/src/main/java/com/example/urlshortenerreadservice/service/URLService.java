@@ -1,61 +1,400 @@
 package com.example.urlshortenerreadservice.service;
 
-import com.example.urlshortenerreadservice.exceptions.UrlNotFoundException;
-import com.example.urlshortenerreadservice.models.URL;
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.RedisUrlCache;
+import com.example.urlshortenerreadservice.cache.SingleFlight;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.models.Resolution;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
 import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /** Service class responsible for handling read operations for URL entities. */
 @Service
 public class URLService {
-  private static final byte TIME_OUT_FOR_CACHE = 5;
+  private static final Logger log = LoggerFactory.getLogger(URLService.class);
+
   private URLRepositoryImpl urlRepository;
-  private final RedisTemplate<String, Object> redisTemplate;
+  private final RedisUrlCache redisUrlCache;
+  private final LocalUrlCache localUrlCache;
+  private final SnapshotUrlCache snapshotUrlCache;
+  private final SingleFlight<String, Resolution> databaseLoads;
+  private final ShortCodeCodec shortCodeCodec;
+  private final ResolutionMode resolutionMode;
+  private final NegativeLookupCache negativeLookupCache;
+  private final KnownIdFilter knownIdFilter;
+  private final PrimaryFallback primaryFallback;
+  private final int maxBatchSize;
+  private final ObservationRegistry observationRegistry;
+
+  /** How a short code that missed both caches is looked up in the database. */
+  public enum ResolutionMode {
+    /** Look the code up in the {@code short_url_code} column. */
+    CODE,
+    /**
+     * Decode generated codes back into their ID and look that up by primary key. Codes the {@link
+     * ShortCodeCodec} could not have produced are treated as custom aliases and looked up in the
+     * {@code short_url_code} column.
+     */
+    ID
+  }
 
   @Autowired
-  public URLService(RedisTemplate<String, Object> redisTemplate, URLRepositoryImpl urlRepository) {
-    this.redisTemplate = redisTemplate;
+  public URLService(
+      RedisUrlCache redisUrlCache,
+      URLRepositoryImpl urlRepository,
+      LocalUrlCache localUrlCache,
+      SnapshotUrlCache snapshotUrlCache,
+      ShortCodeCodec shortCodeCodec,
+      @Value("${url.resolution.mode:ID}") ResolutionMode resolutionMode,
+      @Value("${url.resolve.max-batch-size:1000}") int maxBatchSize,
+      NegativeLookupCache negativeLookupCache,
+      KnownIdFilter knownIdFilter,
+      PrimaryFallback primaryFallback,
+      MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry) {
+    this.redisUrlCache = redisUrlCache;
     this.urlRepository = urlRepository;
+    this.localUrlCache = localUrlCache;
+    this.snapshotUrlCache = snapshotUrlCache;
+    this.databaseLoads = new SingleFlight<>("url.database.loads", meterRegistry);
+    this.shortCodeCodec = shortCodeCodec;
+    this.resolutionMode = resolutionMode;
+    this.negativeLookupCache = negativeLookupCache;
+    this.knownIdFilter = knownIdFilter;
+    this.primaryFallback = primaryFallback;
+    this.maxBatchSize = maxBatchSize;
+    this.observationRegistry = observationRegistry;
   }
 
   /**
-   * Retrieves the original URL and its associated details based on a given short code.
+   * Resolves a short code to its original URL and associated details.
+   *
+   * <p>The lookup goes through the in-process {@link LocalUrlCache} first, then the memory-mapped
+   * {@link SnapshotUrlCache}, then Redis, and only then the database. No transaction is opened
+   * here, so a hit in any cache does not borrow a database connection. How the database is queried
+   * depends on the {@link ResolutionMode}. Expiry is checked against the system clock.
+   *
+   * <p>Concurrent misses on the same code are coalesced into a single database query whose result
+   * all of them share. Redis hits close to their expiry are occasionally reloaded ahead of time,
+   * see {@link RedisUrlCache#shouldRefreshEarly(RedisUrlCache.Entry)}.
+   *
+   * <p>On a Redis miss, codes that recently failed to resolve are rejected from the {@link
+   * NegativeLookupCache}, and generated codes whose ID is certainly unknown are rejected by the
+   * {@link KnownIdFilter}, in both cases without querying the database. Both checks come after
+   * Redis, which the write service fills with new mappings before the replica may have them.
+   *
+   * <p>Codes that do not resolve are returned as a {@link Resolution} like any other, without
+   * constructing an exception, as they make up most of enumeration traffic.
    *
    * @param shortCode The unique short code of the URL to retrieve.
-   * @return An {@link Optional} containing the {@link URL} object if found and valid.
-   * @throws UrlNotFoundException If no URL is found for the given short code, or if the found URL
-   *     has expired.
-   */
-  @Transactional(readOnly = true)
-  public Optional<URL> getOriginalUrl(String shortCode) {
-    URL cachedUrl = (URL) redisTemplate.opsForValue().get(shortCode);
-    if (cachedUrl != null) {
-      if (cachedUrl.getExpiresAt() == null
-          || cachedUrl.getExpiresAt().isAfter(OffsetDateTime.now())) {
-        return Optional.of(cachedUrl);
+   * @return A found {@link Resolution} with the {@link ResolvedUrl}, or a not-found or expired one.
+   */
+  public Resolution resolve(String shortCode) {
+    final var localUrl = localUrlCache.get(shortCode);
+    if (localUrl.isPresent()) {
+      return Resolution.found(localUrl.get());
+    }
+
+    final var snapshotUrl = snapshotUrlCache.get(shortCode);
+    if (snapshotUrl.isPresent()) {
+      localUrlCache.put(shortCode, snapshotUrl.get());
+      return Resolution.found(snapshotUrl.get());
+    }
+
+    final var cached = redisUrlCache.get(shortCode);
+    if (cached != null) {
+      if (isExpired(cached.getUrl())) {
+        redisUrlCache.evict(shortCode);
+        return rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED);
+      } else if (!redisUrlCache.shouldRefreshEarly(cached)) {
+        localUrlCache.put(shortCode, cached.getUrl());
+        return Resolution.found(cached.getUrl());
+      } else {
+        return refreshEarly(shortCode, cached.getUrl());
+      }
+    }
+
+    final var marker = negativeLookupCache.get(shortCode);
+    if (marker.isPresent()) {
+      return unresolved(marker.get());
+    }
+    if (isKnownAbsent(shortCode)) {
+      return Resolution.notFound();
+    }
+
+    return databaseLoads.load(shortCode, () -> loadFromDatabase(shortCode));
+  }
+
+  /**
+   * Resolves many short codes at once, for clients that expand whole pages of links.
+   *
+   * <p>Codes go through the same tiers as in {@link #resolve(String)}, but each tier is asked once
+   * for all codes that reached it: the in-process caches per code, then Redis with a single {@code
+   * MGET}, the {@link NegativeLookupCache} and {@link KnownIdFilter} per code, and the replica with
+   * at most one query by primary key and one by short code, each matching all remaining codes with
+   * {@code = ANY(?)}. Mappings found in the database are written back to Redis in one pipeline.
+   * Duplicate codes are resolved once. Unlike single lookups, these are neither coalesced with
+   * concurrent loads nor refreshed early.
+   *
+   * @param shortCodes The short codes to resolve.
+   * @return One {@link Resolution} per short code, in the same order.
+   * @throws IllegalArgumentException If no codes are given, or more than the configured maximum.
+   */
+  public List<Resolution> resolveAll(List<String> shortCodes) {
+    if (shortCodes.isEmpty() || shortCodes.size() > maxBatchSize) {
+      throw new IllegalArgumentException(
+          "Batch must contain between 1 and " + maxBatchSize + " codes: " + shortCodes.size());
+    }
+
+    final var resolutions = HashMap.<String, Resolution>newHashMap(shortCodes.size());
+    final var misses = new ArrayList<String>();
+    for (final var shortCode : shortCodes) {
+      if (shortCode == null || resolutions.containsKey(shortCode)) {
+        continue;
+      }
+      var url = localUrlCache.get(shortCode);
+      if (url.isEmpty()) {
+        url = snapshotUrlCache.get(shortCode);
+        url.ifPresent(snapshotUrl -> localUrlCache.put(shortCode, snapshotUrl));
+      }
+      if (url.isPresent()) {
+        resolutions.put(shortCode, Resolution.found(url.get()));
+      } else {
+        resolutions.put(shortCode, null);
+        misses.add(shortCode);
+      }
+    }
+    if (!misses.isEmpty()) {
+      resolveMisses(misses, resolutions);
+    }
+
+    final var results = new ArrayList<Resolution>(shortCodes.size());
+    for (final var shortCode : shortCodes) {
+      results.add(shortCode == null ? Resolution.notFound() : resolutions.get(shortCode));
+    }
+    return results;
+  }
+
+  /**
+   * Resolves the codes of a batch that missed the in-process caches, through Redis and then the
+   * database, and puts their {@link Resolution} into the given map.
+   */
+  private void resolveMisses(List<String> shortCodes, Map<String, Resolution> resolutions) {
+    final var cached = redisUrlCache.getAll(shortCodes);
+    final var expired = new ArrayList<String>();
+    final var uncached = new ArrayList<String>();
+    for (var i = 0; i < shortCodes.size(); i++) {
+      final var shortCode = shortCodes.get(i);
+      final var url = cached.get(i);
+      if (url != null) {
+        if (isExpired(url)) {
+          expired.add(shortCode);
+          resolutions.put(
+              shortCode, rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED));
+        } else {
+          localUrlCache.put(shortCode, url);
+          resolutions.put(shortCode, Resolution.found(url));
+        }
+        continue;
+      }
+
+      final var marker = negativeLookupCache.get(shortCode);
+      if (marker.isPresent()) {
+        resolutions.put(shortCode, unresolved(marker.get()));
+      } else if (isKnownAbsent(shortCode)) {
+        resolutions.put(shortCode, Resolution.notFound());
+      } else {
+        uncached.add(shortCode);
+      }
+    }
+    if (!expired.isEmpty()) {
+      redisUrlCache.evictAll(expired);
+    }
+    if (uncached.isEmpty()) {
+      return;
+    }
+
+    final var found = findAllInDatabase(uncached);
+    final var loaded = HashMap.<String, ResolvedUrl>newHashMap(found.size());
+    for (final var shortCode : uncached) {
+      final var url = found.get(shortCode);
+      if (url == null) {
+        resolutions.put(
+            shortCode, rememberUnresolved(shortCode, NegativeLookupCache.Reason.NOT_FOUND));
+      } else if (isExpired(url)) {
+        resolutions.put(
+            shortCode, rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED));
       } else {
-        redisTemplate.delete(shortCode);
+        localUrlCache.put(shortCode, url);
+        loaded.put(shortCode, url);
+        resolutions.put(shortCode, Resolution.found(url));
       }
     }
+    if (!loaded.isEmpty()) {
+      redisUrlCache.putAll(loaded);
+    }
+  }
 
-    final var url =
-        urlRepository
-            .findByShortCode(shortCode)
-            .orElseThrow(
-                () -> new UrlNotFoundException("Short URL '" + shortCode + "' not found."));
+  /**
+   * Reloads an entry that is still cached but close to its expiry in Redis. If the database cannot
+   * be reached the cached entry is served as it is, since it is still valid.
+   *
+   * @param shortCode The short code of the entry.
+   * @param cachedUrl The {@link ResolvedUrl} currently cached in Redis.
+   * @return The reloaded {@link Resolution}, or the cached {@link ResolvedUrl} if reloading failed.
+   */
+  private Resolution refreshEarly(String shortCode, ResolvedUrl cachedUrl) {
+    try {
+      return databaseLoads.load(shortCode, () -> loadFromDatabase(shortCode));
+    } catch (DataAccessException e) {
+      log.warn("Early refresh of short URL '{}' failed, serving the cached entry", shortCode, e);
+      localUrlCache.put(shortCode, cachedUrl);
+      return Resolution.found(cachedUrl);
+    }
+  }
 
-    if (url.getExpiresAt() != null && url.getExpiresAt().isBefore(OffsetDateTime.now())) {
-      throw new UrlNotFoundException("Short URL '" + shortCode + "' has expired.");
+  /**
+   * Loads a mapping from the database and, unless it has expired, puts it into both caches. Codes
+   * that do not resolve are remembered in the {@link NegativeLookupCache}. Runs through {@link
+   * SingleFlight}, so concurrent misses on the same code share one query and its result.
+   *
+   * @param shortCode The short code to load.
+   * @return The {@link Resolution} of the code.
+   */
+  private Resolution loadFromDatabase(String shortCode) {
+    final var start = System.nanoTime();
+    final var found = findInDatabase(shortCode);
+    if (found.isEmpty()) {
+      return rememberUnresolved(shortCode, NegativeLookupCache.Reason.NOT_FOUND);
     }
+    redisUrlCache.recordLoadTime(System.nanoTime() - start);
 
-    redisTemplate.opsForValue().set(shortCode, url, 5, TimeUnit.HOURS);
+    final var url = found.get();
+    if (isExpired(url)) {
+      return rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED);
+    }
+    redisUrlCache.put(shortCode, url);
+    localUrlCache.put(shortCode, url);
+    return Resolution.found(url);
+  }
+
+  private Resolution rememberUnresolved(String shortCode, NegativeLookupCache.Reason reason) {
+    negativeLookupCache.put(shortCode, reason);
+    return unresolved(reason);
+  }
+
+  private static Resolution unresolved(NegativeLookupCache.Reason reason) {
+    return switch (reason) {
+      case NOT_FOUND -> Resolution.notFound();
+      case EXPIRED -> Resolution.expired();
+    };
+  }
+
+  /**
+   * Tells whether a code is certainly unknown: in {@link ResolutionMode#ID}, a generated code whose
+   * ID the {@link KnownIdFilter} has never seen and that is too old to be in flight to the replica.
+   */
+  private boolean isKnownAbsent(String shortCode) {
+    if (resolutionMode != ResolutionMode.ID) {
+      return false;
+    }
+    final var id = shortCodeCodec.tryDecode(shortCode);
+    return id >= 0 && !primaryFallback.isRecent(id) && knownIdFilter.isKnownAbsent(id);
+  }
+
+  private static boolean isExpired(ResolvedUrl url) {
+    return url.isExpired(System.currentTimeMillis());
+  }
+
+  /**
+   * Looks a short code up in the database. In {@link ResolutionMode#ID} a code in the exact form
+   * the {@link ShortCodeCodec} generates is resolved through the primary key only, so a custom
+   * alias must never have that form; anything else falls back to the {@code short_url_code}
+   * column. An ID missing on the replica may be retried on the primary by the {@link
+   * PrimaryFallback}, if it is recent enough. Queries on the replica are observed as {@code
+   * url.database.queries} with a {@code database} tag of {@code replica}.
+   *
+   * @param shortCode The short code to look up.
+   * @return An {@link Optional} containing the {@link ResolvedUrl}, or an empty {@link Optional}
+   *     if no row matches.
+   */
+  private Optional<ResolvedUrl> findInDatabase(String shortCode) {
+    if (resolutionMode == ResolutionMode.ID) {
+      final var id = shortCodeCodec.tryDecode(shortCode);
+      if (id >= 0) {
+        var url = observeReplicaQuery("id", () -> urlRepository.findById(id));
+        if (url.isEmpty()) {
+          url = primaryFallback.findById(id);
+        }
+        return url;
+      }
+    }
+    return observeReplicaQuery("code", () -> urlRepository.findByShortCode(shortCode));
+  }
+
+  /**
+   * Looks several short codes up in the database, as {@link #findInDatabase(String)} does for one:
+   * generated codes with one query by primary key, retrying the IDs missing on the replica with one
+   * query on the {@link PrimaryFallback}, and the other codes with one query on the {@code
+   * short_url_code} column. The queries are observed with a {@code lookup} tag of {@code ids} and {@code codes}.
+   *
+   * @param shortCodes The short codes to look up.
+   * @return The {@link ResolvedUrl} of each code that matches a row, keyed by the code.
+   */
+  private Map<String, ResolvedUrl> findAllInDatabase(List<String> shortCodes) {
+    final var urls = HashMap.<String, ResolvedUrl>newHashMap(shortCodes.size());
+    final var codesById = new HashMap<Long, String>();
+    final var otherCodes = new ArrayList<String>();
+    for (final var shortCode : shortCodes) {
+      final var id =
+          resolutionMode == ResolutionMode.ID ? shortCodeCodec.tryDecode(shortCode) : -1;
+      if (id >= 0) {
+        codesById.put(id, shortCode);
+      } else {
+        otherCodes.add(shortCode);
+      }
+    }
+
+    if (!codesById.isEmpty()) {
+      final var ids = codesById.keySet().stream().mapToLong(Long::longValue).toArray();
+      for (final var url : observeReplicaQuery("ids", () -> urlRepository.findByIds(ids))) {
+        urls.put(codesById.remove(url.getId()), url);
+      }
+      if (!codesById.isEmpty()) {
+        final var missingIds = codesById.keySet().stream().mapToLong(Long::longValue).toArray();
+        for (final var url : primaryFallback.findByIds(missingIds)) {
+          urls.put(codesById.get(url.getId()), url);
+        }
+      }
+    }
+    if (!otherCodes.isEmpty()) {
+      urls.putAll(observeReplicaQuery("codes", () -> urlRepository.findByShortCodes(otherCodes)));
+    }
+    return urls;
+  }
 
-    return Optional.of(url);
+  private <T> T observeReplicaQuery(String lookup, Supplier<T> query) {
+    return Observation.createNotStarted("url.database.queries", observationRegistry)
+        .contextualName("replica")
+        .lowCardinalityKeyValue("database", "replica")
+        .lowCardinalityKeyValue("lookup", lookup)
+        .observe(query);
   }
 }
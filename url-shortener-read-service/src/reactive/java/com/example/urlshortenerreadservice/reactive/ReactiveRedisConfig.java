@@ -0,0 +1,37 @@
+package com.example.urlshortenerreadservice.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/** Configuration class for reactive Redis access on the reactive stack. */
+@Configuration
+public class ReactiveRedisConfig {
+
+  /**
+   * Configures a {@link ReactiveRedisTemplate} that reads and writes cache entries exactly like the
+   * blocking {@link RedisTemplate}, by reusing its key and value serializers, so both stacks share
+   * the same cache.
+   *
+   * @param connectionFactory The reactive Redis connection factory provided by Spring Boot's
+   *     auto-configuration.
+   * @param redisTemplate The blocking template whose serializers are reused.
+   * @return A fully configured {@link ReactiveRedisTemplate} instance.
+   */
+  @Bean
+  @SuppressWarnings("unchecked")
+  public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory,
+      RedisTemplate<String, Object> redisTemplate) {
+    final var context =
+        RedisSerializationContext.<String, Object>newSerializationContext(
+                (RedisSerializer<String>) redisTemplate.getKeySerializer())
+            .value((RedisSerializer<Object>) redisTemplate.getValueSerializer())
+            .build();
+    return new ReactiveRedisTemplate<>(connectionFactory, context);
+  }
+}
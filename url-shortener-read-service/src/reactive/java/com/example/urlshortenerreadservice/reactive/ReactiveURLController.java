@@ -0,0 +1,106 @@
+package com.example.urlshortenerreadservice.reactive;
+
+import com.example.urlshortenerreadservice.models.ClickCount;
+import com.example.urlshortenerreadservice.models.ResolveItemResult;
+import com.example.urlshortenerreadservice.service.ClickCounter;
+import com.example.urlshortenerreadservice.service.URLService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.util.List;
+
+/**
+ * REST Controller for handling URL redirection and retrieval of URL details on the reactive stack,
+ * with the same endpoints and responses as the servlet {@code URLController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveURLController {
+
+  private final ReactiveURLService urlService;
+  private final URLService blockingUrlService;
+  private final ClickCounter clickCounter;
+
+  public ReactiveURLController(
+      ReactiveURLService urlService, URLService blockingUrlService, ClickCounter clickCounter) {
+    this.urlService = urlService;
+    this.blockingUrlService = blockingUrlService;
+    this.clickCounter = clickCounter;
+  }
+
+  /**
+   * Handles redirection for a given short URL code. If the short URL is found and not expired, it
+   * redirects to the original URL and records the click. Otherwise, it returns 404 Not Found, or
+   * 410 Gone if the mapping has expired, with an empty body.
+   *
+   * @param shortCode The short code to redirect from.
+   * @return A {@link Mono} of a {@link ResponseEntity} with status 302 and the original URL as
+   *     {@code Location}, or with status 404 or 410.
+   */
+  @GetMapping("/{shortCode}")
+  public Mono<ResponseEntity<Void>> redirectToOriginalUrl(@PathVariable String shortCode) {
+    return urlService
+        .resolve(shortCode)
+        .map(
+            resolution ->
+                switch (resolution.getStatus()) {
+                  case FOUND -> {
+                    clickCounter.record(shortCode);
+                    yield ResponseEntity.status(HttpStatus.FOUND)
+                        .header(HttpHeaders.LOCATION, resolution.getUrl().getOriginalUrl())
+                        .<Void>build();
+                  }
+                  case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).<Void>build();
+                  case EXPIRED -> ResponseEntity.status(HttpStatus.GONE).<Void>build();
+                });
+  }
+
+  /**
+   * Returns the number of times a short URL has been followed. The count is read from Redis with
+   * a blocking call, so it runs off the event loop.
+   *
+   * @param shortCode The short code to return the click count of.
+   * @return A {@link Mono} of a {@link ResponseEntity} with the {@link ClickCount} of the code.
+   */
+  @GetMapping("/api/v1/urls/{shortCode}/clicks")
+  public Mono<ResponseEntity<ClickCount>> getClicks(@PathVariable String shortCode) {
+    return Mono.fromCallable(
+            () -> ResponseEntity.ok(new ClickCount(shortCode, clickCounter.getClicks(shortCode))))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Resolves many short codes in one request, like the servlet {@code URLController}. The codes
+   * are resolved by {@link URLService#resolveAll(List)} with blocking Redis and JDBC calls, so
+   * this runs off the event loop.
+   *
+   * @param shortCodes The short codes to resolve, as a JSON array.
+   * @return A {@link Mono} of a {@link ResponseEntity} containing one {@link ResolveItemResult} per
+   *     short code, in input order.
+   */
+  @PostMapping(value = "/api/v1/resolve", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<List<ResolveItemResult>>> resolveAll(
+      @RequestBody List<String> shortCodes) {
+    return Mono.fromCallable(
+            () ->
+                ResponseEntity.ok(
+                    ResolveItemResult.of(shortCodes, blockingUrlService.resolveAll(shortCodes))))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ProblemDetail handleIllegalArgumentException(IllegalArgumentException ex) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+}
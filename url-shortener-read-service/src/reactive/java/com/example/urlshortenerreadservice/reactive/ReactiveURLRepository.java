@@ -0,0 +1,56 @@
+package com.example.urlshortenerreadservice.reactive;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/** Non-blocking lookups of URL data in the replica through R2DBC. */
+@Repository
+public class ReactiveURLRepository {
+  /** Selects what the redirect path needs, with the expiration time as epoch milliseconds. */
+  private static final String SELECT_URL =
+      "SELECT id, original_url, FLOOR(EXTRACT(EPOCH FROM expires_at) * 1000)::bigint"
+          + " AS expires_at_millis FROM urls";
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveURLRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  /**
+   * Retrieves a {@link ResolvedUrl} by its primary key.
+   *
+   * @param id The ID of the URL to retrieve.
+   * @return A {@link Mono} emitting the {@link ResolvedUrl}, or completing empty if no URL has the
+   *     ID.
+   */
+  public Mono<ResolvedUrl> findById(long id) {
+    return databaseClient.sql(SELECT_URL + " WHERE id = $1").bind(0, id).map(this::toUrl).first();
+  }
+
+  /**
+   * Retrieves a {@link ResolvedUrl} by its short URL code.
+   *
+   * @param shortCode The short URL code to search for.
+   * @return A {@link Mono} emitting the {@link ResolvedUrl}, or completing empty if no URL has the
+   *     code.
+   */
+  public Mono<ResolvedUrl> findByShortCode(String shortCode) {
+    return databaseClient
+        .sql(SELECT_URL + " WHERE short_url_code = $1")
+        .bind(0, shortCode)
+        .map(this::toUrl)
+        .first();
+  }
+
+  private ResolvedUrl toUrl(Readable row) {
+    final var expiresAtMillis = row.get("expires_at_millis", Long.class);
+    return new ResolvedUrl(
+        row.get("id", Long.class),
+        row.get("original_url", String.class),
+        expiresAtMillis == null ? ResolvedUrl.NO_EXPIRY : expiresAtMillis);
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.urlshortenerreadservice.reactive;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.models.Resolution;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.service.KnownIdFilter;
+import com.example.urlshortenerreadservice.service.PrimaryFallback;
+import com.example.urlshortenerreadservice.service.URLService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Non-blocking counterpart of {@link URLService#resolve(String)} for the reactive stack.
+ *
+ * <p>A lookup goes through the same tiers with the same outcomes: the in-process {@link
+ * LocalUrlCache}, the memory-mapped {@link SnapshotUrlCache}, Redis, the {@link
+ * NegativeLookupCache} and the {@link KnownIdFilter}, then the replica through R2DBC, by primary
+ * key or by {@code short_url_code} depending on the {@link URLService.ResolutionMode}. Concurrent
+ * misses on the same code share one query. Entries loaded from the database are written to Redis
+ * with the same jittered TTL and compact format.
+ *
+ * <p>Only the rate-limited {@link PrimaryFallback}, which is rare by design, stays blocking; it
+ * runs on the bounded elastic scheduler, off the event loop. Probabilistic early refresh of Redis
+ * entries is not done here; entries are reloaded when they expire, with concurrent misses
+ * coalesced.
+ */
+@Service
+public class ReactiveURLService {
+  private final ReactiveRedisTemplate<String, Object> redisTemplate;
+  private final ReactiveURLRepository urlRepository;
+  private final LocalUrlCache localUrlCache;
+  private final SnapshotUrlCache snapshotUrlCache;
+  private final NegativeLookupCache negativeLookupCache;
+  private final KnownIdFilter knownIdFilter;
+  private final PrimaryFallback primaryFallback;
+  private final ShortCodeCodec shortCodeCodec;
+  private final URLService.ResolutionMode resolutionMode;
+  private final Duration ttl;
+  private final double ttlJitter;
+  private final Map<String, Mono<Resolution>> inFlight = new ConcurrentHashMap<>();
+
+  public ReactiveURLService(
+      ReactiveRedisTemplate<String, Object> redisTemplate,
+      ReactiveURLRepository urlRepository,
+      LocalUrlCache localUrlCache,
+      SnapshotUrlCache snapshotUrlCache,
+      NegativeLookupCache negativeLookupCache,
+      KnownIdFilter knownIdFilter,
+      PrimaryFallback primaryFallback,
+      ShortCodeCodec shortCodeCodec,
+      @Value("${url.resolution.mode:ID}") URLService.ResolutionMode resolutionMode,
+      @Value("${url.cache.redis.ttl:5h}") Duration ttl,
+      @Value("${url.cache.redis.ttl-jitter:0.1}") double ttlJitter) {
+    this.redisTemplate = redisTemplate;
+    this.urlRepository = urlRepository;
+    this.localUrlCache = localUrlCache;
+    this.snapshotUrlCache = snapshotUrlCache;
+    this.negativeLookupCache = negativeLookupCache;
+    this.knownIdFilter = knownIdFilter;
+    this.primaryFallback = primaryFallback;
+    this.shortCodeCodec = shortCodeCodec;
+    this.resolutionMode = resolutionMode;
+    this.ttl = ttl;
+    this.ttlJitter = ttlJitter;
+  }
+
+  /**
+   * Resolves a short code to its original URL and associated details.
+   *
+   * @param shortCode The unique short code of the URL to retrieve.
+   * @return A {@link Mono} emitting a found {@link Resolution} with the {@link ResolvedUrl}, or a
+   *     not-found or expired one.
+   */
+  public Mono<Resolution> resolve(String shortCode) {
+    final var localUrl = localUrlCache.get(shortCode);
+    if (localUrl.isPresent()) {
+      return Mono.just(Resolution.found(localUrl.get()));
+    }
+    final var snapshotUrl = snapshotUrlCache.get(shortCode);
+    if (snapshotUrl.isPresent()) {
+      localUrlCache.put(shortCode, snapshotUrl.get());
+      return Mono.just(Resolution.found(snapshotUrl.get()));
+    }
+
+    return redisTemplate
+        .opsForValue()
+        .get(shortCode)
+        .ofType(ResolvedUrl.class)
+        .flatMap(
+            url -> {
+              if (isExpired(url)) {
+                return redisTemplate
+                    .delete(shortCode)
+                    .thenReturn(rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED));
+              }
+              localUrlCache.put(shortCode, url);
+              return Mono.just(Resolution.found(url));
+            })
+        .switchIfEmpty(Mono.defer(() -> loadOnce(shortCode)));
+  }
+
+  /**
+   * Rejects codes known not to resolve, then loads the mapping from the database, sharing one
+   * query between concurrent callers for the same code.
+   */
+  private Mono<Resolution> loadOnce(String shortCode) {
+    final var marker = negativeLookupCache.get(shortCode);
+    if (marker.isPresent()) {
+      return Mono.just(unresolved(marker.get()));
+    }
+    if (resolutionMode == URLService.ResolutionMode.ID) {
+      final var id = shortCodeCodec.tryDecode(shortCode);
+      if (id >= 0 && !primaryFallback.isRecent(id) && knownIdFilter.isKnownAbsent(id)) {
+        return Mono.just(Resolution.notFound());
+      }
+    }
+
+    final var load = loadFromDatabase(shortCode).cache();
+    final var existing = inFlight.putIfAbsent(shortCode, load);
+    return existing != null ? existing : load.doFinally(signal -> inFlight.remove(shortCode, load));
+  }
+
+  /**
+   * Loads a mapping from the database and, unless it has expired, puts it into both caches. Codes
+   * that do not resolve are remembered in the {@link NegativeLookupCache}.
+   */
+  private Mono<Resolution> loadFromDatabase(String shortCode) {
+    return findInDatabase(shortCode)
+        .flatMap(
+            url -> {
+              if (isExpired(url)) {
+                return Mono.just(rememberUnresolved(shortCode, NegativeLookupCache.Reason.EXPIRED));
+              }
+              localUrlCache.put(shortCode, url);
+              return redisTemplate
+                  .opsForValue()
+                  .set(shortCode, url, jitteredTtl())
+                  .thenReturn(Resolution.found(url));
+            })
+        .switchIfEmpty(
+            Mono.fromSupplier(
+                () -> rememberUnresolved(shortCode, NegativeLookupCache.Reason.NOT_FOUND)));
+  }
+
+  /** Looks a short code up in the database, as {@code URLService} does. */
+  private Mono<ResolvedUrl> findInDatabase(String shortCode) {
+    if (resolutionMode == URLService.ResolutionMode.ID) {
+      final var id = shortCodeCodec.tryDecode(shortCode);
+      if (id >= 0) {
+        return urlRepository
+            .findById(id)
+            .switchIfEmpty(
+                Mono.fromCallable(() -> primaryFallback.findById(id).orElse(null))
+                    .subscribeOn(Schedulers.boundedElastic()));
+      }
+    }
+    return urlRepository.findByShortCode(shortCode);
+  }
+
+  private Duration jitteredTtl() {
+    final var jitter = 1.0 - ttlJitter * ThreadLocalRandom.current().nextDouble();
+    return Duration.ofMillis((long) (ttl.toMillis() * jitter));
+  }
+
+  private Resolution rememberUnresolved(String shortCode, NegativeLookupCache.Reason reason) {
+    negativeLookupCache.put(shortCode, reason);
+    return unresolved(reason);
+  }
+
+  private static Resolution unresolved(NegativeLookupCache.Reason reason) {
+    return switch (reason) {
+      case NOT_FOUND -> Resolution.notFound();
+      case EXPIRED -> Resolution.expired();
+    };
+  }
+
+  private static boolean isExpired(ResolvedUrl url) {
+    return url.isExpired(System.currentTimeMillis());
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.urlshortenerreadservice.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+  @Test
+  void mightContain_WhenKeyWasAdded_ThenReturnTrue() {
+    // Given
+    final var filter = BloomFilter.create(100_000, 0.01);
+    for (var id = 1L; id <= 100_000; id++) {
+      filter.add(id);
+    }
+
+    // When / Then
+    for (var id = 1L; id <= 100_000; id++) {
+      Assertions.assertTrue(filter.mightContain(id), "False negative for " + id);
+    }
+  }
+
+  @Test
+  void mightContain_WhenKeyWasNotAdded_ThenRarelyReturnTrue() {
+    // Given
+    final var filter = BloomFilter.create(100_000, 0.01);
+    for (var id = 1L; id <= 100_000; id++) {
+      filter.add(id);
+    }
+
+    // When
+    var falsePositives = 0;
+    for (var id = 100_001L; id <= 200_000; id++) {
+      if (filter.mightContain(id)) {
+        falsePositives++;
+      }
+    }
+
+    // Then
+    Assertions.assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+  }
+
+  @Test
+  void create_WhenProbabilityIsOutOfRange_ThenThrow() {
+    // When / Then
+    Assertions.assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+  }
+}
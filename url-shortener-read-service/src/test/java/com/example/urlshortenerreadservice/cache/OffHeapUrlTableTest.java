@@ -0,0 +1,153 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class OffHeapUrlTableTest {
+  private static final long NOW = 1_700_000_000_000L;
+
+  @Test
+  void get_WhenIdWasPut_ThenReturnMapping() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 20, 4);
+    for (var id = 0L; id < 1_000; id++) {
+      table.put(
+          new ResolvedUrl(id, "https://example.com/" + id + "/ü", NOW + 3_600_000),
+          NOW + 600_000);
+    }
+
+    // When
+    final var url = table.get(42, NOW);
+
+    // Then
+    Assertions.assertEquals(42, url.getId());
+    Assertions.assertEquals("https://example.com/42/ü", url.getOriginalUrl());
+    Assertions.assertEquals(NOW + 3_600_000, url.getExpiresAtMillis());
+    Assertions.assertNull(table.get(1_000, NOW));
+    Assertions.assertEquals(1_000, table.size());
+  }
+
+  @Test
+  void get_WhenServeUntilOrExpiryHasPassed_ThenReturnNull() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 20, 4);
+    table.put(new ResolvedUrl(1, "https://example.com/ttl", ResolvedUrl.NO_EXPIRY), NOW + 600_000);
+    table.put(new ResolvedUrl(2, "https://example.com/expiry", NOW + 60_000), NOW + 600_000);
+
+    // When / Then
+    Assertions.assertEquals(ResolvedUrl.NO_EXPIRY, table.get(1, NOW).getExpiresAtMillis());
+    Assertions.assertNull(table.get(1, NOW + 600_000));
+    Assertions.assertNotNull(table.get(2, NOW + 59_000));
+    Assertions.assertNull(table.get(2, NOW + 60_000));
+  }
+
+  @Test
+  void put_WhenIdIsPutAgainOrRemoved_ThenServeLatestState() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 20, 4);
+    table.put(new ResolvedUrl(7, "https://example.com/old", NOW + 3_600_000), NOW + 600_000);
+
+    // When
+    table.put(new ResolvedUrl(7, "https://example.com/new", NOW + 3_600_000), NOW + 600_000);
+
+    // Then
+    Assertions.assertEquals("https://example.com/new", table.get(7, NOW).getOriginalUrl());
+    Assertions.assertEquals(1, table.size());
+    table.remove(7);
+    Assertions.assertNull(table.get(7, NOW));
+    Assertions.assertEquals(0, table.size());
+  }
+
+  @Test
+  void put_WhenStripeIsFull_ThenEvictInsteadOfGrowing() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 16, 1);
+
+    // When
+    for (var id = 0L; id < 100_000; id++) {
+      table.put(new ResolvedUrl(id, "https://example.com/" + id, NOW + 3_600_000), NOW + 600_000);
+    }
+
+    // Then
+    Assertions.assertTrue(table.evictions() > 0);
+    Assertions.assertEquals(1 << 16, table.sizeInBytes());
+    Assertions.assertEquals("https://example.com/99999", table.get(99_999, NOW).getOriginalUrl());
+  }
+
+  @Test
+  void put_WhenStripeIsFull_ThenKeepEntriesThatAreRead() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 16, 1);
+    final var hot = new ResolvedUrl(1_000_000, "https://example.com/hot", NOW + 3_600_000);
+    table.put(hot, NOW + 600_000);
+
+    // When
+    for (var id = 0L; id < 100_000; id++) {
+      table.put(new ResolvedUrl(id, "https://example.com/" + id, NOW + 3_600_000), NOW + 600_000);
+      Assertions.assertNotNull(table.get(1_000_000, NOW), "Evicted after " + id);
+    }
+
+    // Then
+    Assertions.assertEquals(100_000 + 1 - table.size(), table.evictions());
+  }
+
+  @Test
+  void put_WhenDataAreaIsFull_ThenCompactAndKeepServingEntries() {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 16, 1);
+    final var path = "x".repeat(200);
+
+    // When
+    for (var round = 0; round < 100; round++) {
+      for (var id = 0L; id < 100; id++) {
+        table.put(
+            new ResolvedUrl(id, "https://example.com/" + id + "/" + round + path, NOW + 3_600_000),
+            NOW + 600_000);
+      }
+    }
+
+    // Then
+    for (var id = 0L; id < 100; id++) {
+      Assertions.assertEquals(
+          "https://example.com/" + id + "/99" + path, table.get(id, NOW).getOriginalUrl());
+    }
+    Assertions.assertEquals(100, table.size());
+    Assertions.assertEquals(0, table.evictions());
+  }
+
+  @Test
+  void get_WhenWrittenConcurrently_ThenNeverReturnTornEntry() throws InterruptedException {
+    // Given
+    final var table = OffHeapUrlTable.create(1 << 16, 1);
+    final var running = new AtomicBoolean(true);
+    final var failure = new AtomicReference<String>();
+    final var writer =
+        new Thread(
+            () -> {
+              for (var round = 0L; running.get(); round++) {
+                for (var id = 0L; id < 500; id++) {
+                  final var url = "https://example.com/" + id + "?r=" + round;
+                  table.put(new ResolvedUrl(id, url, NOW + 60_000), NOW + 60_000);
+                }
+              }
+            });
+    writer.start();
+
+    // When
+    for (var i = 0; i < 200_000; i++) {
+      final var id = i % 500;
+      final var url = table.get(id, NOW);
+      if (url != null && !url.getOriginalUrl().startsWith("https://example.com/" + id + "?r=")) {
+        failure.set(url.getOriginalUrl() + " for " + id);
+      }
+    }
+    running.set(false);
+    writer.join();
+
+    // Then
+    Assertions.assertNull(failure.get());
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import java.time.Duration;
+
+class RedisUrlCacheTest {
+  private static final Duration TTL = Duration.ofHours(5);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ResolvedUrl url = new ResolvedUrl(1, "https://example.com", ResolvedUrl.NO_EXPIRY);
+
+  @Test
+  void shouldRefreshEarly_WhenEntryIsFarFromExpiry_ThenNeverRefresh() {
+    // Given: the most extreme draw, -ln(1e-9) is about 21 average load times
+    final var cache = redisUrlCache(1.0, 1.0 - 1e-9);
+
+    // When
+    final var refresh = cache.shouldRefreshEarly(new RedisUrlCache.Entry(url, 60_000));
+
+    // Then
+    Assertions.assertFalse(refresh);
+    Assertions.assertEquals(0, meterRegistry.counter("url.cache.redis.early.refreshes").count());
+  }
+
+  @Test
+  void shouldRefreshEarly_WhenScaledLoadTimeReachesRemainingTtl_ThenRefresh() {
+    // Given: the average load time starts at 1 ms, so -1 * 2 * ln(0.001) is about 13.8 ms
+    final var cache = redisUrlCache(2.0, 1.0 - 0.001);
+
+    // When and Then
+    Assertions.assertTrue(cache.shouldRefreshEarly(new RedisUrlCache.Entry(url, 13)));
+    Assertions.assertFalse(cache.shouldRefreshEarly(new RedisUrlCache.Entry(url, 14)));
+    Assertions.assertEquals(1, meterRegistry.counter("url.cache.redis.early.refreshes").count());
+  }
+
+  @Test
+  void shouldRefreshEarly_WhenLoadsGetSlower_ThenRefreshFurtherFromExpiry() {
+    // Given: -ln(0.5) is about 0.69 average load times
+    final var cache = redisUrlCache(1.0, 0.5);
+    final var entry = new RedisUrlCache.Entry(url, 50);
+
+    // When
+    final var refreshBefore = cache.shouldRefreshEarly(entry);
+    for (var i = 0; i < 100; i++) {
+      cache.recordLoadTime(Duration.ofMillis(100).toNanos());
+    }
+    final var refreshAfter = cache.shouldRefreshEarly(entry);
+
+    // Then
+    Assertions.assertFalse(refreshBefore);
+    Assertions.assertTrue(refreshAfter);
+  }
+
+  @Test
+  void shouldRefreshEarly_WhenTtlIsUnknownOrBetaIsZero_ThenNeverRefresh() {
+    // Given
+    final var cache = redisUrlCache(1.0, 1.0 - 1e-9);
+    final var disabledCache = redisUrlCache(0.0, 1.0 - 1e-9);
+
+    // When and Then
+    Assertions.assertFalse(cache.shouldRefreshEarly(new RedisUrlCache.Entry(url, -1)));
+    Assertions.assertFalse(disabledCache.shouldRefreshEarly(new RedisUrlCache.Entry(url, 0)));
+  }
+
+  @Test
+  void jitteredTtl_WhenDrawsSpanTheRange_ThenTtlIsShortenedByUpToTheJitter() {
+    // When
+    final var longest = redisUrlCache(1.0, 0.0).jitteredTtl();
+    final var middle = redisUrlCache(1.0, 0.5).jitteredTtl();
+    final var shortest = redisUrlCache(1.0, Math.nextDown(1.0)).jitteredTtl();
+
+    // Then
+    Assertions.assertEquals(TTL, longest);
+    Assertions.assertEquals(TTL.minus(TTL.dividedBy(20)), middle);
+    Assertions.assertTrue(shortest.compareTo(TTL.minus(TTL.dividedBy(10))) >= 0);
+    Assertions.assertTrue(shortest.compareTo(middle) < 0);
+  }
+
+  private RedisUrlCache redisUrlCache(double earlyRefreshBeta, double draw) {
+    return new RedisUrlCache(
+        new RedisTemplate<>(), TTL, 0.1, earlyRefreshBeta, meterRegistry, () -> draw);
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.urlshortenerreadservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SingleFlight<String, String> singleFlight =
+      new SingleFlight<>("test.loads", meterRegistry);
+
+  @Test
+  void load_WhenCalledConcurrentlyForTheSameKey_ThenLoadOnceAndShareTheResult() throws Exception {
+    // Given
+    final var callers = 16;
+    final var loads = new AtomicInteger();
+    final var release = new CountDownLatch(1);
+    final var futures = new ArrayList<Future<String>>();
+
+    // When
+    try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (var i = 0; i < callers; i++) {
+        futures.add(
+            executor.submit(
+                () ->
+                    singleFlight.load(
+                        "key",
+                        () -> {
+                          loads.incrementAndGet();
+                          awaitUninterruptibly(release);
+                          return "value";
+                        })));
+      }
+      while (meterRegistry.counter("test.loads", "type", "coalesced").count() < callers - 1) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+
+      // Then
+      for (final var future : futures) {
+        Assertions.assertEquals("value", future.get());
+      }
+    }
+    Assertions.assertEquals(1, loads.get());
+    Assertions.assertEquals(1, meterRegistry.counter("test.loads", "type", "leading").count());
+  }
+
+  @Test
+  void load_WhenLoaderFails_ThenRethrowAndLoadAgainOnTheNextCall() {
+    // Given
+    final var failure = new IllegalStateException("database unavailable");
+
+    // When and Then
+    Assertions.assertSame(
+        failure,
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () ->
+                singleFlight.load(
+                    "key",
+                    () -> {
+                      throw failure;
+                    })));
+    Assertions.assertEquals("value", singleFlight.load("key", () -> "value"));
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
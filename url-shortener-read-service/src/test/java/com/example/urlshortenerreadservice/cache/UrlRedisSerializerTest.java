@@ -0,0 +1,98 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenercommon.cache.CompactUrlFormat;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.models.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+class UrlRedisSerializerTest {
+  private static final OffsetDateTime CREATED_AT =
+      OffsetDateTime.of(2025, 6, 1, 12, 30, 15, 123_000_000, ZoneOffset.UTC);
+
+  @Test
+  void deserialize_WhenUrlWrittenCompact_ThenReadIdUrlAndExpiryOnly() {
+    // Given
+    final var serializer = serializer(UrlRedisSerializer.Format.COMPACT);
+    final var url =
+        new URL(
+            56800235583L,
+            "https://example.com/ß?q=1",
+            "ZZZZZZ",
+            CREATED_AT,
+            CREATED_AT.plusDays(7));
+
+    // When
+    final var bytes = serializer.serialize(url);
+    final var result = (ResolvedUrl) serializer.deserialize(bytes);
+
+    // Then
+    Assertions.assertEquals(CompactUrlFormat.MAGIC, bytes[0]);
+    Assertions.assertEquals(url.getId(), result.getId());
+    Assertions.assertEquals(url.getOriginalUrl(), result.getOriginalUrl());
+    Assertions.assertEquals(
+        CREATED_AT.plusDays(7).toInstant().toEpochMilli(), result.getExpiresAtMillis());
+  }
+
+  @Test
+  void deserialize_WhenResolvedUrlWrittenCompact_ThenRoundTrip() {
+    // Given
+    final var serializer = serializer(UrlRedisSerializer.Format.COMPACT);
+    final var url = new ResolvedUrl(42, "https://example.com", ResolvedUrl.NO_EXPIRY);
+
+    // When
+    final var result = (ResolvedUrl) serializer.deserialize(serializer.serialize(url));
+
+    // Then
+    Assertions.assertEquals(url.getId(), result.getId());
+    Assertions.assertEquals(url.getOriginalUrl(), result.getOriginalUrl());
+    Assertions.assertEquals(ResolvedUrl.NO_EXPIRY, result.getExpiresAtMillis());
+  }
+
+  @Test
+  void deserialize_WhenWrittenAsJson_ThenStillReadable() {
+    // Given
+    final var jsonSerializer = serializer(UrlRedisSerializer.Format.JSON);
+    final var compactSerializer = serializer(UrlRedisSerializer.Format.COMPACT);
+    final var url =
+        new URL(42, "https://example.com", "G", CREATED_AT, CREATED_AT.plusDays(7));
+
+    // When
+    final var result =
+        (ResolvedUrl) compactSerializer.deserialize(jsonSerializer.serialize(url));
+
+    // Then
+    Assertions.assertEquals(url.getId(), result.getId());
+    Assertions.assertEquals(url.getOriginalUrl(), result.getOriginalUrl());
+    Assertions.assertEquals(
+        url.getExpiresAt().toInstant().toEpochMilli(), result.getExpiresAtMillis());
+  }
+
+  @Test
+  void deserialize_WhenVersionIsUnknown_ThenReturnNull() {
+    // Given
+    final var serializer = serializer(UrlRedisSerializer.Format.COMPACT);
+    final var bytes =
+        serializer.serialize(new URL(42, "https://example.com", "G", CREATED_AT, null));
+    bytes[1] = CompactUrlFormat.VERSION + 1;
+
+    // When
+    final var result = serializer.deserialize(bytes);
+
+    // Then
+    Assertions.assertNull(result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RedisSerializer<Object> serializer(UrlRedisSerializer.Format format) {
+    return (RedisSerializer<Object>)
+        new RedisConfig()
+            .redisTemplate(new LettuceConnectionFactory(), format)
+            .getValueSerializer();
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.urlshortenerreadservice.cache;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+class UrlSnapshotTest {
+  private static final OffsetDateTime CREATED_AT =
+      OffsetDateTime.ofInstant(Instant.ofEpochMilli(1_700_000_000_123L), ZoneOffset.UTC);
+
+  @TempDir Path directory;
+
+  @Test
+  void find_WhenIdWasWritten_ThenReturnMapping() throws IOException {
+    // Given
+    final var path = directory.resolve("urls.snapshot");
+    try (final var writer = new UrlSnapshotWriter(path)) {
+      for (var id = 1L; id <= 1_000; id += 3) {
+        writer.add(
+            id,
+            UrlSnapshot.toEpochMillis(CREATED_AT),
+            UrlSnapshot.toEpochMillis(CREATED_AT.plusDays(7)),
+            ("https://example.com/" + id + "/ü").getBytes(StandardCharsets.UTF_8));
+      }
+      writer.commit(42, 43, 44);
+    }
+
+    // When
+    final var snapshot = UrlSnapshot.open(path);
+    final var url = snapshot.find(502);
+
+    // Then
+    Assertions.assertEquals(334, snapshot.size());
+    Assertions.assertEquals(42, snapshot.getWatermarkMillis());
+    Assertions.assertEquals(43, snapshot.getBuiltAtMillis());
+    Assertions.assertEquals(44, snapshot.getFullBuiltAtMillis());
+    Assertions.assertEquals(502, url.getId());
+    Assertions.assertEquals("https://example.com/502/ü", url.getOriginalUrl());
+    Assertions.assertEquals(
+        CREATED_AT.plusDays(7).toInstant().toEpochMilli(), url.getExpiresAtMillis());
+    Assertions.assertEquals("https://example.com/1000/ü", snapshot.find(1_000).getOriginalUrl());
+  }
+
+  @Test
+  void find_WhenIdWasNotWritten_ThenReturnNull() throws IOException {
+    // Given
+    final var path = directory.resolve("urls.snapshot");
+    try (final var writer = new UrlSnapshotWriter(path)) {
+      writer.add(10, UrlSnapshot.NO_TIME, UrlSnapshot.NO_TIME, new byte[] {'a'});
+      writer.add(20, UrlSnapshot.NO_TIME, UrlSnapshot.NO_TIME, new byte[] {'b'});
+      writer.commit(0, 0, 0);
+    }
+    final var snapshot = UrlSnapshot.open(path);
+
+    // When / Then
+    Assertions.assertNull(snapshot.find(5));
+    Assertions.assertNull(snapshot.find(15));
+    Assertions.assertNull(snapshot.find(25));
+    Assertions.assertEquals(ResolvedUrl.NO_EXPIRY, snapshot.find(20).getExpiresAtMillis());
+  }
+
+  @Test
+  void commit_WhenDone_ThenLeaveNoTemporaryFiles() throws IOException {
+    // Given
+    final var path = directory.resolve("urls.snapshot");
+    try (final var writer = new UrlSnapshotWriter(path)) {
+      writer.add(1, UrlSnapshot.NO_TIME, UrlSnapshot.NO_TIME, new byte[] {'a'});
+
+      // When
+      writer.commit(0, 0, 0);
+    }
+
+    // Then
+    try (final var files = Files.list(directory)) {
+      Assertions.assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void add_WhenIdIsNotAscending_ThenThrowIllegalArgumentException() throws IOException {
+    // Given
+    try (final var writer = new UrlSnapshotWriter(directory.resolve("urls.snapshot"))) {
+      writer.add(2, UrlSnapshot.NO_TIME, UrlSnapshot.NO_TIME, new byte[] {'a'});
+
+      // When / Then
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> writer.add(2, UrlSnapshot.NO_TIME, UrlSnapshot.NO_TIME, new byte[] {'b'}));
+    }
+  }
+
+  @Test
+  void open_WhenFileIsNotASnapshot_ThenThrowIOException() throws IOException {
+    // Given
+    final var path = Files.writeString(directory.resolve("urls.snapshot"), "not a snapshot at all");
+
+    // When / Then
+    Assertions.assertThrows(IOException.class, () -> UrlSnapshot.open(path));
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.urlshortenerreadservice.repository;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+@JdbcTest
+@Import({URLRepositoryImpl.class})
+class URLRepositoryImplTest {
+  private static final OffsetDateTime EXPIRES_AT =
+      OffsetDateTime.of(2030, 1, 1, 0, 0, 0, 123_000_000, ZoneOffset.UTC);
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private URLRepositoryImpl urlRepository;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM urls");
+    jdbcTemplate.execute("DELETE FROM url_tombstones");
+    insert(1, "https://example.com/1", "alias1", EXPIRES_AT);
+    insert(2, "https://example.com/2", "alias2", null);
+    insert(3, "https://example.com/3", null, EXPIRES_AT);
+  }
+
+  @Test
+  void findByIds_WhenSomeIdsExist_ThenReturnOnlyThoseInOneQuery() {
+    // When
+    final var urls =
+        urlRepository.findByIds(new long[] {3, 2, 42}).stream()
+            .sorted(Comparator.comparingLong(ResolvedUrl::getId))
+            .toList();
+
+    // Then
+    Assertions.assertEquals(2, urls.size());
+    Assertions.assertEquals(2, urls.get(0).getId());
+    Assertions.assertEquals("https://example.com/2", urls.get(0).getOriginalUrl());
+    Assertions.assertEquals(ResolvedUrl.NO_EXPIRY, urls.get(0).getExpiresAtMillis());
+    Assertions.assertEquals(3, urls.get(1).getId());
+    Assertions.assertEquals("https://example.com/3", urls.get(1).getOriginalUrl());
+    Assertions.assertEquals(
+        EXPIRES_AT.toInstant().toEpochMilli(), urls.get(1).getExpiresAtMillis());
+  }
+
+  @Test
+  void findByIds_WhenNoIdExists_ThenReturnEmptyList() {
+    // When
+    final var urls = urlRepository.findByIds(new long[] {41, 42});
+
+    // Then
+    Assertions.assertTrue(urls.isEmpty());
+  }
+
+  @Test
+  void findByShortCodes_WhenSomeCodesExist_ThenReturnThemKeyedByCode() {
+    // When
+    final var urls = urlRepository.findByShortCodes(List.of("alias1", "alias2", "missing"));
+
+    // Then
+    Assertions.assertEquals(Set.of("alias1", "alias2"), urls.keySet());
+    Assertions.assertEquals(1, urls.get("alias1").getId());
+    Assertions.assertEquals("https://example.com/1", urls.get("alias1").getOriginalUrl());
+    Assertions.assertEquals(
+        EXPIRES_AT.toInstant().toEpochMilli(), urls.get("alias1").getExpiresAtMillis());
+    Assertions.assertEquals(ResolvedUrl.NO_EXPIRY, urls.get("alias2").getExpiresAtMillis());
+  }
+
+  @Test
+  void findIdsDeletedFrom_WhenTombstonesAreOlder_ThenReturnOnlyNewerOnes() {
+    // Given
+    final var now = OffsetDateTime.now();
+    jdbcTemplate.update(
+        "INSERT INTO url_tombstones (id, deleted_at) VALUES (?, ?), (?, ?)",
+        4L,
+        now.minusHours(2),
+        5L,
+        now);
+
+    // When
+    final var ids = urlRepository.findIdsDeletedFrom(now.minusHours(1));
+
+    // Then
+    Assertions.assertEquals(List.of(5L), ids);
+  }
+
+  private void insert(long id, String originalUrl, String shortCode, OffsetDateTime expiresAt) {
+    jdbcTemplate.update(
+        "INSERT INTO urls (id, original_url, short_url_code, expires_at) VALUES (?, ?, ?, ?)",
+        id,
+        originalUrl,
+        shortCode,
+        expiresAt);
+  }
+}
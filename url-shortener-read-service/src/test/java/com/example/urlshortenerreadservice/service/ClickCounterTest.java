@@ -0,0 +1,73 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenerreadservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerreadservice.config.RedisConfig;
+import com.example.urlshortenerreadservice.repository.ClickCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class ClickCounterTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void drain_WhenClicksAreRecordedConcurrently_ThenEveryClickIsCountedOnce() throws Exception {
+    // Given
+    final var clickCounter = clickCounter(100);
+    final var threads = 8;
+    final var clicksPerThread = 10_000;
+    final var futures = new ArrayList<Future<?>>();
+
+    // When
+    try (final var executor = Executors.newFixedThreadPool(threads)) {
+      for (var i = 0; i < threads; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (var j = 0; j < clicksPerThread; j++) {
+                    clickCounter.record(j % 2 == 0 ? "a" : "b");
+                  }
+                }));
+      }
+      for (final var future : futures) {
+        future.get();
+      }
+    }
+    final var firstDrain = clickCounter.drain();
+    final var secondDrain = clickCounter.drain();
+
+    // Then
+    final var clicksPerCode = (long) threads * clicksPerThread / 2;
+    Assertions.assertEquals(Map.of("a", clicksPerCode, "b", clicksPerCode), firstDrain);
+    Assertions.assertTrue(secondDrain.isEmpty());
+  }
+
+  @Test
+  void record_WhenTooManyCodesArePending_ThenDropAndCountClicksOnNewCodes() {
+    // Given
+    final var clickCounter = clickCounter(2);
+
+    // When
+    clickCounter.record("a");
+    clickCounter.record("b");
+    clickCounter.record("c");
+    clickCounter.record("a");
+
+    // Then
+    Assertions.assertEquals(Map.of("a", 2L, "b", 1L), clickCounter.drain());
+    Assertions.assertEquals(1, meterRegistry.counter("url.clicks.dropped").count());
+  }
+
+  private ClickCounter clickCounter(int maxPendingCodes) {
+    final var redisTemplate =
+        new RedisConfig()
+            .redisTemplate(new LettuceConnectionFactory(), UrlRedisSerializer.Format.COMPACT);
+    return new ClickCounter(
+        new ClickCountRepository(redisTemplate, "url:clicks"), maxPendingCodes, meterRegistry);
+  }
+}
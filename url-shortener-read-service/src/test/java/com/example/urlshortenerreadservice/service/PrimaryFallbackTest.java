@@ -0,0 +1,96 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+class PrimaryFallbackTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void findById_WhenRateLimitIsExhausted_ThenSkipThePrimary() {
+    // Given
+    final var primaryFallback =
+        new PrimaryFallback(
+            new StubRepository(1000), true, 100, 2, meterRegistry, ObservationRegistry.NOOP);
+
+    // When
+    for (var i = 0; i < 3; i++) {
+      primaryFallback.findById(42);
+    }
+
+    // Then
+    Assertions.assertEquals(
+        2, meterRegistry.counter("url.primary.fallback", "result", "missing").count());
+    Assertions.assertEquals(
+        1, meterRegistry.counter("url.primary.fallback", "result", "throttled").count());
+  }
+
+  @Test
+  void isRecent_WhenIdIsBelowTheWindow_ThenReturnFalse() {
+    // Given
+    final var primaryFallback =
+        new PrimaryFallback(
+            new StubRepository(1000), true, 100, 50, meterRegistry, ObservationRegistry.NOOP);
+
+    // When
+    primaryFallback.refreshReplicaMaxId();
+
+    // Then
+    Assertions.assertFalse(primaryFallback.isRecent(900));
+    Assertions.assertTrue(primaryFallback.isRecent(901));
+    Assertions.assertTrue(primaryFallback.isRecent(5000));
+  }
+
+  @Test
+  void findByIds_WhenSomeIdsAreOld_ThenQueryOnlyTheRecentOnesOnce() {
+    // Given
+    final var repository = new StubRepository(1000);
+    final var primaryFallback =
+        new PrimaryFallback(repository, true, 100, 1, meterRegistry, ObservationRegistry.NOOP);
+    primaryFallback.refreshReplicaMaxId();
+
+    // When
+    final var urls = primaryFallback.findByIds(new long[] {5, 950, 1200});
+
+    // Then
+    Assertions.assertTrue(urls.isEmpty());
+    Assertions.assertEquals(List.of(List.of(950L, 1200L)), repository.idQueries);
+    Assertions.assertEquals(
+        2, meterRegistry.counter("url.primary.fallback", "result", "missing").count());
+  }
+
+  /** Repository with a fixed highest ID that finds nothing. */
+  private static final class StubRepository extends URLRepositoryImpl {
+    private final long maxId;
+    private final List<List<Long>> idQueries = new ArrayList<>();
+
+    private StubRepository(long maxId) {
+      super(null);
+      this.maxId = maxId;
+    }
+
+    @Override
+    public Optional<ResolvedUrl> findById(long id) {
+      return Optional.empty();
+    }
+
+    @Override
+    public List<ResolvedUrl> findByIds(long[] ids) {
+      idQueries.add(Arrays.stream(ids).boxed().toList());
+      return List.of();
+    }
+
+    @Override
+    public long findMaxId() {
+      return maxId;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.example.urlshortenerreadservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerreadservice.cache.LocalUrlCache;
+import com.example.urlshortenerreadservice.cache.NegativeLookupCache;
+import com.example.urlshortenerreadservice.cache.RedisUrlCache;
+import com.example.urlshortenerreadservice.cache.SnapshotUrlCache;
+import com.example.urlshortenerreadservice.models.Resolution;
+import com.example.urlshortenerreadservice.models.ResolvedUrl;
+import com.example.urlshortenerreadservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class URLServiceTest {
+  private static final ShortCodeCodec CODEC = ShortCodeCodec.plain();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final StubRepository replica = new StubRepository();
+  private final StubRepository primary = new StubRepository();
+
+  @Test
+  void resolveAll_WhenCodesRepeatOrAreNull_ThenAnswerEachInOrderWithOneQueryPerKind() {
+    // Given
+    replica.add(url(1), CODEC.encode(1));
+    replica.add(url(2), "my-alias");
+    final var urlService = urlService(1_000);
+
+    // When
+    final var resolutions =
+        urlService.resolveAll(
+            Arrays.asList(
+                CODEC.encode(1), "my-alias", null, CODEC.encode(42), CODEC.encode(1), "no-alias"));
+
+    // Then
+    Assertions.assertEquals(6, resolutions.size());
+    Assertions.assertEquals(1, resolutions.get(0).getUrl().getId());
+    Assertions.assertEquals(2, resolutions.get(1).getUrl().getId());
+    Assertions.assertEquals(Resolution.Status.NOT_FOUND, resolutions.get(2).getStatus());
+    Assertions.assertEquals(Resolution.Status.NOT_FOUND, resolutions.get(3).getStatus());
+    Assertions.assertSame(resolutions.get(0).getUrl(), resolutions.get(4).getUrl());
+    Assertions.assertEquals(Resolution.Status.NOT_FOUND, resolutions.get(5).getStatus());
+    Assertions.assertEquals(List.of(Set.of(1L, 42L)), replica.idQueries);
+    Assertions.assertEquals(List.of(Set.of("my-alias", "no-alias")), replica.codeQueries);
+  }
+
+  @Test
+  void resolveAll_WhenIdsAreMissingOnTheReplica_ThenLookThemUpOnThePrimaryInOneQuery() {
+    // Given
+    replica.add(url(1), CODEC.encode(1));
+    primary.add(url(2), CODEC.encode(2));
+    primary.add(url(3), CODEC.encode(3));
+    final var urlService = urlService(1_000);
+
+    // When
+    final var resolutions =
+        urlService.resolveAll(List.of(CODEC.encode(3), CODEC.encode(1), CODEC.encode(2)));
+
+    // Then
+    Assertions.assertEquals(
+        List.of(3L, 1L, 2L), resolutions.stream().map(r -> r.getUrl().getId()).toList());
+    Assertions.assertEquals(List.of(Set.of(1L, 2L, 3L)), replica.idQueries);
+    Assertions.assertEquals(List.of(Set.of(2L, 3L)), primary.idQueries);
+  }
+
+  @Test
+  void resolveAll_WhenCodesWereResolvedBefore_ThenAnswerFromTheLocalCache() {
+    // Given
+    replica.add(url(1), CODEC.encode(1));
+    final var urlService = urlService(1_000);
+    urlService.resolveAll(List.of(CODEC.encode(1)));
+
+    // When
+    final var resolutions = urlService.resolveAll(List.of(CODEC.encode(1)));
+
+    // Then
+    Assertions.assertTrue(resolutions.getFirst().isFound());
+    Assertions.assertEquals(1, replica.idQueries.size());
+  }
+
+  @Test
+  void resolveAll_WhenBatchIsEmptyOrTooLarge_ThenThrowIllegalArgumentException() {
+    // Given
+    final var urlService = urlService(2);
+
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> urlService.resolveAll(List.of()));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> urlService.resolveAll(List.of("a", "b", "c")));
+    Assertions.assertTrue(replica.idQueries.isEmpty());
+  }
+
+  private URLService urlService(int maxBatchSize) {
+    final var negativeLookupCache =
+        new NegativeLookupCache(
+            Duration.ofSeconds(30), Duration.ofMinutes(10), 1_000, meterRegistry);
+    return new URLService(
+        new MissingRedisUrlCache(meterRegistry),
+        replica,
+        new LocalUrlCache(
+            DataSize.ofMegabytes(1),
+            Duration.ofMinutes(10),
+            CODEC,
+            URLService.ResolutionMode.ID,
+            false,
+            DataSize.ofMegabytes(1),
+            1,
+            meterRegistry),
+        new SnapshotUrlCache(
+            replica,
+            CODEC,
+            false,
+            URLService.ResolutionMode.ID,
+            Path.of("urls.snapshot"),
+            600_000,
+            Duration.ofHours(1),
+            Duration.ofSeconds(5),
+            10_000,
+            meterRegistry),
+        CODEC,
+        URLService.ResolutionMode.ID,
+        maxBatchSize,
+        negativeLookupCache,
+        new KnownIdFilter(
+            replica,
+            CODEC,
+            negativeLookupCache,
+            false,
+            URLService.ResolutionMode.ID,
+            1_000,
+            0.01,
+            1_000,
+            Duration.ofSeconds(5),
+            meterRegistry),
+        new PrimaryFallback(primary, true, 1_000, 50, meterRegistry, ObservationRegistry.NOOP),
+        meterRegistry,
+        ObservationRegistry.NOOP);
+  }
+
+  private static ResolvedUrl url(long id) {
+    return new ResolvedUrl(id, "https://example.com/" + id, ResolvedUrl.NO_EXPIRY);
+  }
+
+  /** Repository that finds the mappings added to it and records the keys of bulk queries. */
+  private static final class StubRepository extends URLRepositoryImpl {
+    private final Map<Long, ResolvedUrl> urlsById = new HashMap<>();
+    private final Map<String, ResolvedUrl> urlsByCode = new HashMap<>();
+    private final List<Set<Long>> idQueries = new ArrayList<>();
+    private final List<Set<String>> codeQueries = new ArrayList<>();
+
+    private StubRepository() {
+      super(null);
+    }
+
+    private void add(ResolvedUrl url, String shortCode) {
+      urlsById.put(url.getId(), url);
+      urlsByCode.put(shortCode, url);
+    }
+
+    @Override
+    public List<ResolvedUrl> findByIds(long[] ids) {
+      idQueries.add(Arrays.stream(ids).boxed().collect(Collectors.toSet()));
+      return Arrays.stream(ids).mapToObj(urlsById::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Map<String, ResolvedUrl> findByShortCodes(List<String> shortCodes) {
+      codeQueries.add(Set.copyOf(shortCodes));
+      final var urls = new HashMap<String, ResolvedUrl>();
+      for (final var shortCode : shortCodes) {
+        if (urlsByCode.containsKey(shortCode)) {
+          urls.put(shortCode, urlsByCode.get(shortCode));
+        }
+      }
+      return urls;
+    }
+
+    @Override
+    public long findMaxId() {
+      return -1;
+    }
+  }
+
+  /** Redis cache that misses every lookup and drops every write. */
+  private static final class MissingRedisUrlCache extends RedisUrlCache {
+    private MissingRedisUrlCache(SimpleMeterRegistry meterRegistry) {
+      super(null, Duration.ofHours(5), 0.1, 1.0, meterRegistry);
+    }
+
+    @Override
+    public Entry get(String shortCode) {
+      return null;
+    }
+
+    @Override
+    public List<ResolvedUrl> getAll(List<String> shortCodes) {
+      return Collections.nCopies(shortCodes.size(), null);
+    }
+
+    @Override
+    public void put(String shortCode, ResolvedUrl url) {}
+
+    @Override
+    public void putAll(Map<String, ResolvedUrl> urls) {}
+
+    @Override
+    public void evict(String shortCode) {}
+
+    @Override
+    public void evictAll(Collection<String> shortCodes) {}
+  }
+}
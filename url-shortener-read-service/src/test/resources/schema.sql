@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS urls_id_seq INCREMENT BY 10000;
+
+CREATE TABLE IF NOT EXISTS urls
+(
+    id             BIGINT DEFAULT nextval('urls_id_seq') PRIMARY KEY,
+    original_url   TEXT NOT NULL,
+    short_url_code VARCHAR(10) UNIQUE,
+    created_at     TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    expires_at     TIMESTAMP WITH TIME ZONE,
+    original_url_hash BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS url_tombstones
+(
+    id         BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
@@ -5,7 +5,8 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(
+    scanBasePackages = {"com.example.urlshortenerservice", "com.example.urlshortenercommon"})
 @EnableScheduling
 public class UrlShortenerServiceApplication {
 
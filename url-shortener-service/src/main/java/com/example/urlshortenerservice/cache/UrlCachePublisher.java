@@ -0,0 +1,237 @@
+package com.example.urlshortenerservice.cache;
+
+import com.example.urlshortenerservice.models.URL;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes new mappings into the Redis cache of the read service, so the first redirect of a
+ * freshly shortened URL is answered from Redis instead of from a replica that may not have the row
+ * yet. Mappings that expire, are purged or are rejected after the fact are evicted again.
+ *
+ * <p>Publishing never blocks the write path: operations are put into a bounded queue once the
+ * surrounding transaction, if any, has committed, and a single background thread writes them to
+ * Redis in pipelined batches. When the queue is full, or Redis cannot be reached, operations are
+ * dropped and counted; the read service then simply loads the mapping from the database as before.
+ * Entries get the same jittered TTL as the ones the read service writes, capped at the expiration
+ * time of the mapping.
+ *
+ * <p>Progress is published through Micrometer as {@code url.cache.publish.written}, {@code
+ * url.cache.publish.evicted}, {@code url.cache.publish.dropped} and {@code
+ * url.cache.publish.failures} counters and a {@code url.cache.publish.queue.size} gauge, and every
+ * pipelined batch is observed as {@code url.cache.publish.flush}.
+ */
+@Component
+public class UrlCachePublisher {
+  private static final Logger log = LoggerFactory.getLogger(UrlCachePublisher.class);
+
+  private final RedisTemplate<String, URL> redisTemplate;
+  private final boolean enabled;
+  private final Duration ttl;
+  private final double ttlJitter;
+  private final int batchSize;
+  private final BlockingQueue<Operation> queue;
+  private final Counter writtenCounter;
+  private final Counter evictedCounter;
+  private final Counter droppedCounter;
+  private final Counter failureCounter;
+  private final ObservationRegistry observationRegistry;
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  public UrlCachePublisher(
+      RedisTemplate<String, URL> redisTemplate,
+      @Value("${url.cache.publish.enabled:true}") boolean enabled,
+      @Value("${url.cache.redis.ttl:5h}") Duration ttl,
+      @Value("${url.cache.redis.ttl-jitter:0.1}") double ttlJitter,
+      @Value("${url.cache.publish.queue-capacity:10000}") int queueCapacity,
+      @Value("${url.cache.publish.batch-size:500}") int batchSize,
+      MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.enabled = enabled;
+    this.ttl = ttl;
+    this.ttlJitter = ttlJitter;
+    this.batchSize = batchSize;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.writtenCounter = meterRegistry.counter("url.cache.publish.written");
+    this.evictedCounter = meterRegistry.counter("url.cache.publish.evicted");
+    this.droppedCounter = meterRegistry.counter("url.cache.publish.dropped");
+    this.failureCounter = meterRegistry.counter("url.cache.publish.failures");
+    this.observationRegistry = observationRegistry;
+    this.worker = Thread.ofPlatform().name("url-cache-publisher").daemon().unstarted(this::run);
+    Gauge.builder("url.cache.publish.queue.size", queue, BlockingQueue::size)
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (enabled) {
+      worker.start();
+    }
+  }
+
+  /**
+   * Publishes a newly created mapping under its short code.
+   *
+   * @param url The saved {@link URL}, with its short code set.
+   */
+  public void publish(URL url) {
+    enqueue(new Operation(url.getShortUrlCode(), url));
+  }
+
+  /**
+   * Evicts the given short codes from the cache.
+   *
+   * @param shortCodes The short codes to evict.
+   */
+  public void evict(Collection<String> shortCodes) {
+    shortCodes.forEach(shortCode -> enqueue(new Operation(shortCode, null)));
+  }
+
+  private void enqueue(Operation operation) {
+    if (!enabled) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              offer(operation);
+            }
+          });
+    } else {
+      offer(operation);
+    }
+  }
+
+  private void offer(Operation operation) {
+    if (!queue.offer(operation)) {
+      droppedCounter.increment();
+    }
+  }
+
+  private void run() {
+    final var batch = new ArrayList<Operation>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        final var first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+      } catch (InterruptedException e) {
+        running = false;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Writes one batch of operations to Redis in a single pipelined round trip. A failed batch is
+   * dropped rather than retried, since the read service loads missing entries by itself.
+   *
+   * @param batch The operations to write.
+   */
+  void write(List<Operation> batch) {
+    @SuppressWarnings("unchecked")
+    final var valueSerializer = (RedisSerializer<URL>) redisTemplate.getValueSerializer();
+    final var now = OffsetDateTime.now();
+    final var counts = new int[2];
+
+    try {
+      final RedisCallback<Object> pipeline =
+          connection -> {
+            for (final var operation : batch) {
+              final var key = operation.shortCode.getBytes(StandardCharsets.UTF_8);
+              final var ttlMillis = operation.url == null ? 0 : entryTtlMillis(operation.url, now);
+              if (ttlMillis > 0) {
+                connection
+                    .stringCommands()
+                    .set(
+                        key,
+                        valueSerializer.serialize(operation.url),
+                        Expiration.milliseconds(ttlMillis),
+                        RedisStringCommands.SetOption.upsert());
+                counts[0]++;
+              } else {
+                connection.keyCommands().del(key);
+                counts[1]++;
+              }
+            }
+            return null;
+          };
+      Observation.createNotStarted("url.cache.publish.flush", observationRegistry)
+          .observe(() -> redisTemplate.executePipelined(pipeline));
+      writtenCounter.increment(counts[0]);
+      evictedCounter.increment(counts[1]);
+    } catch (RuntimeException e) {
+      failureCounter.increment();
+      droppedCounter.increment(batch.size());
+      log.warn("Failed to publish {} cache operations to Redis", batch.size(), e);
+    }
+  }
+
+  /**
+   * Returns how long an entry may stay in Redis: the jittered TTL, but never beyond the expiration
+   * time of the mapping. Zero or less means the entry should not be cached.
+   */
+  private long entryTtlMillis(URL url, OffsetDateTime now) {
+    final var jitter = 1.0 - ttlJitter * ThreadLocalRandom.current().nextDouble();
+    final var jitteredTtl = (long) (ttl.toMillis() * jitter);
+    if (url.getExpiresAt() == null) {
+      return jitteredTtl;
+    }
+    return Math.min(jitteredTtl, Duration.between(now, url.getExpiresAt()).toMillis());
+  }
+
+  /** Stops accepting operations and gives the worker a moment to write what is still queued. */
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    if (worker.isAlive()) {
+      worker.join(Duration.ofSeconds(5));
+    }
+  }
+
+  /** A pending write ({@code url} set) or eviction ({@code url} null) of one short code. */
+  static final class Operation {
+    private final String shortCode;
+    private final URL url;
+
+    Operation(String shortCode, URL url) {
+      this.shortCode = shortCode;
+      this.url = url;
+    }
+  }
+}
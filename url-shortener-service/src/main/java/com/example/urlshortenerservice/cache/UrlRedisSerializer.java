@@ -0,0 +1,63 @@
+package com.example.urlshortenerservice.cache;
+
+import com.example.urlshortenercommon.cache.CompactUrlFormat;
+import com.example.urlshortenerservice.models.URL;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Redis value serializer for the {@link URL} entries the write service publishes into the cache of
+ * the read service. It writes the {@link CompactUrlFormat} the read service's {@code
+ * UrlRedisSerializer} reads, so both sides share one implementation of the layout. The JSON form of
+ * the read service cannot be written here, since it names the read service's model class.
+ */
+public class UrlRedisSerializer implements RedisSerializer<URL> {
+  private static final CompactUrlFormat.Decoder<URL> URL_DECODER =
+      (id, originalUrl, createdAtMillis, expiresAtMillis) -> {
+        final var url = new URL();
+        url.setId(id);
+        url.setOriginalUrl(originalUrl);
+        url.setCreatedAt(toDateTime(createdAtMillis));
+        url.setExpiresAt(toDateTime(expiresAtMillis));
+        return url;
+      };
+
+  @Override
+  public byte[] serialize(URL url) throws SerializationException {
+    return url == null
+        ? null
+        : CompactUrlFormat.encode(
+            url.getId(),
+            url.getOriginalUrl(),
+            toEpochMillis(url.getCreatedAt()),
+            toEpochMillis(url.getExpiresAt()));
+  }
+
+  @Override
+  public URL deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (!CompactUrlFormat.isCurrentVersion(bytes)) {
+      throw new SerializationException("Not a compact URL entry");
+    }
+    try {
+      return CompactUrlFormat.decode(bytes, URL_DECODER);
+    } catch (IllegalArgumentException e) {
+      throw new SerializationException(e.getMessage(), e);
+    }
+  }
+
+  private static long toEpochMillis(OffsetDateTime dateTime) {
+    return dateTime == null ? CompactUrlFormat.NO_TIME : dateTime.toInstant().toEpochMilli();
+  }
+
+  private static OffsetDateTime toDateTime(long epochMillis) {
+    return epochMillis == CompactUrlFormat.NO_TIME
+        ? null
+        : OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.urlshortenerservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * {@link DataSource} that sends every query through the request pool, except those issued inside
+ * {@link #onBackgroundPool(Runnable)}, which go through the pool of the scheduled jobs. The route
+ * is kept per thread, so it applies to the queries of one job only.
+ */
+public class BackgroundRoutingDataSource extends AbstractRoutingDataSource {
+  /** The pool a query is sent through. */
+  public enum Route {
+    REQUESTS,
+    BACKGROUND
+  }
+
+  private static final ThreadLocal<Route> CURRENT_ROUTE =
+      ThreadLocal.withInitial(() -> Route.REQUESTS);
+
+  public BackgroundRoutingDataSource(DataSource requests, DataSource background) {
+    setTargetDataSources(Map.of(Route.REQUESTS, requests, Route.BACKGROUND, background));
+    setDefaultTargetDataSource(requests);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Runs the given job with its queries sent through the background pool.
+   *
+   * @param job The job to run.
+   */
+  public static void onBackgroundPool(Runnable job) {
+    final var previous = CURRENT_ROUTE.get();
+    CURRENT_ROUTE.set(Route.BACKGROUND);
+    try {
+      job.run();
+    } finally {
+      CURRENT_ROUTE.set(previous);
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return CURRENT_ROUTE.get();
+  }
+}
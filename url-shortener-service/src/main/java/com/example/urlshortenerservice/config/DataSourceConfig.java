@@ -0,0 +1,78 @@
+package com.example.urlshortenerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for the database connections of the write service: the regular pool on the
+ * primary, configured through {@code spring.datasource.*}, and a second small pool on the same
+ * database for the scheduled purge of expired URLs, configured through {@code
+ * url.background.datasource.hikari.*}, so purge chunks never hold connections shorten requests
+ * wait for.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  /**
+   * Provides the {@code spring.datasource.*} properties of the primary.
+   *
+   * @return The primary connection properties.
+   */
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource")
+  public DataSourceProperties dataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  /**
+   * Provides the connection pool serving requests, bound from {@code spring.datasource.hikari.*}
+   * as Spring Boot's auto-configuration would.
+   *
+   * @param properties The primary connection properties.
+   * @return The request pool.
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource requestDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Provides the connection pool of the scheduled jobs, bound from {@code
+   * url.background.datasource.hikari.*}.
+   *
+   * @param properties The primary connection properties.
+   * @return The background pool.
+   */
+  @Bean
+  @ConfigurationProperties("url.background.datasource.hikari")
+  public HikariDataSource backgroundDataSource(DataSourceProperties properties) {
+    final var dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary-background");
+    return dataSource;
+  }
+
+  /**
+   * Provides the {@link DataSource} used by the repositories, which routes queries to the request
+   * pool unless they run inside {@link BackgroundRoutingDataSource#onBackgroundPool(Runnable)}.
+   *
+   * @param requestDataSource The request pool.
+   * @param backgroundDataSource The pool of the scheduled jobs.
+   * @return The routing {@link DataSource}.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("requestDataSource") DataSource requestDataSource,
+      @Qualifier("backgroundDataSource") DataSource backgroundDataSource) {
+    return new BackgroundRoutingDataSource(requestDataSource, backgroundDataSource);
+  }
+}
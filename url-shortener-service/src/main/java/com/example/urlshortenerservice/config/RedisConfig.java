@@ -0,0 +1,60 @@
+package com.example.urlshortenerservice.config;
+
+import com.example.urlshortenerservice.cache.UrlRedisSerializer;
+import com.example.urlshortenerservice.models.URL;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection.PipeliningFlushPolicy;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/** Configuration class for the Redis cache shared with the read service. */
+@Configuration
+public class RedisConfig {
+
+  /**
+   * Sets how {@link LettuceConnectionFactory} writes pipelined commands, such as the batches the
+   * {@code UrlCachePublisher} writes. By default every command of a pipeline is written to the
+   * socket on its own; buffering them writes {@code flushSize} commands at a time, and the rest when
+   * the pipeline closes. A size of {@code 0} keeps the default.
+   *
+   * @param flushSize The number of pipelined commands written to the socket together.
+   * @return A post-processor that applies the flush policy to the connection factory.
+   */
+  @Bean
+  public static BeanPostProcessor lettucePipeliningFlushPolicy(
+      @Value("${url.redis.pipelining.flush-size:0}") int flushSize) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof LettuceConnectionFactory connectionFactory && flushSize > 0) {
+          connectionFactory.setPipeliningFlushPolicy(PipeliningFlushPolicy.buffered(flushSize));
+        }
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * Configures the {@link RedisTemplate} used to publish new mappings into the cache of the read
+   * service. Keys are short codes written with {@link StringRedisSerializer}; values are written
+   * with {@link UrlRedisSerializer} in the compact form the read service understands.
+   *
+   * @param connectionFactory The Redis connection factory provided by Spring Boot's
+   *     auto-configuration.
+   * @return A fully configured {@link RedisTemplate} instance.
+   */
+  @Bean
+  public RedisTemplate<String, URL> redisTemplate(RedisConnectionFactory connectionFactory) {
+    final var template = new RedisTemplate<String, URL>();
+    template.setConnectionFactory(connectionFactory);
+    template.setKeySerializer(new StringRedisSerializer());
+    template.setValueSerializer(new UrlRedisSerializer());
+    template.afterPropertiesSet();
+    return template;
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.urlshortenerservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Configuration class for the scheduler of the write service's periodic jobs, which runs every job
+ * with its queries sent through the background pool of {@link DataSourceConfig}. Like Spring
+ * Boot's own scheduler it runs jobs on virtual threads when {@code spring.threads.virtual.enabled}
+ * is set, but the runs it starts at once are limited through {@code url.scheduling.pool-size}
+ * rather than {@code spring.task.scheduling.*}. Fixed-delay jobs take turns on the scheduler thread
+ * itself. The bean is declared as a {@link TaskScheduler} only, so Spring Boot still
+ * auto-configures the {@code applicationTaskExecutor} that backs off whenever an {@code Executor}
+ * bean is declared.
+ */
+@Configuration
+public class SchedulingConfig {
+
+  /**
+   * Provides the scheduler of {@code @Scheduled} methods.
+   *
+   * @param virtualThreads Whether jobs run on virtual threads instead of platform threads.
+   * @param concurrencyLimit The most runs started by the scheduler that may be in progress at once.
+   * @return The scheduler.
+   */
+  @Bean
+  public TaskScheduler taskScheduler(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${url.scheduling.pool-size:1}") int concurrencyLimit) {
+    final var scheduler = new BackgroundTaskScheduler();
+    scheduler.setThreadNamePrefix("scheduling-");
+    scheduler.setVirtualThreads(virtualThreads);
+    scheduler.setConcurrencyLimit(concurrencyLimit);
+    scheduler.setTaskDecorator(BackgroundTaskScheduler::onBackgroundPool);
+    return scheduler;
+  }
+
+  /**
+   * Sends the queries of every job through the background pool. Fixed-delay jobs run on the
+   * scheduler thread itself and skip the task decorator, so they are routed here as well.
+   */
+  private static final class BackgroundTaskScheduler extends SimpleAsyncTaskScheduler {
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        Runnable task, Instant startTime, Duration delay) {
+      return super.scheduleWithFixedDelay(onBackgroundPool(task), startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+      return super.scheduleWithFixedDelay(onBackgroundPool(task), delay);
+    }
+
+    private static Runnable onBackgroundPool(Runnable job) {
+      return () -> BackgroundRoutingDataSource.onBackgroundPool(job);
+    }
+  }
+}
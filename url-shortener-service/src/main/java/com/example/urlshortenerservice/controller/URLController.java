@@ -1,17 +1,27 @@
 package com.example.urlshortenerservice.controller;
 
+import com.example.urlshortenerservice.models.BatchItemResult;
 import com.example.urlshortenerservice.models.ErrorResponse;
 import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.service.IdempotentRequests;
 import com.example.urlshortenerservice.service.URLService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * REST Controller for handling URL shortening operations. This controller exposes endpoints for
@@ -21,10 +31,19 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class URLController {
 
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
   private final URLService urlShorteningService;
+  private final IdempotentRequests idempotentRequests;
+  private final ObjectMapper objectMapper;
 
-  public URLController(URLService urlShorteningService) {
+  public URLController(
+      URLService urlShorteningService,
+      IdempotentRequests idempotentRequests,
+      ObjectMapper objectMapper) {
     this.urlShorteningService = urlShorteningService;
+    this.idempotentRequests = idempotentRequests;
+    this.objectMapper = objectMapper;
   }
 
   /**
@@ -32,22 +51,101 @@ public class URLController {
    *
    * <p>This endpoint expects an original URL in the request body. It delegates the shortening
    * process to the {@link URLService} and returns the shortened URL entity along with an HTTP 201
-   * Created status.
+   * Created status. A request repeated with the same {@code Idempotency-Key} header gets the
+   * mapping of the first one.
    *
    * @param request A {@link URL} object containing the original URL to be shortened.
+   * @param idempotencyKey The optional {@code Idempotency-Key} header.
    * @return A {@link ResponseEntity} containing the created {@link URL} entity (with generated
    *     short code and ID) and an {@link HttpStatus#CREATED} (201).
    */
   @PostMapping("/api/v1/urls")
-  public ResponseEntity<URL> shortenUrl(@RequestBody URL request) {
+  public ResponseEntity<URL> shortenUrl(
+      @RequestBody URL request,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
     final URL urlToShorten = new URL();
     urlToShorten.setOriginalUrl(request.getOriginalUrl());
 
-    final var shortenedUrlEntity = urlShorteningService.shortenURL(urlToShorten);
+    final var shortenedUrlEntity =
+        idempotentRequests.execute(
+            idempotencyKey,
+            List.of("single", String.valueOf(request.getOriginalUrl())),
+            () -> urlShorteningService.shortenURL(urlToShorten));
 
     return new ResponseEntity<>(shortenedUrlEntity.get(), HttpStatus.CREATED);
   }
 
+  /**
+   * Handles the POST request to shorten a batch of URLs sent as a JSON array. A request repeated
+   * with the same {@code Idempotency-Key} header gets the results of the first one.
+   *
+   * @param requests {@link URL} objects containing the original URLs to be shortened; {@code null}
+   *     elements are reported as failed items.
+   * @param idempotencyKey The optional {@code Idempotency-Key} header.
+   * @return A {@link ResponseEntity} containing one {@link BatchItemResult} per input URL, in input
+   *     order, with either the generated short code or the reason the URL was rejected.
+   */
+  @PostMapping(value = "/api/v1/urls/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BatchItemResult>> shortenUrls(
+      @RequestBody List<URL> requests,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    final var originalUrls =
+        requests.stream().map(url -> url == null ? null : url.getOriginalUrl()).toList();
+    return new ResponseEntity<>(shortenIdempotently(idempotencyKey, originalUrls), HttpStatus.OK);
+  }
+
+  /**
+   * Handles the POST request to shorten a batch of URLs sent as newline-delimited JSON, one {@link
+   * URL} object per line. The body is read line by line, and a line that cannot be parsed is
+   * reported as a failed item instead of rejecting the whole batch. The URLs are shortened together
+   * once the body has been read, so at most {@code url.batch.max-size} of them are held in memory:
+   * reading stops and the request is rejected as soon as the body holds more lines than that. A
+   * request repeated with the same {@code Idempotency-Key} header gets the results of the first
+   * one.
+   *
+   * @param request The request whose body holds the NDJSON stream.
+   * @param idempotencyKey The optional {@code Idempotency-Key} header.
+   * @return A {@link ResponseEntity} containing one {@link BatchItemResult} per non-blank input
+   *     line, in input order.
+   * @throws IOException If the request body cannot be read.
+   * @throws IllegalArgumentException If the body holds more than {@code url.batch.max-size} URLs.
+   */
+  @PostMapping(value = "/api/v1/urls/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<List<BatchItemResult>> shortenUrlsFromNdjson(
+      HttpServletRequest request,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+      throws IOException {
+    final var maxBatchSize = urlShorteningService.getMaxBatchSize();
+    final var originalUrls = new ArrayList<String>();
+    try (BufferedReader reader = request.getReader()) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        if (originalUrls.size() == maxBatchSize) {
+          throw new IllegalArgumentException(
+              "Batch must contain between 1 and " + maxBatchSize + " URLs");
+        }
+        try {
+          final var url = objectMapper.readValue(line, URL.class);
+          originalUrls.add(url == null ? null : url.getOriginalUrl());
+        } catch (JsonProcessingException e) {
+          originalUrls.add(null);
+        }
+      }
+    }
+    return new ResponseEntity<>(shortenIdempotently(idempotencyKey, originalUrls), HttpStatus.OK);
+  }
+
+  private List<BatchItemResult> shortenIdempotently(
+      String idempotencyKey, List<String> originalUrls) {
+    return idempotentRequests.execute(
+        idempotencyKey,
+        List.of("batch", originalUrls),
+        () -> urlShorteningService.shortenURLs(originalUrls));
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
@@ -82,4 +180,17 @@ public class URLController {
             request.getRequestURI()),
         HttpStatus.BAD_REQUEST);
   }
+
+  @ExceptionHandler(IdempotentRequests.RequestInProgressException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ResponseEntity<ErrorResponse> handleRequestInProgressException(
+      IdempotentRequests.RequestInProgressException ex, HttpServletRequest request) {
+    return new ResponseEntity<>(
+        new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            HttpStatus.CONFLICT.getReasonPhrase(),
+            ex.getMessage(),
+            request.getRequestURI()),
+        HttpStatus.CONFLICT);
+  }
 }
@@ -0,0 +1,53 @@
+package com.example.urlshortenerservice.models;
+
+import java.time.OffsetDateTime;
+
+public class BatchItemResult {
+  private int index;
+  private String originalUrl;
+  private String shortUrlCode;
+  private OffsetDateTime expiresAt;
+  private String error;
+
+  private BatchItemResult(
+      int index,
+      String originalUrl,
+      String shortUrlCode,
+      OffsetDateTime expiresAt,
+      String error) {
+    this.index = index;
+    this.originalUrl = originalUrl;
+    this.shortUrlCode = shortUrlCode;
+    this.expiresAt = expiresAt;
+    this.error = error;
+  }
+
+  public static BatchItemResult created(int index, URL url) {
+    return new BatchItemResult(
+        index, url.getOriginalUrl(), url.getShortUrlCode(), url.getExpiresAt(), null);
+  }
+
+  public static BatchItemResult failed(int index, String originalUrl, String error) {
+    return new BatchItemResult(index, originalUrl, null, null, error);
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getOriginalUrl() {
+    return originalUrl;
+  }
+
+  public String getShortUrlCode() {
+    return shortUrlCode;
+  }
+
+  public OffsetDateTime getExpiresAt() {
+    return expiresAt;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
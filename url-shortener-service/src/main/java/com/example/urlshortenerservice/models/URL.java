@@ -1,5 +1,6 @@
 package com.example.urlshortenerservice.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.OffsetDateTime;
 
 public class URL {
@@ -8,6 +9,8 @@ public class URL {
     private String shortUrlCode;
     private OffsetDateTime createdAt;
     private OffsetDateTime expiresAt;
+    @JsonIgnore
+    private Long originalUrlHash;
 
     public URL() {
     }
@@ -40,6 +43,10 @@ public class URL {
         return expiresAt;
     }
 
+    public Long getOriginalUrlHash() {
+        return originalUrlHash;
+    }
+
     public void setId(long id) {
         this.id = id;
     }
@@ -59,4 +66,8 @@ public class URL {
     public void setExpiresAt(OffsetDateTime expiresAt) {
         this.expiresAt = expiresAt;
     }
+
+    public void setOriginalUrlHash(Long originalUrlHash) {
+        this.originalUrlHash = originalUrlHash;
+    }
 }
@@ -3,11 +3,22 @@ package com.example.urlshortenerservice.repository;
 import com.example.urlshortenerservice.models.URL;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface URLRepository {
     Optional<URL> save(URL url);
+    Optional<URL> saveWithId(URL url);
+    int[] saveAllWithIds(List<URL> urls);
+    long reserveIdBlock();
+    Optional<Long> idSequenceIncrement();
     Optional<URL> updateShortUrlCode(long id, String shortUrlCode);
     Optional<URL> findById(long id);
-    int deleteExpiresUrl(OffsetDateTime currentTime);
+    List<URL> findCreatedAfterByOriginalUrlHashes(
+            List<Long> originalUrlHashes, OffsetDateTime createdAfter);
+    List<URL> findExpired(OffsetDateTime currentTime, int limit);
+    int deleteExpiredByIds(List<Long> ids, OffsetDateTime currentTime);
+    long replicationLagBytes();
+    int deleteById(long id);
+    int deleteTombstonesBefore(OffsetDateTime deletedBefore);
 }
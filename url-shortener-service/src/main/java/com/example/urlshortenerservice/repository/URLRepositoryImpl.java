@@ -1,15 +1,21 @@
 package com.example.urlshortenerservice.repository;
 
 import com.example.urlshortenerservice.models.URL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,6 +24,9 @@ import java.util.Optional;
  */
 @Repository
 public class URLRepositoryImpl implements URLRepository {
+  private static final Logger log = LoggerFactory.getLogger(URLRepositoryImpl.class);
+
+  private static final int BATCH_SIZE = 1000;
 
   private final JdbcTemplate jdbcTemplate;
 
@@ -61,9 +70,9 @@ public class URLRepositoryImpl implements URLRepository {
       if (keyHolder.getKey() != null) {
         url.setId(keyHolder.getKey().longValue());
       } else {
-        System.err.println(
-            "Warning: Insert successful but generated ID was not retrieved for URL: "
-                + url.getOriginalUrl());
+        log.warn(
+            "Insert successful but generated ID was not retrieved for URL: {}",
+            url.getOriginalUrl());
       }
       return Optional.of(url);
     } else {
@@ -71,6 +80,113 @@ public class URLRepositoryImpl implements URLRepository {
     }
   }
 
+  /**
+   * Saves a new {@link URL} entity whose ID and short code have already been assigned. Unlike
+   * {@link #save(URL)}, this writes the complete row with a single INSERT and does not read any
+   * generated key back. The {@code original_url_hash} column is only written if the hash is set,
+   * so databases without it keep working while deduplication is disabled.
+   *
+   * @param url The {@link URL} object to be saved, with its 'id' and 'shortUrlCode' populated.
+   * @return An {@link Optional} containing the saved {@link URL} object, or an empty Optional if the
+   *     save operation affected no rows.
+   * @throws DuplicateKeyException If the ID or the short code is already taken.
+   */
+  @Override
+  public Optional<URL> saveWithId(URL url) throws DuplicateKeyException {
+    final var withHash = url.getOriginalUrlHash() != null;
+
+    final var affectedRows =
+        jdbcTemplate.update(insertSql(withHash), ps -> setInsertParameters(ps, url, withHash));
+
+    return affectedRows > 0 ? Optional.of(url) : Optional.empty();
+  }
+
+  /**
+   * Saves a list of {@link URL} entities whose IDs and short codes have already been assigned. The
+   * rows are sent as JDBC batches of {@code BATCH_SIZE} statements within one transaction; with the
+   * PostgreSQL driver's {@code reWriteBatchedInserts} option each batch becomes a multi-row INSERT.
+   * The {@code original_url_hash} column is only written if any of the entities has a hash.
+   *
+   * @param urls The {@link URL} objects to be saved, each with its 'id' and 'shortUrlCode'
+   *     populated.
+   * @return The number of affected rows for each entity, in the order of the given list.
+   * @throws DuplicateKeyException If any ID or short code is already taken, in which case none of
+   *     the entities are saved.
+   */
+  @Override
+  @Transactional
+  public int[] saveAllWithIds(List<URL> urls) throws DuplicateKeyException {
+    final var withHash = urls.stream().anyMatch(url -> url.getOriginalUrlHash() != null);
+
+    final var batches =
+        jdbcTemplate.batchUpdate(
+            insertSql(withHash),
+            urls,
+            BATCH_SIZE,
+            (ps, url) -> setInsertParameters(ps, url, withHash));
+
+    final var affectedRows = new int[urls.size()];
+    var position = 0;
+    for (final var batch : batches) {
+      for (final var rows : batch) {
+        affectedRows[position++] = rows;
+      }
+    }
+    return affectedRows;
+  }
+
+  private static String insertSql(boolean withHash) {
+    return withHash
+        ? "INSERT INTO urls (id, original_url, short_url_code, created_at, expires_at,"
+            + " original_url_hash) VALUES (?, ?, ?, ?, ?, ?)"
+        : "INSERT INTO urls (id, original_url, short_url_code, created_at, expires_at)"
+            + " VALUES (?, ?, ?, ?, ?)";
+  }
+
+  private static void setInsertParameters(PreparedStatement ps, URL url, boolean withHash)
+      throws SQLException {
+    ps.setLong(1, url.getId());
+    ps.setString(2, url.getOriginalUrl());
+    ps.setString(3, url.getShortUrlCode());
+    ps.setObject(4, url.getCreatedAt());
+    ps.setObject(5, url.getExpiresAt());
+    if (withHash) {
+      ps.setObject(6, url.getOriginalUrlHash(), Types.BIGINT);
+    }
+  }
+
+  /**
+   * Reserves a block of IDs by advancing the {@code urls_id_seq} sequence once. The sequence is
+   * created with {@code INCREMENT BY} equal to the block size, so the returned value is the first
+   * ID of a range that no other caller will receive.
+   *
+   * @return The first ID of the reserved block.
+   * @throws DataRetrievalFailureException If the sequence did not return a value.
+   */
+  @Override
+  public long reserveIdBlock() {
+    final var blockStart = jdbcTemplate.queryForObject("SELECT nextval('urls_id_seq')", Long.class);
+    if (blockStart == null) {
+      throw new DataRetrievalFailureException("Failed to reserve a block of URL ids");
+    }
+    return blockStart;
+  }
+
+  /**
+   * Reads the {@code INCREMENT BY} of the {@code urls_id_seq} sequence, which is the number of IDs
+   * a single {@link #reserveIdBlock()} call reserves.
+   *
+   * @return An {@link Optional} containing the increment, or an empty Optional if the sequence does
+   *     not exist.
+   */
+  @Override
+  public Optional<Long> idSequenceIncrement() {
+    final var sql =
+        "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences"
+            + " WHERE LOWER(sequence_name) = 'urls_id_seq'";
+    return jdbcTemplate.queryForList(sql, Long.class).stream().findFirst();
+  }
+
   /**
    * Updates the {@code short_url_code} for an existing {@link URL} record identified by its ID.
    *
@@ -87,9 +203,7 @@ public class URLRepositoryImpl implements URLRepository {
     final var affectedRows = jdbcTemplate.update(sql, shortUrlCode, id);
     if (affectedRows == 0) {
       throw new DataRetrievalFailureException(
-          "Failed to update click count for short URL: "
-              + shortUrlCode
-              + ". Record not found or not updated.");
+          "Failed to update short URL code of id " + id + ". Record not found or not updated.");
     }
 
     return Optional.ofNullable(
@@ -118,10 +232,132 @@ public class URLRepositoryImpl implements URLRepository {
     }
   }
 
+  /**
+   * Finds the mappings created after the given time whose original URL has one of the given
+   * hashes, using the index on {@code original_url_hash}. As hashes may collide, callers must
+   * compare the original URLs of the returned mappings.
+   *
+   * @param originalUrlHashes The hashes to look up.
+   * @param createdAfter The point in time the mappings must have been created after.
+   * @return The matching {@link URL} records, newest first, with their hash populated.
+   */
+  @Override
+  public List<URL> findCreatedAfterByOriginalUrlHashes(
+      List<Long> originalUrlHashes, OffsetDateTime createdAfter) {
+    if (originalUrlHashes.isEmpty()) {
+      return List.of();
+    }
+    final var sql =
+        "SELECT id, original_url, short_url_code, created_at, expires_at, original_url_hash"
+            + " FROM urls WHERE original_url_hash = ANY(?) AND created_at > ?"
+            + " ORDER BY created_at DESC";
+    return jdbcTemplate.query(
+        sql,
+        ps -> {
+          ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", originalUrlHashes.toArray()));
+          ps.setObject(2, createdAfter);
+        },
+        (rs, rowNum) -> {
+          final var urlMapping = rowMapper.mapRow(rs, rowNum);
+          urlMapping.setOriginalUrlHash(rs.getLong("original_url_hash"));
+          return urlMapping;
+        });
+  }
+
+  /**
+   * Finds up to {@code limit} mappings that expired before the given time, oldest first, using the
+   * index on {@code expires_at}. Only the ID and the stored short code are read.
+   *
+   * @param currentTime The point in time to compare the expiration times against.
+   * @param limit The maximum number of mappings to return.
+   * @return The expired {@link URL} records with only 'id' and 'shortUrlCode' populated.
+   */
+  @Override
+  public List<URL> findExpired(OffsetDateTime currentTime, int limit) {
+    final var sql =
+        "SELECT id, short_url_code FROM urls WHERE expires_at < ? ORDER BY expires_at LIMIT ?";
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) -> {
+          final var urlMapping = new URL();
+          urlMapping.setId(rs.getLong("id"));
+          urlMapping.setShortUrlCode(rs.getString("short_url_code"));
+          return urlMapping;
+        },
+        currentTime,
+        limit);
+  }
+
+  /**
+   * Deletes the mappings with the given IDs in a single statement, as long as they are still
+   * expired. Meant to be called with the IDs returned by {@link #findExpired(OffsetDateTime, int)},
+   * so each call removes one bounded chunk in its own short transaction.
+   *
+   * @param ids The IDs of the mappings to delete.
+   * @param currentTime The point in time the mappings must have expired before.
+   * @return The number of deleted rows.
+   */
+  @Override
+  public int deleteExpiredByIds(List<Long> ids, OffsetDateTime currentTime) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    final var sql = "DELETE FROM urls WHERE id = ANY(?) AND expires_at < ?";
+    return jdbcTemplate.update(
+        sql,
+        ps -> {
+          ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", ids.toArray()));
+          ps.setObject(2, currentTime);
+        });
+  }
+
+  /**
+   * Returns how far the slowest streaming replica lags behind this primary, as the number of WAL
+   * bytes it has not replayed yet.
+   *
+   * @return The replay lag in bytes, {@code 0} if no replica is connected.
+   * @throws org.springframework.dao.DataAccessException If the database does not expose {@code
+   *     pg_stat_replication}, e.g. when it is not PostgreSQL.
+   */
+  @Override
+  public long replicationLagBytes() {
+    final var sql =
+        "SELECT CAST(COALESCE(MAX(pg_wal_lsn_diff(pg_current_wal_lsn(), replay_lsn)), 0) AS BIGINT)"
+            + " FROM pg_stat_replication";
+    final var lag = jdbcTemplate.queryForObject(sql, Long.class);
+    return lag == null ? 0 : lag;
+  }
+
+  /**
+   * Deletes the {@link URL} record with the given database ID and leaves a tombstone for it in
+   * {@code url_tombstones}, through which the read services' snapshots drop the mapping before it
+   * expires. Both happen in one transaction.
+   *
+   * @param id The ID of the URL record to delete.
+   * @return The number of deleted rows, {@code 0} if no record matches the given ID.
+   */
+  @Override
+  @Transactional
+  public int deleteById(long id) {
+    final var tombstoneSql =
+        "INSERT INTO url_tombstones (id) SELECT id FROM urls u WHERE u.id = ?"
+            + " AND NOT EXISTS (SELECT 1 FROM url_tombstones t WHERE t.id = u.id)";
+    jdbcTemplate.update(tombstoneSql, id);
+    final var sql = "DELETE FROM urls WHERE id = ?";
+    return jdbcTemplate.update(sql, id);
+  }
+
+  /**
+   * Deletes the tombstones of mappings deleted before the given point in time. Tombstones only
+   * have to outlive the read services' full snapshot rebuilds, which drop deleted mappings anyway.
+   *
+   * @param deletedBefore The point in time the tombstones must have been written before.
+   * @return The number of deleted tombstones.
+   */
   @Override
-  public int deleteExpiresUrl(OffsetDateTime currentTime) {
-    final var sql = "DELETE FROM urls WHERE expires_at < ?";
-    return jdbcTemplate.update(sql, currentTime);
+  public int deleteTombstonesBefore(OffsetDateTime deletedBefore) {
+    final var sql = "DELETE FROM url_tombstones WHERE deleted_at < ?";
+    return jdbcTemplate.update(sql, deletedBefore);
   }
 
   private final RowMapper<URL> rowMapper =
@@ -1,25 +1,48 @@
 package com.example.urlshortenerservice.scheduler;
 
-import com.example.urlshortenerservice.service.URLService;
+import com.example.urlshortenerservice.repository.URLRepository;
+import com.example.urlshortenerservice.service.ExpiredUrlPurger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 
 /** Scheduled task component responsible for periodically cleaning up expired URLs. */
 @Component
 public class ExpiredUrlCleanupScheduler {
-  private final URLService urlService;
+  private static final Logger log = LoggerFactory.getLogger(ExpiredUrlCleanupScheduler.class);
 
-  public ExpiredUrlCleanupScheduler(URLService urlService) {
-    this.urlService = urlService;
+  private final ExpiredUrlPurger expiredUrlPurger;
+  private final URLRepository urlRepository;
+  private final Duration tombstoneRetention;
+
+  public ExpiredUrlCleanupScheduler(
+      ExpiredUrlPurger expiredUrlPurger,
+      URLRepository urlRepository,
+      @Value("${url.tombstone.retention:1d}") Duration tombstoneRetention) {
+    this.expiredUrlPurger = expiredUrlPurger;
+    this.urlRepository = urlRepository;
+    this.tombstoneRetention = tombstoneRetention;
   }
 
   /**
-   * This method is scheduled to run periodically to delete expired URLs from the database.
+   * This method is scheduled to run frequently to delete expired URLs from the database. Each run
+   * deletes a bounded number of small chunks, so runs are short and the backlog is worked off
+   * gradually instead of in one large daily delete. Tombstones older than {@code
+   * url.tombstone.retention} are deleted along the way.
    */
-  @Scheduled(fixedRate = 86400000)
+  @Scheduled(
+      initialDelayString = "${url.purge.interval:60000}",
+      fixedDelayString = "${url.purge.interval:60000}")
   public void cleanupExpiredUrls() {
-    int deletedCount = urlService.deleteExpiredUrls(OffsetDateTime.now());
-    System.out.println("Deleted " + deletedCount + " expired URLs.");
+    final var now = OffsetDateTime.now();
+    final var deletedCount = expiredUrlPurger.purge(now);
+    if (deletedCount > 0) {
+      log.info("Deleted {} expired URLs.", deletedCount);
+    }
+    urlRepository.deleteTombstonesBefore(now.minus(tombstoneRetention));
   }
 }
@@ -0,0 +1,173 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerservice.cache.UrlCachePublisher;
+import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired mappings in small chunks instead of one large {@code DELETE}.
+ *
+ * <p>Each chunk selects up to {@code url.purge.chunk-size} expired IDs through the index on {@code
+ * expires_at} and deletes them by primary key in its own short transaction, so no statement holds
+ * locks on or writes WAL for more than one chunk. Between chunks the purger pauses, and it checks
+ * how far the streaming replica lags behind: the pause grows with the lag, and a run stops early
+ * once the lag exceeds {@code url.purge.max-replication-lag}, leaving the rest to the next run.
+ * On databases without {@code pg_stat_replication}, or without the permission to read it, the lag
+ * is treated as zero from then on; any other failure to measure it ends the run, and the next run
+ * tries again. The short codes of deleted mappings are evicted from the shared Redis cache through
+ * the {@link UrlCachePublisher}.
+ *
+ * <p>Progress is published through Micrometer as {@code url.purge.deleted}, {@code
+ * url.purge.chunks} and {@code url.purge.throttled} counters and a {@code
+ * url.purge.replication.lag} gauge in bytes.
+ */
+@Service
+public class ExpiredUrlPurger {
+  private static final Logger log = LoggerFactory.getLogger(ExpiredUrlPurger.class);
+  private static final long UNKNOWN_LAG = -1;
+
+  private final URLRepositoryImpl urlRepository;
+  private final ShortCodeCodec shortCodeCodec;
+  private final UrlCachePublisher urlCachePublisher;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+  private final Duration pauseBetweenChunks;
+  private final long maxReplicationLagBytes;
+  private final Counter deletedCounter;
+  private final Counter chunkCounter;
+  private final Counter throttledCounter;
+  private final AtomicLong replicationLag = new AtomicLong();
+  private volatile boolean replicationLagAvailable = true;
+
+  public ExpiredUrlPurger(
+      URLRepositoryImpl urlRepository,
+      ShortCodeCodec shortCodeCodec,
+      UrlCachePublisher urlCachePublisher,
+      @Value("${url.purge.chunk-size:1000}") int chunkSize,
+      @Value("${url.purge.max-chunks-per-run:500}") int maxChunksPerRun,
+      @Value("${url.purge.pause-between-chunks:50ms}") Duration pauseBetweenChunks,
+      @Value("${url.purge.max-replication-lag:16MB}") DataSize maxReplicationLag,
+      MeterRegistry meterRegistry) {
+    if (chunkSize <= 0 || maxChunksPerRun <= 0) {
+      throw new IllegalArgumentException("Purge chunk size and chunks per run must be positive");
+    }
+    this.urlRepository = urlRepository;
+    this.shortCodeCodec = shortCodeCodec;
+    this.urlCachePublisher = urlCachePublisher;
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+    this.pauseBetweenChunks = pauseBetweenChunks;
+    this.maxReplicationLagBytes = maxReplicationLag.toBytes();
+    this.deletedCounter = meterRegistry.counter("url.purge.deleted");
+    this.chunkCounter = meterRegistry.counter("url.purge.chunks");
+    this.throttledCounter = meterRegistry.counter("url.purge.throttled");
+    Gauge.builder("url.purge.replication.lag", replicationLag, AtomicLong::get)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Deletes mappings that expired before the given time, chunk by chunk, until none are left, the
+   * chunk budget of the run is used up, or the replica falls too far behind.
+   *
+   * @param currentTime The point in time to compare the expiration times against.
+   * @return The number of mappings deleted in this run.
+   */
+  public int purge(OffsetDateTime currentTime) {
+    var deleted = 0;
+
+    for (var chunk = 0; chunk < maxChunksPerRun; chunk++) {
+      final var lag = currentReplicationLag();
+      if (lag == UNKNOWN_LAG) {
+        break;
+      }
+      if (lag > maxReplicationLagBytes) {
+        throttledCounter.increment();
+        log.info("Stopping purge run: replica is {} bytes behind", lag);
+        break;
+      }
+
+      final var expired = urlRepository.findExpired(currentTime, chunkSize);
+      if (expired.isEmpty()) {
+        break;
+      }
+
+      final var ids = expired.stream().map(URL::getId).toList();
+      final var deletedInChunk = urlRepository.deleteExpiredByIds(ids, currentTime);
+      deleted += deletedInChunk;
+      deletedCounter.increment(deletedInChunk);
+      urlCachePublisher.evict(expired.stream().map(this::shortCodeOf).toList());
+      chunkCounter.increment();
+
+      if (expired.size() < chunkSize || !pause(lag)) {
+        break;
+      }
+    }
+
+    return deleted;
+  }
+
+  /**
+   * Sleeps between two chunks, from the configured pause when the replica is in sync up to four
+   * times as long when it is close to the lag limit.
+   *
+   * @param lag The replication lag measured before the last chunk, in bytes.
+   * @return {@code false} if the thread was interrupted and the run should stop.
+   */
+  private boolean pause(long lag) {
+    final var scale = 1.0 + 3.0 * Math.min(1.0, (double) lag / Math.max(1, maxReplicationLagBytes));
+    try {
+      Thread.sleep((long) (pauseBetweenChunks.toMillis() * scale));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /** Returns the stored short code of a mapping, or the generated one if it is not stored. */
+  private String shortCodeOf(URL url) {
+    return url.getShortUrlCode() != null
+        ? url.getShortUrlCode()
+        : shortCodeCodec.encode(url.getId());
+  }
+
+  /**
+   * Measures the replication lag. Only errors that will not go away by themselves, a missing
+   * function or view or a missing permission, switch lag-based pacing off for good.
+   *
+   * @return The lag in bytes, or {@link #UNKNOWN_LAG} if it could not be measured this time.
+   */
+  private long currentReplicationLag() {
+    if (!replicationLagAvailable) {
+      return 0;
+    }
+    try {
+      final var lag = urlRepository.replicationLagBytes();
+      replicationLag.set(lag);
+      return lag;
+    } catch (InvalidDataAccessResourceUsageException | PermissionDeniedDataAccessException e) {
+      replicationLagAvailable = false;
+      log.info("Replication lag is not available, purging without lag-based pacing", e);
+      return 0;
+    } catch (DataAccessException e) {
+      log.warn("Stopping purge run: replication lag could not be measured", e);
+      return UNKNOWN_LAG;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out primary keys for new {@code urls} rows from blocks leased from the database sequence.
+ *
+ * <p>The {@code urls_id_seq} sequence is configured with {@code INCREMENT BY} equal to the block
+ * size, so a single {@code nextval} call reserves a whole range of ids for this instance. Ids
+ * inside the current block are handed out with a lock-free {@link AtomicLong} increment; only the
+ * thread that finds the block exhausted takes the lock and leases the next one. Ids left in a
+ * block when the service stops are simply never used. Each lease is observed as {@code
+ * url.id.block.lease}. As a block size that differs from the increment would hand out ids twice,
+ * the first lease checks that both match and no id is handed out until they do. The check runs on
+ * first use rather than at startup, so the service starts while the database is unreachable.
+ */
+@Component
+public class IdBlockAllocator {
+  private final URLRepositoryImpl urlRepository;
+  private final ObservationRegistry observationRegistry;
+  private final long blockSize;
+  private final AtomicReference<IdBlock> currentBlock = new AtomicReference<>();
+  private final ReentrantLock leaseLock = new ReentrantLock();
+  private boolean blockSizeVerified;
+
+  public IdBlockAllocator(
+      URLRepositoryImpl urlRepository,
+      ObservationRegistry observationRegistry,
+      @Value("${url.id-block.size:10000}") long blockSize) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Id block size must be positive: " + blockSize);
+    }
+    this.urlRepository = urlRepository;
+    this.observationRegistry = observationRegistry;
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Fails unless {@code url.id-block.size} matches the {@code INCREMENT BY} of the sequence.
+   * A larger block would overlap the next lease, a smaller one would only waste ids, but either
+   * means the configuration and the database went out of sync.
+   *
+   * @throws IllegalStateException If the sequence is missing or its increment differs.
+   */
+  private void verifyBlockSize() {
+    final var increment =
+        urlRepository
+            .idSequenceIncrement()
+            .orElseThrow(() -> new IllegalStateException("Sequence urls_id_seq does not exist"));
+    if (increment != blockSize) {
+      throw new IllegalStateException(
+          "url.id-block.size is "
+              + blockSize
+              + " but urls_id_seq increments by "
+              + increment
+              + "; both must be equal");
+    }
+  }
+
+  /**
+   * Returns the next unused id, leasing a new block from the database when the current one is
+   * exhausted.
+   *
+   * @return A primary key that has not been handed out before.
+   */
+  public long nextId() {
+    while (true) {
+      final var block = currentBlock.get();
+      if (block != null) {
+        final var id = block.next.getAndIncrement();
+        if (id < block.end) {
+          return id;
+        }
+      }
+      leaseNextBlock(block);
+    }
+  }
+
+  /**
+   * Replaces the exhausted block with a freshly leased one, unless another thread has already done
+   * so while this one was waiting for the lock.
+   *
+   * @param exhausted The block the calling thread found exhausted, or {@code null} before the first
+   *     lease.
+   */
+  private void leaseNextBlock(IdBlock exhausted) {
+    leaseLock.lock();
+    try {
+      if (currentBlock.get() == exhausted) {
+        if (!blockSizeVerified) {
+          verifyBlockSize();
+          blockSizeVerified = true;
+        }
+        final long start =
+            Observation.createNotStarted("url.id.block.lease", observationRegistry)
+                .observe(urlRepository::reserveIdBlock);
+        currentBlock.set(new IdBlock(start, start + blockSize));
+      }
+    } finally {
+      leaseLock.unlock();
+    }
+  }
+
+  /** A half-open range {@code [start, end)} of ids owned by this instance. */
+  private static final class IdBlock {
+    private final AtomicLong next;
+    private final long end;
+
+    private IdBlock(long start, long end) {
+      this.next = new AtomicLong(start);
+      this.end = end;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.example.urlshortenerservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests sent with an {@code Idempotency-Key} header at most once per key, so a client that
+ * retries a shorten request after a timeout gets the mapping of its first attempt instead of a
+ * second one.
+ *
+ * <p>The result of each key is remembered for {@code url.idempotency.ttl}. Results are weighed by
+ * the number of mappings they hold, and at most {@code url.idempotency.max-results} mappings are
+ * remembered in total, so a few large batches cannot hold more memory than many single requests.
+ * A retry arriving while the first attempt is still running waits for it and shares its result,
+ * for up to {@code url.idempotency.wait-timeout}. An attempt that fails is forgotten, so it can be
+ * retried with the same key. Keys are remembered per instance only; with several instances behind
+ * a load balancer, {@link UrlDeduplicator} still maps retries that land on another instance to the
+ * same mapping as long as deduplication is enabled.
+ */
+@Service
+public class IdempotentRequests {
+  /** Longest accepted key, enough for any UUID or client-generated token. */
+  static final int MAX_KEY_LENGTH = 255;
+
+  private final Cache<String, Execution> executions;
+  private final long waitTimeoutMillis;
+
+  @Autowired
+  public IdempotentRequests(
+      @Value("${url.idempotency.ttl:24h}") Duration ttl,
+      @Value("${url.idempotency.max-results:100000}") long maxResults,
+      @Value("${url.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+    this(ttl, maxResults, waitTimeout, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates the store with the executor its cache maintenance runs on, so tests can evict in the
+   * calling thread.
+   */
+  IdempotentRequests(Duration ttl, long maxResults, Duration waitTimeout, Executor executor) {
+    this.executions =
+        Caffeine.newBuilder()
+            .maximumWeight(maxResults)
+            .weigher((String key, Execution execution) -> execution.weight())
+            .expireAfterWrite(ttl)
+            .executor(executor)
+            .build();
+    this.waitTimeoutMillis = waitTimeout.toMillis();
+  }
+
+  /**
+   * Runs the given request unless a request with the same key has already run, in which case its
+   * result is returned again.
+   *
+   * @param key The value of the {@code Idempotency-Key} header, or {@code null} if it was not sent.
+   * @param request Identifies the request, such as the endpoint and the URLs to shorten. A key may
+   *     only be reused for an equal request.
+   * @param work The request to run.
+   * @return The result of {@code work}, either of this call or of the first one with the same key.
+   * @throws IllegalArgumentException If the key is blank or too long, or was already used for a
+   *     different request.
+   * @throws RequestInProgressException If the first request with the same key is still running
+   *     after the wait timeout.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, Object request, Supplier<T> work) {
+    if (key == null) {
+      return work.get();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+    }
+
+    final var execution = new Execution(request);
+    final var previous = executions.asMap().putIfAbsent(key, execution);
+    if (previous != null) {
+      if (!previous.request.equals(request)) {
+        throw new IllegalArgumentException(
+            "Idempotency-Key " + key + " was already used for a different request");
+      }
+      return (T) previous.await(key, waitTimeoutMillis);
+    }
+
+    try {
+      final var result = work.get();
+      execution.result.complete(result);
+      // Weighs the entry again now that the size of its result is known
+      executions.asMap().replace(key, execution, execution);
+      return result;
+    } catch (Throwable e) {
+      executions.asMap().remove(key, execution);
+      execution.result.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /** Thrown to a retry whose first attempt is still running after the wait timeout. */
+  public static class RequestInProgressException extends RuntimeException {
+    public RequestInProgressException(String key) {
+      super("A request with Idempotency-Key " + key + " is still in progress");
+    }
+  }
+
+  private static final class Execution {
+    private final Object request;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    private Execution(Object request) {
+      this.request = request;
+    }
+
+    /** Counts the mappings in the result, or one while it is not known yet. */
+    private int weight() {
+      return result.state() == Future.State.SUCCESS
+              && result.resultNow() instanceof Collection<?> results
+          ? Math.max(results.size(), 1)
+          : 1;
+    }
+
+    private Object await(String key, long timeoutMillis) {
+      try {
+        return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        throw new RequestInProgressException(key);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RequestInProgressException(key);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        if (e.getCause() instanceof Error cause) {
+          throw cause;
+        }
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+  }
+}
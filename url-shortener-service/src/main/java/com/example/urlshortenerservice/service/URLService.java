@@ -1,82 +1,287 @@
 package com.example.urlshortenerservice.service;
 
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerservice.cache.UrlCachePublisher;
+import com.example.urlshortenerservice.models.BatchItemResult;
 import com.example.urlshortenerservice.models.URL;
 import com.example.urlshortenerservice.repository.URLRepositoryImpl;
-import com.example.urlshortenerservice.utils.ShortCodeGenerator;
-import com.example.urlshortenerservice.utils.URLChecker;
+import com.example.urlshortenerservice.utils.UrlFingerprint;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service class responsible for handling the core business logic of URL shortening. This includes
  * validating URLs, generating unique short codes, persisting URL data, and retrieving original URLs
  * from short codes. It orchestrates operations between the controller and the repository layers.
+ *
+ * <p>The deduplication, validation and insert stages are observed as {@code url.shorten.stage},
+ * tagged with the {@code stage} and whether the {@code request} was a {@code single} URL or a
+ * {@code batch}.
  */
 @Service
 public class URLService {
 
   private final URLRepositoryImpl urlRepository;
+  private final IdBlockAllocator idBlockAllocator;
+  private final URLValidationService urlValidationService;
+  private final ShortCodeCodec shortCodeCodec;
+  private final UrlCachePublisher urlCachePublisher;
+  private final UrlDeduplicator urlDeduplicator;
+  private final ObservationRegistry observationRegistry;
+  private final int maxBatchSize;
+  private final boolean persistGeneratedCodes;
   private final int URL_LIFE_LENGTH = 7;
 
-  public URLService(URLRepositoryImpl urlRepository) {
+  public URLService(
+      URLRepositoryImpl urlRepository,
+      IdBlockAllocator idBlockAllocator,
+      URLValidationService urlValidationService,
+      ShortCodeCodec shortCodeCodec,
+      UrlCachePublisher urlCachePublisher,
+      UrlDeduplicator urlDeduplicator,
+      ObservationRegistry observationRegistry,
+      @Value("${url.batch.max-size:10000}") int maxBatchSize,
+      @Value("${url.short-code.persist-generated:true}") boolean persistGeneratedCodes) {
     this.urlRepository = urlRepository;
+    this.idBlockAllocator = idBlockAllocator;
+    this.urlValidationService = urlValidationService;
+    this.shortCodeCodec = shortCodeCodec;
+    this.urlCachePublisher = urlCachePublisher;
+    this.urlDeduplicator = urlDeduplicator;
+    this.observationRegistry = observationRegistry;
+    this.maxBatchSize = maxBatchSize;
+    this.persistGeneratedCodes = persistGeneratedCodes;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
   }
 
   /**
    * Shortens a given original URL.
    *
-   * <p>This operation is transactional, ensuring atomicity (either all steps succeed or all are
-   * rolled back).
+   * <p>The ID is taken from a block pre-allocated by {@link IdBlockAllocator} and the short code is
+   * derived from it by the {@link ShortCodeCodec} before the row is written, so the whole mapping
+   * is persisted with a single INSERT. Unless {@code url.short-code.persist-generated} is set, the
+   * generated code is not stored in the {@code short_url_code} column at all, since the read
+   * service resolves it by decoding it back into the ID.
+   *
+   * <p>How far the original URL is checked before it is accepted depends on the {@link
+   * URLValidationService.Mode}. In asynchronous mode the mapping is removed again if the background
+   * check finds the URL unreachable.
+   *
+   * <p>Once saved, the mapping is published into the shared Redis cache through the {@link
+   * UrlCachePublisher}, so its first redirect does not depend on the replica having caught up.
+   *
+   * <p>With {@code url.dedup.enabled}, a URL shortened again within the deduplication window gets
+   * its existing mapping back from the {@link UrlDeduplicator}, without being validated or saved
+   * again.
    *
    * @param urlToBeShorten A {@link URL} object containing at least the original URL.
    * @return The {@link URL} entity with the generated short code and database ID.
-   * @throws IllegalArgumentException If the original URL is invalid, inaccessible, or if the
-   *     initial save fails unexpectedly.
+   * @throws IllegalArgumentException If the original URL is invalid, inaccessible, or if the save
+   *     fails unexpectedly.
    * @throws DuplicateKeyException If a unique constraint is violated during the save operation
    *     (e.g., trying to save the exact same URL again if a unique constraint is on original_url).
    */
-  @Transactional
   public Optional<URL> shortenURL(URL urlToBeShorten) {
-    if (!URLChecker.isValidURL(urlToBeShorten.getOriginalUrl())) {
+    if (urlDeduplicator.isEnabled()) {
+      final var existingUrl =
+          observeStage(
+              "deduplicate",
+              "single",
+              () -> urlDeduplicator.findRecent(urlToBeShorten.getOriginalUrl()));
+      if (existingUrl.isPresent()) {
+        return existingUrl;
+      }
+    }
+
+    final boolean acceptable =
+        observeStage(
+            "validate",
+            "single",
+            () -> urlValidationService.isAcceptable(urlToBeShorten.getOriginalUrl()));
+    if (!acceptable) {
       throw new IllegalArgumentException(
           "Original URL is not valid or accessible: " + urlToBeShorten.getOriginalUrl());
     }
 
-    final var urlToSaveWithoutId = new URL();
-    urlToSaveWithoutId.setOriginalUrl(urlToBeShorten.getOriginalUrl());
-    urlToSaveWithoutId.setCreatedAt(OffsetDateTime.now());
-    urlToSaveWithoutId.setExpiresAt(urlToSaveWithoutId.getCreatedAt().plusDays(URL_LIFE_LENGTH));
+    final var urlToSave = new URL();
+    urlToSave.setId(idBlockAllocator.nextId());
+    final var shortCode = shortCodeCodec.encode(urlToSave.getId());
+    urlToSave.setShortUrlCode(persistGeneratedCodes ? shortCode : null);
+    urlToSave.setOriginalUrl(urlToBeShorten.getOriginalUrl());
+    urlToSave.setCreatedAt(OffsetDateTime.now());
+    urlToSave.setExpiresAt(urlToSave.getCreatedAt().plusDays(URL_LIFE_LENGTH));
+    urlToSave.setOriginalUrlHash(urlDeduplicator.hashOf(urlToSave.getOriginalUrl()));
 
-    final Optional<URL> urlToSaveWithID;
+    final Optional<URL> savedUrl;
     try {
-      urlToSaveWithID = urlRepository.save(urlToSaveWithoutId);
+      savedUrl = observeStage("insert", "single", () -> urlRepository.saveWithId(urlToSave));
     } catch (DuplicateKeyException e) {
       throw new DuplicateKeyException("Error with saving this URL");
     }
 
-    if (urlToSaveWithID.isEmpty()) {
+    if (savedUrl.isEmpty()) {
       throw new IllegalArgumentException("Failed to save URL");
     }
+    savedUrl.get().setShortUrlCode(shortCode);
+    urlCachePublisher.publish(savedUrl.get());
+    urlDeduplicator.remember(savedUrl.get());
 
-    final var url = urlToSaveWithID.get();
+    urlValidationService.verifyAfterAccept(savedUrl.get(), this::discardUnreachableUrl);
 
-    final var shortCode = ShortCodeGenerator.encodeToBase62(url.getId());
-    url.setShortUrlCode(shortCode);
+    return savedUrl;
+  }
 
-    return urlRepository.updateShortUrlCode(url.getId(), shortCode);
+  /**
+   * Shortens a batch of original URLs.
+   *
+   * <p>All URLs are validated up front (reachability checks run concurrently), the valid ones get
+   * IDs from {@link IdBlockAllocator} and short codes from the {@link ShortCodeCodec}, and they are
+   * persisted together with JDBC batch inserts and published into the shared Redis cache. Invalid
+   * URLs do not fail the batch; they are reported in their own result.
+   *
+   * <p>With {@code url.dedup.enabled}, URLs shortened within the deduplication window get their
+   * existing mapping back, looked up for the whole batch at once, and a URL repeated within the
+   * batch is saved only once.
+   *
+   * @param originalUrls The original URLs to shorten; {@code null} entries stand for unreadable
+   *     input items.
+   * @return One {@link BatchItemResult} per input URL, in input order.
+   * @throws IllegalArgumentException If the batch is empty or larger than the configured maximum.
+   * @throws DuplicateKeyException If the batch could not be saved because of a unique constraint
+   *     violation.
+   */
+  public List<BatchItemResult> shortenURLs(List<String> originalUrls) {
+    if (originalUrls.isEmpty() || originalUrls.size() > maxBatchSize) {
+      throw new IllegalArgumentException(
+          "Batch must contain between 1 and " + maxBatchSize + " URLs: " + originalUrls.size());
+    }
+
+    final Map<String, URL> existingUrls =
+        urlDeduplicator.isEnabled()
+            ? observeStage(
+                "deduplicate", "batch", () -> urlDeduplicator.findAllRecent(originalUrls))
+            : Map.of();
+    final var urlsToValidate = new ArrayList<String>(originalUrls.size());
+    for (final var originalUrl : originalUrls) {
+      if (originalUrl == null || !existingUrls.containsKey(originalUrl)) {
+        urlsToValidate.add(originalUrl);
+      }
+    }
+    final var acceptable =
+        observeStage("validate", "batch", () -> urlValidationService.areAcceptable(urlsToValidate))
+            .iterator();
+
+    final var results = new ArrayList<BatchItemResult>(originalUrls.size());
+    final var urlsToSave = new ArrayList<URL>(originalUrls.size());
+    final var urlsInBatch = new HashMap<String, URL>();
+    final var indexes = new ArrayList<Integer>(originalUrls.size());
+    final var urlsAtIndexes = new ArrayList<URL>(originalUrls.size());
+    final var createdAt = OffsetDateTime.now();
+
+    for (var i = 0; i < originalUrls.size(); i++) {
+      final var originalUrl = originalUrls.get(i);
+      final var existingUrl = originalUrl == null ? null : existingUrls.get(originalUrl);
+      if (existingUrl != null) {
+        results.add(BatchItemResult.created(i, existingUrl));
+        continue;
+      }
+      if (!acceptable.next()) {
+        results.add(
+            BatchItemResult.failed(
+                i, originalUrl, "Original URL is not valid or accessible: " + originalUrl));
+        continue;
+      }
+
+      final var originalUrlHash = urlDeduplicator.hashOf(originalUrl);
+      final var repeatedUrl =
+          originalUrlHash == null ? null : urlsInBatch.get(UrlFingerprint.normalize(originalUrl));
+      if (repeatedUrl != null) {
+        indexes.add(i);
+        urlsAtIndexes.add(repeatedUrl);
+        results.add(null);
+        continue;
+      }
+
+      final var urlToSave = new URL();
+      urlToSave.setId(idBlockAllocator.nextId());
+      if (persistGeneratedCodes) {
+        urlToSave.setShortUrlCode(shortCodeCodec.encode(urlToSave.getId()));
+      }
+      urlToSave.setOriginalUrl(originalUrl);
+      urlToSave.setCreatedAt(createdAt);
+      urlToSave.setExpiresAt(createdAt.plusDays(URL_LIFE_LENGTH));
+      urlToSave.setOriginalUrlHash(originalUrlHash);
+      if (originalUrlHash != null) {
+        urlsInBatch.put(UrlFingerprint.normalize(originalUrl), urlToSave);
+      }
+      urlsToSave.add(urlToSave);
+      indexes.add(i);
+      urlsAtIndexes.add(urlToSave);
+      results.add(null);
+    }
+
+    if (!urlsToSave.isEmpty()) {
+      try {
+        observeStage("insert", "batch", () -> urlRepository.saveAllWithIds(urlsToSave));
+      } catch (DuplicateKeyException e) {
+        throw new DuplicateKeyException("Error with saving this batch of URLs");
+      }
+    }
+
+    for (final var savedUrl : urlsToSave) {
+      if (!persistGeneratedCodes) {
+        savedUrl.setShortUrlCode(shortCodeCodec.encode(savedUrl.getId()));
+      }
+      urlCachePublisher.publish(savedUrl);
+      urlDeduplicator.remember(savedUrl);
+      urlValidationService.verifyAfterAccept(savedUrl, this::discardUnreachableUrl);
+    }
+    for (var i = 0; i < indexes.size(); i++) {
+      results.set(indexes.get(i), BatchItemResult.created(indexes.get(i), urlsAtIndexes.get(i)));
+    }
+
+    return results;
+  }
+
+  /**
+   * Runs one stage of shortening as a {@code url.shorten.stage} observation, which is recorded as a
+   * timer and, when tracing is on the classpath, as a span.
+   *
+   * @param stage The stage, used as the {@code stage} tag and the span name.
+   * @param request Whether a {@code single} URL or a {@code batch} is being shortened.
+   * @param work The work of the stage.
+   * @return The result of {@code work}.
+   */
+  private <T> T observeStage(String stage, String request, Supplier<T> work) {
+    return Observation.createNotStarted("url.shorten.stage", observationRegistry)
+        .contextualName(stage)
+        .lowCardinalityKeyValue("stage", stage)
+        .lowCardinalityKeyValue("request", request)
+        .observe(work);
   }
 
   /**
-   * Deletes URLs that have expired before the given current time.
+   * Removes a mapping whose original URL failed the background reachability check, and evicts it
+   * from the shared Redis cache it was published into.
    *
-   * @param currentTime The current time to compare against the expiration date.
-   * @return The number of URLs deleted.
+   * @param url The {@link URL} entity to remove.
    */
-  @Transactional
-  public int deleteExpiredUrls(OffsetDateTime currentTime) {
-    return urlRepository.deleteExpiresUrl(currentTime);
+  private void discardUnreachableUrl(URL url) {
+    urlDeduplicator.forget(url);
+    urlRepository.deleteById(url.getId());
+    urlCachePublisher.evict(List.of(url.getShortUrlCode()));
   }
 }
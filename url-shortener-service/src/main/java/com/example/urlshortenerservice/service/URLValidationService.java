@@ -0,0 +1,334 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.utils.URLChecker;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service responsible for checking that original URLs are reachable before (or after) they are
+ * shortened.
+ *
+ * <p>Reachability is probed with a non-blocking HEAD request through {@link HttpClient}. Results
+ * are cached per URL, with a shorter TTL for negative results, and concurrent checks of the same
+ * URL share one request. Hosts that cannot be connected to are remembered for the negative TTL so
+ * that other URLs on the same host are rejected without another attempt, while a URL whose
+ * response is merely slow only fails its own check. The number of checks in flight against a
+ * single host is capped. Callers give up waiting for a check after twice the timeout, enough for
+ * the connect and the response timeout, and treat the URL as unreachable. Response handling and
+ * background callbacks run on the application task executor, which uses virtual threads when
+ * {@code spring.threads.virtual.enabled} is set.
+ *
+ * <p>The {@link Mode} decides where the check sits relative to the shorten request:
+ *
+ * <ul>
+ *   <li>{@link Mode#SYNC} waits for the (possibly cached) check before accepting the URL.
+ *   <li>{@link Mode#ASYNC} accepts any well-formed URL and verifies it in the background.
+ *   <li>{@link Mode#OFF} only checks that the URL is well-formed.
+ * </ul>
+ */
+@Service
+public class URLValidationService {
+  private static final Logger log = LoggerFactory.getLogger(URLValidationService.class);
+
+  /** Where the reachability check runs relative to accepting a URL. */
+  public enum Mode {
+    SYNC,
+    ASYNC,
+    OFF
+  }
+
+  private final Mode mode;
+  private final Duration requestTimeout;
+  private final Duration waitTimeout;
+  private final int maxConcurrentChecksPerHost;
+  private final HttpClient httpClient;
+  private final AsyncCache<String, Boolean> results;
+  private final Cache<String, Boolean> unreachableHosts;
+  private final ConcurrentMap<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+  public URLValidationService(
+      @Value("${url.validation.mode:SYNC}") Mode mode,
+      @Value("${url.validation.timeout:2s}") Duration requestTimeout,
+      @Value("${url.validation.positive-ttl:10m}") Duration positiveTtl,
+      @Value("${url.validation.negative-ttl:1m}") Duration negativeTtl,
+      @Value("${url.validation.max-concurrent-checks-per-host:4}") int maxConcurrentChecksPerHost,
+      @Value("${url.validation.cache-size:100000}") long cacheSize,
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+          Executor executor) {
+    this.mode = mode;
+    this.requestTimeout = requestTimeout;
+    this.waitTimeout = requestTimeout.multipliedBy(2);
+    this.maxConcurrentChecksPerHost = maxConcurrentChecksPerHost;
+    this.httpClient =
+        HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(executor)
+            .build();
+    this.results =
+        Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfter(new ResultExpiry(positiveTtl, negativeTtl))
+            .executor(executor)
+            .buildAsync();
+    this.unreachableHosts =
+        Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(negativeTtl).build();
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Decides whether a URL may be shortened right now. In {@link Mode#SYNC} this waits for the
+   * reachability check; in the other modes only the syntax of the URL is checked.
+   *
+   * @param urlString The original URL to validate.
+   * @return {@code true} if the URL can be accepted; {@code false} otherwise.
+   */
+  public boolean isAcceptable(String urlString) {
+    if (!URLChecker.isWellFormedURL(urlString)) {
+      return false;
+    }
+    if (mode != Mode.SYNC) {
+      return true;
+    }
+    return await(checkReachable(urlString)).join();
+  }
+
+  /**
+   * Decides for each URL of a batch whether it may be shortened right now. In {@link Mode#SYNC}
+   * the reachability checks of all URLs are started before waiting for any of them, so the batch
+   * takes about as long as its slowest host rather than the sum of all checks.
+   *
+   * @param urlStrings The original URLs to validate.
+   * @return For each URL, in the same order, {@code true} if it can be accepted.
+   */
+  public List<Boolean> areAcceptable(List<String> urlStrings) {
+    final var checks = new ArrayList<CompletableFuture<Boolean>>(urlStrings.size());
+    for (final var urlString : urlStrings) {
+      if (!URLChecker.isWellFormedURL(urlString)) {
+        checks.add(CompletableFuture.completedFuture(false));
+      } else if (mode != Mode.SYNC) {
+        checks.add(CompletableFuture.completedFuture(true));
+      } else {
+        checks.add(await(checkReachable(urlString)));
+      }
+    }
+    return checks.stream().map(CompletableFuture::join).toList();
+  }
+
+  /**
+   * Verifies an already accepted URL in the background when running in {@link Mode#ASYNC}. Does
+   * nothing in the other modes, where the URL has already been checked as far as configured.
+   *
+   * @param url The accepted {@link URL} entity.
+   * @param onUnreachable Callback invoked with the entity if its original URL turns out to be
+   *     unreachable.
+   */
+  public void verifyAfterAccept(URL url, Consumer<URL> onUnreachable) {
+    if (mode != Mode.ASYNC) {
+      return;
+    }
+    checkReachable(url.getOriginalUrl())
+        .thenAccept(
+            reachable -> {
+              if (!reachable) {
+                onUnreachable.accept(url);
+              }
+            })
+        .exceptionally(
+            e -> {
+              log.warn("Background validation of {} failed", url.getOriginalUrl(), e);
+              return null;
+            });
+  }
+
+  /**
+   * Checks whether the given URL answers a HEAD request with a 2xx or 3xx status. The returned
+   * future never completes exceptionally: malformed URLs, timeouts and connection errors all
+   * complete it with {@code false}.
+   *
+   * @param urlString The URL to check.
+   * @return A {@link CompletableFuture} with the (possibly cached) result of the check.
+   */
+  public CompletableFuture<Boolean> checkReachable(String urlString) {
+    if (!URLChecker.isWellFormedURL(urlString)) {
+      return CompletableFuture.completedFuture(false);
+    }
+    return results.get(urlString, (key, executor) -> probe(URI.create(key)));
+  }
+
+  /**
+   * Bounds how long a caller waits for a check. The timeout completes a copy, so the shared check
+   * itself still finishes and caches its real result.
+   */
+  private CompletableFuture<Boolean> await(CompletableFuture<Boolean> check) {
+    return check.copy().completeOnTimeout(false, waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private CompletableFuture<Boolean> probe(URI uri) {
+    final var host = hostKey(uri);
+    if (unreachableHosts.getIfPresent(host) != null) {
+      return CompletableFuture.completedFuture(false);
+    }
+
+    final var request =
+        HttpRequest.newBuilder(uri)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .timeout(requestTimeout)
+            .build();
+    final var limiter =
+        hostLimiters.compute(
+            host,
+            (h, existing) -> {
+              final var hostLimiter =
+                  existing != null ? existing : new HostLimiter(maxConcurrentChecksPerHost);
+              hostLimiter.checks++;
+              return hostLimiter;
+            });
+    final var result = new CompletableFuture<Boolean>();
+
+    limiter.submit(
+        () -> {
+          try {
+            httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete(
+                    (response, error) -> {
+                      finish(host, limiter);
+                      if (error == null) {
+                        result.complete(URLChecker.isSuccessfulResponseCode(response.statusCode()));
+                        return;
+                      }
+                      if (isHostFailure(error)) {
+                        unreachableHosts.put(host, Boolean.TRUE);
+                      }
+                      result.complete(false);
+                    });
+          } catch (RuntimeException e) {
+            finish(host, limiter);
+            log.warn("Reachability check of {} could not be started", uri, e);
+            result.complete(false);
+          }
+        });
+
+    return result;
+  }
+
+  /**
+   * Returns the permit of a finished check and drops the host's limiter once no check of the host
+   * is queued or in flight, so a limiter is never replaced while it still holds permits.
+   */
+  private void finish(String host, HostLimiter limiter) {
+    limiter.release();
+    hostLimiters.computeIfPresent(
+        host, (h, hostLimiter) -> --hostLimiter.checks == 0 ? null : hostLimiter);
+  }
+
+  private static boolean isHostFailure(Throwable error) {
+    final var cause = error instanceof CompletionException ? error.getCause() : error;
+    return cause instanceof HttpConnectTimeoutException
+        || cause instanceof ConnectException
+        || (cause instanceof IOException && cause.getCause() instanceof ConnectException);
+  }
+
+  private static String hostKey(URI uri) {
+    return uri.getHost().toLowerCase(Locale.ROOT) + ":" + uri.getPort();
+  }
+
+  /**
+   * Caps the number of checks in flight against one host. Checks over the limit wait in a queue
+   * and are started as earlier ones finish, so no thread is ever blocked waiting for a permit.
+   * {@code checks} counts the queued and running checks; it is only changed while the map holds
+   * the host's entry locked.
+   */
+  private static final class HostLimiter {
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private int checks;
+
+    private HostLimiter(int maxConcurrentChecks) {
+      this.permits = new Semaphore(maxConcurrentChecks);
+    }
+
+    private void submit(Runnable check) {
+      waiting.add(check);
+      drain();
+    }
+
+    private void release() {
+      permits.release();
+      drain();
+    }
+
+    private void drain() {
+      while (!waiting.isEmpty() && permits.tryAcquire()) {
+        final var check = waiting.poll();
+        if (check == null) {
+          permits.release();
+        } else {
+          check.run();
+        }
+      }
+    }
+  }
+
+  /** Keeps positive results for the positive TTL and negative results for the negative TTL. */
+  private static final class ResultExpiry implements Expiry<String, Boolean> {
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+
+    private ResultExpiry(Duration positiveTtl, Duration negativeTtl) {
+      this.positiveTtlNanos = positiveTtl.toNanos();
+      this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String url, Boolean reachable, long currentTime) {
+      return reachable ? positiveTtlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String url, Boolean reachable, long currentTime, long currentDuration) {
+      return expireAfterCreate(url, reachable, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String url, Boolean reachable, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
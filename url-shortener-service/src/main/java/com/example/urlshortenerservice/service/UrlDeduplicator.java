@@ -0,0 +1,185 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import com.example.urlshortenerservice.utils.UrlFingerprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds the existing mapping of an original URL that was shortened again within {@code
+ * url.dedup.window}, so repeated shortenings of the same URL, by retrying clients or campaigns
+ * sending the same link, return one mapping instead of inserting a row each.
+ *
+ * <p>URLs are matched on their {@link UrlFingerprint}: the hash is stored in the indexed {@code
+ * original_url_hash} column of every mapping inserted while deduplication is enabled, and a
+ * candidate found by hash only matches if its normalized URL is equal. Mappings created or found
+ * by this instance are also kept in a bounded in-memory cache keyed by hash, so hot repeats skip
+ * the database. Lookups are counted as {@code url.dedup.lookups}, tagged with the {@code result}:
+ * {@code cache}, {@code database} or {@code miss}.
+ *
+ * <p>Concurrent first shortenings of the same URL on different threads or instances may still
+ * insert one row each; deduplication is a best effort and the column is deliberately not unique.
+ * When {@code url.dedup.enabled} is off, nothing is looked up and no hash is stored.
+ */
+@Service
+public class UrlDeduplicator {
+
+  private final URLRepositoryImpl urlRepository;
+  private final ShortCodeCodec shortCodeCodec;
+  private final boolean enabled;
+  private final Duration window;
+  private final Cache<Long, URL> recentUrls;
+  private final Counter cacheHitCounter;
+  private final Counter databaseHitCounter;
+  private final Counter missCounter;
+
+  public UrlDeduplicator(
+      URLRepositoryImpl urlRepository,
+      ShortCodeCodec shortCodeCodec,
+      MeterRegistry meterRegistry,
+      @Value("${url.dedup.enabled:false}") boolean enabled,
+      @Value("${url.dedup.window:1d}") Duration window,
+      @Value("${url.dedup.recent-cache.max-size:100000}") long recentCacheSize) {
+    this.urlRepository = urlRepository;
+    this.shortCodeCodec = shortCodeCodec;
+    this.enabled = enabled;
+    this.window = window;
+    this.recentUrls =
+        Caffeine.newBuilder().maximumSize(recentCacheSize).expireAfterWrite(window).build();
+    this.cacheHitCounter = meterRegistry.counter("url.dedup.lookups", "result", "cache");
+    this.databaseHitCounter = meterRegistry.counter("url.dedup.lookups", "result", "database");
+    this.missCounter = meterRegistry.counter("url.dedup.lookups", "result", "miss");
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the hash to store with a new mapping of the given original URL.
+   *
+   * @param originalUrl The original URL of the new mapping.
+   * @return The hash of its normalized form, or {@code null} if deduplication is disabled.
+   */
+  public Long hashOf(String originalUrl) {
+    return enabled ? UrlFingerprint.hash(UrlFingerprint.normalize(originalUrl)) : null;
+  }
+
+  /**
+   * Finds the newest mapping of the given original URL created within the window.
+   *
+   * @param originalUrl The original URL to look up.
+   * @return The existing {@link URL} entity with its short code, or an empty Optional if there is
+   *     none or deduplication is disabled.
+   */
+  public Optional<URL> findRecent(String originalUrl) {
+    if (originalUrl == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(findAllRecent(List.of(originalUrl)).get(originalUrl));
+  }
+
+  /**
+   * Finds the newest mapping created within the window for each of the given original URLs, with
+   * a single query for all URLs not found in the in-memory cache.
+   *
+   * @param originalUrls The original URLs to look up; {@code null} entries are skipped.
+   * @return The existing {@link URL} entities by original URL, for the URLs that have one. Empty
+   *     if deduplication is disabled.
+   */
+  public Map<String, URL> findAllRecent(Collection<String> originalUrls) {
+    if (!enabled) {
+      return Map.of();
+    }
+
+    final var now = OffsetDateTime.now();
+    final var createdAfter = now.minus(window);
+    final var found = HashMap.<String, URL>newHashMap(originalUrls.size());
+    final var uncached = HashMap.<String, String>newHashMap(originalUrls.size());
+    for (final var originalUrl : originalUrls) {
+      if (originalUrl == null || found.containsKey(originalUrl)) {
+        continue;
+      }
+      final var normalizedUrl = UrlFingerprint.normalize(originalUrl);
+      final var cached = recentUrls.getIfPresent(UrlFingerprint.hash(normalizedUrl));
+      if (cached != null && matches(cached, normalizedUrl, createdAfter, now)) {
+        cacheHitCounter.increment();
+        found.put(originalUrl, cached);
+      } else {
+        uncached.put(originalUrl, normalizedUrl);
+      }
+    }
+    if (uncached.isEmpty()) {
+      return found;
+    }
+
+    final var hashes = uncached.values().stream().map(UrlFingerprint::hash).distinct().toList();
+    final var candidates = urlRepository.findCreatedAfterByOriginalUrlHashes(hashes, createdAfter);
+    final var newestByUrl = HashMap.<String, URL>newHashMap(candidates.size());
+    for (final var candidate : candidates) {
+      if (candidate.getExpiresAt().isAfter(now)) {
+        newestByUrl.putIfAbsent(UrlFingerprint.normalize(candidate.getOriginalUrl()), candidate);
+      }
+    }
+    for (final var entry : uncached.entrySet()) {
+      final var url = newestByUrl.get(entry.getValue());
+      if (url == null) {
+        missCounter.increment();
+        continue;
+      }
+      databaseHitCounter.increment();
+      if (url.getShortUrlCode() == null) {
+        url.setShortUrlCode(shortCodeCodec.encode(url.getId()));
+      }
+      recentUrls.put(url.getOriginalUrlHash(), url);
+      found.put(entry.getKey(), url);
+    }
+    return found;
+  }
+
+  /**
+   * Remembers a newly saved mapping, so the next shortening of its URL is answered from memory.
+   *
+   * @param url The saved {@link URL} entity, with its short code and hash populated.
+   */
+  public void remember(URL url) {
+    if (enabled && url.getOriginalUrlHash() != null) {
+      recentUrls.put(url.getOriginalUrlHash(), url);
+    }
+  }
+
+  /**
+   * Forgets a mapping that has been removed again, so it is no longer handed out.
+   *
+   * @param url The removed {@link URL} entity.
+   */
+  public void forget(URL url) {
+    if (enabled && url.getOriginalUrlHash() != null) {
+      recentUrls
+          .asMap()
+          .computeIfPresent(
+              url.getOriginalUrlHash(),
+              (hash, cached) -> cached.getId() == url.getId() ? null : cached);
+    }
+  }
+
+  private static boolean matches(
+      URL url, String normalizedUrl, OffsetDateTime createdAfter, OffsetDateTime now) {
+    return url.getCreatedAt().isAfter(createdAfter)
+        && url.getExpiresAt().isAfter(now)
+        && UrlFingerprint.normalize(url.getOriginalUrl()).equals(normalizedUrl);
+  }
+}
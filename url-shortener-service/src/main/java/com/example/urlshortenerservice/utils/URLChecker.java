@@ -25,12 +25,10 @@ public class URLChecker {
     URL url;
 
     try {
-      final var uri = new URI(urlString);
-
-      if (!uri.isAbsolute()) {
+      if (!isWellFormedURL(urlString)) {
         return false;
       } else {
-        url = uri.toURL();
+        url = new URI(urlString).toURL();
       }
 
     } catch (MalformedURLException | URISyntaxException e) {
@@ -38,6 +36,40 @@ public class URLChecker {
     }
 
     final int responseCode = getResponseCode(url);
+    return isSuccessfulResponseCode(responseCode);
+  }
+
+  /**
+   * Checks if a given URL string is syntactically valid without connecting to it. Only absolute
+   * {@code http} and {@code https} URLs with a host are accepted.
+   *
+   * @param urlString The string representation of the URL to check.
+   * @return {@code true} if the URL can be parsed and points to an HTTP(S) host; {@code false}
+   *     otherwise.
+   */
+  public static boolean isWellFormedURL(String urlString) {
+    if (urlString == null || urlString.isBlank()) {
+      return false;
+    }
+
+    try {
+      final var uri = new URI(urlString);
+      return uri.isAbsolute()
+          && uri.getHost() != null
+          && ("http".equalsIgnoreCase(uri.getScheme())
+              || "https".equalsIgnoreCase(uri.getScheme()));
+    } catch (URISyntaxException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks if an HTTP response code means the URL is reachable.
+   *
+   * @param responseCode The HTTP response code.
+   * @return {@code true} for success (2xx) and redirection (3xx) codes; {@code false} otherwise.
+   */
+  public static boolean isSuccessfulResponseCode(int responseCode) {
     return responseCode >= 200 && responseCode < 400;
   }
 
@@ -0,0 +1,88 @@
+package com.example.urlshortenerservice.utils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Normalizes original URLs and derives the 64-bit hash stored in the {@code original_url_hash}
+ * column, so that repeated shortenings of the same URL can be found through one index lookup.
+ *
+ * <p>Normalization only applies rewrites that never change the resource a URL points to: the scheme
+ * and host are lower-cased, the default port of {@code http} and {@code https} is dropped and an
+ * empty path becomes {@code /}. Path, query and fragment are kept exactly as given. Strings that
+ * are not absolute hierarchical URIs are only stripped of surrounding whitespace.
+ *
+ * <p>The hash is the first eight bytes of the SHA-256 digest of the normalized URL. Distinct URLs
+ * may share a hash, so a match must always be confirmed by comparing the normalized URLs.
+ */
+public final class UrlFingerprint {
+
+  private UrlFingerprint() {}
+
+  /**
+   * Returns the normalized form of a URL.
+   *
+   * @param url The URL to normalize.
+   * @return The normalized URL.
+   */
+  public static String normalize(String url) {
+    final var stripped = url.strip();
+    final URI uri;
+    try {
+      uri = new URI(stripped);
+    } catch (URISyntaxException e) {
+      return stripped;
+    }
+    if (uri.getScheme() == null || uri.getHost() == null) {
+      return stripped;
+    }
+
+    final var scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+    final var normalized = new StringBuilder(stripped.length()).append(scheme).append("://");
+    if (uri.getRawUserInfo() != null) {
+      normalized.append(uri.getRawUserInfo()).append('@');
+    }
+    normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+    if (uri.getPort() != -1 && uri.getPort() != defaultPort(scheme)) {
+      normalized.append(':').append(uri.getPort());
+    }
+    final var path = uri.getRawPath();
+    normalized.append(path == null || path.isEmpty() ? "/" : path);
+    if (uri.getRawQuery() != null) {
+      normalized.append('?').append(uri.getRawQuery());
+    }
+    if (uri.getRawFragment() != null) {
+      normalized.append('#').append(uri.getRawFragment());
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Returns the 64-bit hash of a normalized URL.
+   *
+   * @param normalizedUrl A URL as returned by {@link #normalize(String)}.
+   * @return The first eight bytes of the SHA-256 digest of the URL.
+   */
+  public static long hash(String normalizedUrl) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    return ByteBuffer.wrap(digest.digest(normalizedUrl.getBytes(StandardCharsets.UTF_8))).getLong();
+  }
+
+  private static int defaultPort(String scheme) {
+    return switch (scheme) {
+      case "http" -> 80;
+      case "https" -> 443;
+      default -> -1;
+    };
+  }
+}
@@ -2,8 +2,14 @@ package com.example.urlshortenerservice;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest
+@TestPropertySource(properties = {
+        "spring.data.redis.host=test",
+        "spring.data.redis.port=6379",
+        "spring.data.redis.password=test"
+})
 class UrlShortenerServiceApplicationTests {
 
   @Test
@@ -0,0 +1,52 @@
+package com.example.urlshortenerservice.cache;
+
+import com.example.urlshortenerservice.models.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+class UrlRedisSerializerTest {
+  private final UrlRedisSerializer serializer = new UrlRedisSerializer();
+
+  @Test
+  void serialize_WhenUrlHasNoExpiration_ThenWriteTheLayoutTheReadServiceExpects() {
+    // Given
+    final var createdAt = OffsetDateTime.ofInstant(Instant.ofEpochMilli(1), ZoneOffset.UTC);
+    final var url = new URL(42, "https://e.x", "G", createdAt, null);
+
+    // When
+    final var bytes = serializer.serialize(url);
+
+    // Then
+    final var expected = new byte[] {(byte) 0xFE, 1, 0b011, 42, 2};
+    final var originalUrl = "https://e.x".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertEquals(expected.length + originalUrl.length, bytes.length);
+    for (var i = 0; i < expected.length; i++) {
+      Assertions.assertEquals(expected[i], bytes[i], "Byte " + i);
+    }
+    Assertions.assertEquals(
+        "https://e.x",
+        new String(bytes, expected.length, originalUrl.length, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void deserialize_WhenWrittenBySerializer_ThenRoundTripWithoutShortCode() {
+    // Given
+    final var createdAt = OffsetDateTime.of(2025, 6, 1, 12, 30, 15, 123_000_000, ZoneOffset.UTC);
+    final var url =
+        new URL(56800235583L, "https://example.com/ß", "ZZZZZZ", createdAt, createdAt.plusDays(7));
+
+    // When
+    final var result = serializer.deserialize(serializer.serialize(url));
+
+    // Then
+    Assertions.assertEquals(url.getId(), result.getId());
+    Assertions.assertEquals(url.getOriginalUrl(), result.getOriginalUrl());
+    Assertions.assertEquals(url.getCreatedAt(), result.getCreatedAt());
+    Assertions.assertEquals(url.getExpiresAt(), result.getExpiresAt());
+    Assertions.assertNull(result.getShortUrlCode());
+  }
+}
@@ -11,6 +11,8 @@ import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @JdbcTest
 @Import({URLRepositoryImpl.class})
@@ -22,6 +24,7 @@ class URLRepositoryImplTest {
   @BeforeEach
   void setUp() {
     jdbcTemplate.execute("DELETE FROM urls");
+    jdbcTemplate.execute("DELETE FROM url_tombstones");
   }
 
   @Test
@@ -139,4 +142,152 @@ class URLRepositoryImplTest {
     Assertions.assertEquals(savedUrl.getOriginalUrl(), foundUrl.getOriginalUrl());
     Assertions.assertEquals(savedUrl.getShortUrlCode(), foundUrl.getShortUrlCode());
   }
+
+  @Test
+  void saveWithId_WhenIdAndShortCodeAssigned_ThenRowIsSavedAsIs() {
+    // Given
+    final var urlToSave = new URL();
+    urlToSave.setId(42L);
+    urlToSave.setOriginalUrl("https://example.com/with/id");
+    urlToSave.setShortUrlCode("G");
+    urlToSave.setCreatedAt(OffsetDateTime.now());
+    urlToSave.setExpiresAt(OffsetDateTime.now().plusDays(7));
+
+    // When
+    final var savedUrlOptional = urlRepository.saveWithId(urlToSave);
+
+    // Then
+    Assertions.assertTrue(savedUrlOptional.isPresent());
+    final var foundUrl = urlRepository.findById(42L).get();
+    Assertions.assertEquals("https://example.com/with/id", foundUrl.getOriginalUrl());
+    Assertions.assertEquals("G", foundUrl.getShortUrlCode());
+  }
+
+  @Test
+  void saveWithId_WhenIdAlreadyTaken_ThenThrowDuplicateKeyException() {
+    // Given
+    final var firstUrl = new URL();
+    firstUrl.setId(7L);
+    firstUrl.setOriginalUrl("https://example.com/first");
+    firstUrl.setShortUrlCode("7");
+
+    final var secondUrl = new URL();
+    secondUrl.setId(7L);
+    secondUrl.setOriginalUrl("https://example.com/second");
+    secondUrl.setShortUrlCode("7a");
+
+    // When
+    urlRepository.saveWithId(firstUrl);
+
+    // Then
+    Assertions.assertThrows(DuplicateKeyException.class, () -> urlRepository.saveWithId(secondUrl));
+  }
+
+  @Test
+  void reserveIdBlock_WhenCalledTwice_ThenBlocksDoNotOverlap() {
+    // When
+    final var firstBlockStart = urlRepository.reserveIdBlock();
+    final var secondBlockStart = urlRepository.reserveIdBlock();
+
+    // Then
+    Assertions.assertEquals(10000, secondBlockStart - firstBlockStart);
+  }
+
+  @Test
+  void deleteById_WhenIdExists_ThenRowIsDeleted() {
+    // Given
+    final var urlToSave = new URL();
+    urlToSave.setOriginalUrl("https://delete.me");
+    urlToSave.setShortUrlCode("deleteme");
+    final var savedUrl = urlRepository.save(urlToSave).get();
+
+    // When
+    final var deletedRows = urlRepository.deleteById(savedUrl.getId());
+
+    // Then
+    Assertions.assertEquals(1, deletedRows);
+    Assertions.assertTrue(urlRepository.findById(savedUrl.getId()).isEmpty());
+    Assertions.assertEquals(
+        List.of(savedUrl.getId()),
+        jdbcTemplate.queryForList("SELECT id FROM url_tombstones", Long.class));
+  }
+
+  @Test
+  void deleteById_WhenIdDoesNotExist_ThenNoTombstoneIsWritten() {
+    // When
+    final var deletedRows = urlRepository.deleteById(42);
+
+    // Then
+    Assertions.assertEquals(0, deletedRows);
+    Assertions.assertEquals(
+        0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_tombstones", Integer.class));
+  }
+
+  @Test
+  void deleteTombstonesBefore_WhenTombstonesAreOlder_ThenOnlyThoseAreDeleted() {
+    // Given
+    final var now = OffsetDateTime.now();
+    jdbcTemplate.update(
+        "INSERT INTO url_tombstones (id, deleted_at) VALUES (?, ?), (?, ?)",
+        1L,
+        now.minusDays(2),
+        2L,
+        now);
+
+    // When
+    final var deletedRows = urlRepository.deleteTombstonesBefore(now.minusDays(1));
+
+    // Then
+    Assertions.assertEquals(1, deletedRows);
+    Assertions.assertEquals(
+        List.of(2L), jdbcTemplate.queryForList("SELECT id FROM url_tombstones", Long.class));
+  }
+
+  @Test
+  void saveAllWithIds_WhenSavingBatch_ThenAllRowsAreSaved() {
+    // Given
+    final var urlsToSave = new ArrayList<URL>();
+    for (var id = 1; id <= 2500; id++) {
+      final var url = new URL();
+      url.setId(id);
+      url.setOriginalUrl("https://example.com/batch/" + id);
+      url.setShortUrlCode("batch" + id);
+      url.setCreatedAt(OffsetDateTime.now());
+      url.setExpiresAt(OffsetDateTime.now().plusDays(7));
+      urlsToSave.add(url);
+    }
+
+    // When
+    final var affectedRows = urlRepository.saveAllWithIds(urlsToSave);
+
+    // Then
+    Assertions.assertEquals(2500, affectedRows.length);
+    Assertions.assertEquals(
+        2500, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM urls", Integer.class));
+    Assertions.assertEquals(
+        "https://example.com/batch/1234", urlRepository.findById(1234).get().getOriginalUrl());
+  }
+
+  @Test
+  void findCreatedAfterByOriginalUrlHashes_WhenRowsHaveHashes_ThenReturnRecentMatchesNewestFirst() {
+    // Given
+    final var now = OffsetDateTime.now();
+    final var urlsToSave = new ArrayList<URL>();
+    for (var id = 1; id <= 4; id++) {
+      final var url = new URL(id, "https://example.com/" + id, null, now.minusHours(id), now);
+      url.setOriginalUrlHash(id == 4 ? null : 42L);
+      urlsToSave.add(url);
+    }
+    urlRepository.saveAllWithIds(urlsToSave);
+
+    // When
+    final var found =
+        urlRepository.findCreatedAfterByOriginalUrlHashes(
+            List.of(42L, 7L), now.minusHours(3).plusMinutes(30));
+
+    // Then
+    Assertions.assertEquals(List.of(1L, 2L), found.stream().map(URL::getId).toList());
+    Assertions.assertEquals(42L, found.get(0).getOriginalUrlHash());
+    Assertions.assertEquals("https://example.com/1", found.get(0).getOriginalUrl());
+  }
 }
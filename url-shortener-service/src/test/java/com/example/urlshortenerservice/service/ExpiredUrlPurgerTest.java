@@ -0,0 +1,131 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerservice.cache.UrlCachePublisher;
+import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@JdbcTest
+@Import({URLRepositoryImpl.class})
+class ExpiredUrlPurgerTest {
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private URLRepositoryImpl urlRepository;
+
+  private final OffsetDateTime now = OffsetDateTime.now();
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM urls");
+
+    final var urls = new ArrayList<URL>();
+    for (long id = 1; id <= 2510; id++) {
+      final var expiresAt = id <= 2500 ? now.minusDays(1) : now.plusDays(1);
+      urls.add(new URL(id, "https://example.com/" + id, "c" + id, now.minusDays(8), expiresAt));
+    }
+    urlRepository.saveAllWithIds(urls);
+  }
+
+  @Test
+  void purge_WhenExpiredRowsSpanSeveralChunks_ThenDeleteOnlyExpiredRows() {
+    // Given
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var purger = purger(1000, 100, meterRegistry);
+
+    // When
+    final var deleted = purger.purge(now);
+
+    // Then
+    Assertions.assertEquals(2500, deleted);
+    Assertions.assertEquals(
+        10, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM urls", Integer.class));
+    Assertions.assertEquals(3, meterRegistry.counter("url.purge.chunks").count());
+    Assertions.assertEquals(2500, meterRegistry.counter("url.purge.deleted").count());
+  }
+
+  @Test
+  void purge_WhenChunkBudgetIsUsedUp_ThenLeaveTheRestForTheNextRun() {
+    // Given
+    final var purger = purger(1000, 2, new SimpleMeterRegistry());
+
+    // When
+    final var firstRun = purger.purge(now);
+    final var secondRun = purger.purge(now);
+
+    // Then
+    Assertions.assertEquals(2000, firstRun);
+    Assertions.assertEquals(500, secondRun);
+  }
+
+  @Test
+  void purge_WhenReplicationLagFailsTransiently_ThenSkipThisRunAndPaceTheNextOne() {
+    // Given
+    final var failed = new AtomicBoolean();
+    final var flakyRepository =
+        new URLRepositoryImpl(jdbcTemplate) {
+          @Override
+          public long replicationLagBytes() {
+            if (failed.compareAndSet(false, true)) {
+              throw new TransientDataAccessResourceException("Connection reset");
+            }
+            return 0;
+          }
+        };
+    final var purger = purger(flakyRepository, 1000, 100, new SimpleMeterRegistry());
+
+    // When
+    final var firstRun = purger.purge(now);
+    final var secondRun = purger.purge(now);
+
+    // Then
+    Assertions.assertEquals(0, firstRun);
+    Assertions.assertEquals(2500, secondRun);
+  }
+
+  private ExpiredUrlPurger purger(
+      int chunkSize, int maxChunksPerRun, SimpleMeterRegistry meterRegistry) {
+    return purger(urlRepository, chunkSize, maxChunksPerRun, meterRegistry);
+  }
+
+  private ExpiredUrlPurger purger(
+      URLRepositoryImpl urlRepository,
+      int chunkSize,
+      int maxChunksPerRun,
+      SimpleMeterRegistry meterRegistry) {
+    final var urlCachePublisher =
+        new UrlCachePublisher(
+            new RedisTemplate<>(),
+            false,
+            Duration.ofHours(5),
+            0.1,
+            16,
+            16,
+            meterRegistry,
+            ObservationRegistry.NOOP);
+    return new ExpiredUrlPurger(
+        urlRepository,
+        ShortCodeCodec.plain(),
+        urlCachePublisher,
+        chunkSize,
+        maxChunksPerRun,
+        Duration.ZERO,
+        DataSize.ofMegabytes(16),
+        meterRegistry);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@JdbcTest
+@Import({URLRepositoryImpl.class, IdBlockAllocator.class})
+@ImportAutoConfiguration(ObservationAutoConfiguration.class)
+class IdBlockAllocatorTest {
+  @Autowired private IdBlockAllocator idBlockAllocator;
+  @Autowired private URLRepositoryImpl urlRepository;
+
+  @Test
+  void nextId_WhenBlockSizeDiffersFromSequenceIncrement_ThenFails() {
+    // Given
+    final var allocator = new IdBlockAllocator(urlRepository, ObservationRegistry.NOOP, 500);
+
+    // When & Then
+    Assertions.assertThrows(IllegalStateException.class, allocator::nextId);
+  }
+
+  @Test
+  void nextId_WhenCalledSequentially_ThenIdsAreConsecutiveWithinBlock() {
+    // When
+    final var firstId = idBlockAllocator.nextId();
+    final var secondId = idBlockAllocator.nextId();
+
+    // Then
+    Assertions.assertEquals(firstId + 1, secondId);
+  }
+
+  @Test
+  void nextId_WhenCalledConcurrentlyAcrossBlocks_ThenIdsAreUnique() throws Exception {
+    // Given
+    final var threads = 8;
+    final var idsPerThread = 5000;
+    final Set<Long> ids = ConcurrentHashMap.newKeySet();
+    final var futures = new ArrayList<Future<?>>();
+
+    // When
+    try (final var executor = Executors.newFixedThreadPool(threads)) {
+      for (var i = 0; i < threads; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (var j = 0; j < idsPerThread; j++) {
+                    ids.add(idBlockAllocator.nextId());
+                  }
+                }));
+      }
+      for (final var future : futures) {
+        future.get();
+      }
+    }
+
+    // Then
+    Assertions.assertEquals(threads * idsPerThread, ids.size());
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.urlshortenerservice.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class IdempotentRequestsTest {
+  private final IdempotentRequests idempotentRequests =
+      new IdempotentRequests(Duration.ofMinutes(1), 100, Duration.ofMillis(200), Runnable::run);
+
+  @Test
+  void execute_WhenKeyIsRepeated_ThenRunOnceAndReturnFirstResult() {
+    // Given
+    final var runs = new AtomicInteger();
+
+    // When
+    final var first = idempotentRequests.execute("key", "request", runs::incrementAndGet);
+    final var second = idempotentRequests.execute("key", "request", runs::incrementAndGet);
+
+    // Then
+    Assertions.assertEquals(1, first);
+    Assertions.assertEquals(1, second);
+    Assertions.assertEquals(1, runs.get());
+  }
+
+  @Test
+  void execute_WhenKeyIsMissing_ThenRunEveryTime() {
+    // Given
+    final var runs = new AtomicInteger();
+
+    // When
+    idempotentRequests.execute(null, "request", runs::incrementAndGet);
+    idempotentRequests.execute(null, "request", runs::incrementAndGet);
+
+    // Then
+    Assertions.assertEquals(2, runs.get());
+  }
+
+  @Test
+  void execute_WhenKeyIsReusedForDifferentRequest_ThenThrowIllegalArgumentException() {
+    // Given
+    idempotentRequests.execute("key", "request", () -> 1);
+
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> idempotentRequests.execute("key", "other request", () -> 2));
+  }
+
+  @Test
+  void execute_WhenFirstAttemptFailed_ThenRunAgain() {
+    // Given
+    Assertions.assertThrows(
+        IllegalStateException.class,
+        () ->
+            idempotentRequests.execute(
+                "key",
+                "request",
+                () -> {
+                  throw new IllegalStateException("Database unavailable");
+                }));
+
+    // When
+    final var result = idempotentRequests.execute("key", "request", () -> 2);
+
+    // Then
+    Assertions.assertEquals(2, result);
+  }
+
+  @Test
+  void execute_WhenKeyIsTooLong_ThenThrowIllegalArgumentException() {
+    // Given
+    final var key = "k".repeat(IdempotentRequests.MAX_KEY_LENGTH + 1);
+
+    // When and Then
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> idempotentRequests.execute(key, "request", () -> 1));
+  }
+
+  @Test
+  void execute_WhenFirstAttemptFailedWithError_ThenReleaseWaitersAndRunAgain()
+      throws InterruptedException {
+    // Given: a wait timeout the waiter cannot reach while it is released
+    final var idempotentRequests =
+        new IdempotentRequests(Duration.ofMinutes(1), 100, Duration.ofMinutes(1), Runnable::run);
+    final var started = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    final var first =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    idempotentRequests.execute(
+                        "key",
+                        "request",
+                        () -> {
+                          started.countDown();
+                          awaitQuietly(release);
+                          throw new StackOverflowError();
+                        });
+                  } catch (StackOverflowError expected) {
+                    // The first attempt fails
+                  }
+                });
+    started.await();
+    final var waiterFailure = new AtomicReference<Throwable>();
+    final var waiter =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    idempotentRequests.execute("key", "request", () -> 1);
+                  } catch (Throwable e) {
+                    waiterFailure.set(e);
+                  }
+                });
+    final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    // Some JDKs report a virtual thread in a timed park as WAITING
+    while (waiter.getState() != Thread.State.TIMED_WAITING
+        && waiter.getState() != Thread.State.WAITING) {
+      Assertions.assertNotEquals(
+          Thread.State.TERMINATED, waiter.getState(), "Waiter ended: " + waiterFailure.get());
+      Assertions.assertTrue(System.nanoTime() < deadline, "Waiter never started waiting");
+      Thread.onSpinWait();
+    }
+
+    // When
+    release.countDown();
+    first.join();
+    Assertions.assertTrue(waiter.join(Duration.ofSeconds(10)), "Waiter was not released");
+
+    // Then
+    Assertions.assertInstanceOf(StackOverflowError.class, waiterFailure.get());
+    Assertions.assertEquals(2, idempotentRequests.execute("key", "request", () -> 2));
+  }
+
+  @Test
+  void execute_WhenFirstAttemptIsStillRunning_ThenWaitAtMostTheTimeout()
+      throws InterruptedException {
+    // Given
+    final var started = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    final var first =
+        Thread.ofVirtual()
+            .start(
+                () ->
+                    idempotentRequests.execute(
+                        "key",
+                        "request",
+                        () -> {
+                          started.countDown();
+                          awaitQuietly(release);
+                          return 1;
+                        }));
+    started.await();
+
+    // When and Then
+    Assertions.assertThrows(
+        IdempotentRequests.RequestInProgressException.class,
+        () -> idempotentRequests.execute("key", "request", () -> 2));
+    release.countDown();
+    first.join();
+    Assertions.assertEquals(1, idempotentRequests.execute("key", "request", () -> 2));
+  }
+
+  @Test
+  void execute_WhenBatchResultsExceedMaximum_ThenForgetTheirKeys() {
+    // Given
+    final var batch = Collections.nCopies(60, "result");
+
+    // When
+    idempotentRequests.execute("first", "request", () -> batch);
+    idempotentRequests.execute("second", "request", () -> batch);
+
+    // Then
+    final var runs = new AtomicInteger();
+    idempotentRequests.execute("first", "request", () -> List.of(runs.incrementAndGet()));
+    idempotentRequests.execute("second", "request", () -> List.of(runs.incrementAndGet()));
+    Assertions.assertEquals(1, runs.get());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
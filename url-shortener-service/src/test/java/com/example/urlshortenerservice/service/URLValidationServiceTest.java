@@ -0,0 +1,141 @@
+package com.example.urlshortenerservice.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class URLValidationServiceTest {
+  private HttpServer server;
+  private String baseUrl;
+  private final AtomicInteger requestCount = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          requestCount.incrementAndGet();
+          if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+            try {
+              Thread.sleep(1000);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          final var status = exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200;
+          exchange.sendResponseHeaders(status, -1);
+          exchange.close();
+        });
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private URLValidationService validationService(URLValidationService.Mode mode) {
+    return validationService(mode, Duration.ofSeconds(2));
+  }
+
+  private URLValidationService validationService(URLValidationService.Mode mode, Duration timeout) {
+    return new URLValidationService(
+        mode,
+        timeout,
+        Duration.ofMinutes(10),
+        Duration.ofMinutes(1),
+        4,
+        1000,
+        Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  @Test
+  void checkReachable_WhenServerAnswersOk_ThenReturnTrue() {
+    // Given
+    final var validationService = validationService(URLValidationService.Mode.SYNC);
+
+    // When
+    final var reachable = validationService.checkReachable(baseUrl + "/page").join();
+
+    // Then
+    Assertions.assertTrue(reachable);
+  }
+
+  @Test
+  void checkReachable_WhenServerAnswersNotFound_ThenReturnFalse() {
+    // Given
+    final var validationService = validationService(URLValidationService.Mode.SYNC);
+
+    // When
+    final var reachable = validationService.checkReachable(baseUrl + "/missing").join();
+
+    // Then
+    Assertions.assertFalse(reachable);
+  }
+
+  @Test
+  void checkReachable_WhenCheckedTwice_ThenServerIsAskedOnce() {
+    // Given
+    final var validationService = validationService(URLValidationService.Mode.SYNC);
+
+    // When
+    validationService.checkReachable(baseUrl + "/page").join();
+    validationService.checkReachable(baseUrl + "/page").join();
+    validationService.checkReachable(baseUrl + "/missing").join();
+    validationService.checkReachable(baseUrl + "/missing").join();
+
+    // Then
+    Assertions.assertEquals(2, requestCount.get());
+  }
+
+  @Test
+  void isAcceptable_WhenModeIsOff_ThenOnlySyntaxIsChecked() {
+    // Given
+    final var validationService = validationService(URLValidationService.Mode.OFF);
+
+    // When and Then
+    Assertions.assertTrue(validationService.isAcceptable(baseUrl + "/missing"));
+    Assertions.assertFalse(validationService.isAcceptable("not-valid-url.com"));
+    Assertions.assertEquals(0, requestCount.get());
+  }
+
+  @Test
+  void checkReachable_WhenResponseTimesOut_ThenOtherUrlsOfHostAreStillChecked() {
+    // Given
+    final var validationService =
+        validationService(URLValidationService.Mode.SYNC, Duration.ofMillis(200));
+
+    // When
+    final var slowReachable = validationService.checkReachable(baseUrl + "/slow").join();
+    final var pageReachable = validationService.checkReachable(baseUrl + "/page").join();
+
+    // Then
+    Assertions.assertFalse(slowReachable);
+    Assertions.assertTrue(pageReachable);
+  }
+
+  @Test
+  void isAcceptable_WhenCheckIsSlow_ThenRejectWithinWaitTimeout() {
+    // Given
+    final var validationService =
+        validationService(URLValidationService.Mode.SYNC, Duration.ofMillis(200));
+
+    // When
+    final var start = System.nanoTime();
+    final var acceptable = validationService.isAcceptable(baseUrl + "/slow");
+    final var waited = Duration.ofNanos(System.nanoTime() - start);
+
+    // Then
+    Assertions.assertFalse(acceptable);
+    Assertions.assertTrue(waited.compareTo(Duration.ofMillis(900)) < 0, "waited " + waited);
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.urlshortenerservice.service;
+
+import com.example.urlshortenercommon.utils.ShortCodeCodec;
+import com.example.urlshortenerservice.models.URL;
+import com.example.urlshortenerservice.repository.URLRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+@JdbcTest
+@Import({URLRepositoryImpl.class})
+class UrlDeduplicatorTest {
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private URLRepositoryImpl urlRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM urls");
+  }
+
+  @Test
+  void findRecent_WhenEquivalentUrlWasSavedWithinWindow_ThenReturnItsMapping() {
+    // Given
+    final var deduplicator = deduplicator(true);
+    save(deduplicator, 1, "https://example.com/page", OffsetDateTime.now().minusHours(1));
+
+    // When
+    final var found = deduplicator.findRecent("HTTPS://EXAMPLE.COM:443/page");
+
+    // Then
+    Assertions.assertEquals(1, found.orElseThrow().getId());
+    Assertions.assertEquals(ShortCodeCodec.plain().encode(1), found.get().getShortUrlCode());
+    Assertions.assertEquals(1, lookups("database"));
+  }
+
+  @Test
+  void findRecent_WhenUrlWasSavedBeforeWindow_ThenReturnEmpty() {
+    // Given
+    final var deduplicator = deduplicator(true);
+    save(deduplicator, 1, "https://example.com/page", OffsetDateTime.now().minusDays(2));
+
+    // When
+    final var found = deduplicator.findRecent("https://example.com/page");
+
+    // Then
+    Assertions.assertEquals(Optional.empty(), found);
+    Assertions.assertEquals(1, lookups("miss"));
+  }
+
+  @Test
+  void findRecent_WhenMappingWasRemembered_ThenAnswerWithoutDatabase() {
+    // Given
+    final var deduplicator = deduplicator(true);
+    final var url = save(deduplicator, 1, "https://example.com/page", OffsetDateTime.now());
+    deduplicator.remember(url);
+    jdbcTemplate.execute("DELETE FROM urls");
+
+    // When
+    final var found = deduplicator.findRecent("https://example.com/page");
+
+    // Then
+    Assertions.assertSame(url, found.orElseThrow());
+    Assertions.assertEquals(1, lookups("cache"));
+  }
+
+  @Test
+  void findRecent_WhenMappingWasForgotten_ThenReturnEmpty() {
+    // Given
+    final var deduplicator = deduplicator(true);
+    final var url = save(deduplicator, 1, "https://example.com/page", OffsetDateTime.now());
+    deduplicator.remember(url);
+    deduplicator.forget(url);
+    jdbcTemplate.execute("DELETE FROM urls");
+
+    // When
+    final var found = deduplicator.findRecent("https://example.com/page");
+
+    // Then
+    Assertions.assertEquals(Optional.empty(), found);
+  }
+
+  @Test
+  void findAllRecent_WhenSomeUrlsWereSaved_ThenReturnOnlyTheirMappings() {
+    // Given
+    final var deduplicator = deduplicator(true);
+    save(deduplicator, 1, "https://example.com/a", OffsetDateTime.now());
+    save(deduplicator, 2, "https://example.com/b", OffsetDateTime.now());
+
+    // When
+    final var found =
+        deduplicator.findAllRecent(
+            Arrays.asList("https://example.com/a", null, "https://example.com/c"));
+
+    // Then
+    Assertions.assertEquals(1, found.size());
+    Assertions.assertEquals(1, found.get("https://example.com/a").getId());
+  }
+
+  @Test
+  void findRecent_WhenDisabled_ThenReturnEmptyAndStoreNoHash() {
+    // Given
+    final var deduplicator = deduplicator(false);
+    save(deduplicator, 1, "https://example.com/page", OffsetDateTime.now());
+
+    // When
+    final var found = deduplicator.findRecent("https://example.com/page");
+
+    // Then
+    Assertions.assertEquals(Optional.empty(), found);
+    Assertions.assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM urls WHERE original_url_hash IS NOT NULL", Integer.class));
+  }
+
+  private UrlDeduplicator deduplicator(boolean enabled) {
+    return new UrlDeduplicator(
+        urlRepository, ShortCodeCodec.plain(), meterRegistry, enabled, Duration.ofDays(1), 100);
+  }
+
+  private URL save(
+      UrlDeduplicator deduplicator, long id, String originalUrl, OffsetDateTime createdAt) {
+    final var url = new URL(id, originalUrl, null, createdAt, createdAt.plusDays(7));
+    url.setOriginalUrlHash(deduplicator.hashOf(originalUrl));
+    urlRepository.saveWithId(url);
+    return url;
+  }
+
+  private double lookups(String result) {
+    return meterRegistry.counter("url.dedup.lookups", "result", result).count();
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.urlshortenerservice.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class UrlFingerprintTest {
+  @Test
+  void normalize_WhenSchemeHostOrDefaultPortDiffer_ThenReturnSameUrl() {
+    // Given
+    final var expected = "https://example.com/Path?q=A#Top";
+
+    // When and Then
+    Assertions.assertEquals(
+        expected, UrlFingerprint.normalize(" HTTPS://Example.COM:443/Path?q=A#Top "));
+    Assertions.assertEquals(expected, UrlFingerprint.normalize(expected));
+    Assertions.assertEquals("http://example.com/", UrlFingerprint.normalize("http://example.com"));
+    Assertions.assertEquals(
+        "http://example.com:8080/", UrlFingerprint.normalize("http://example.com:8080"));
+  }
+
+  @Test
+  void normalize_WhenPathOrQueryDiffer_ThenKeepThemApart() {
+    // When and Then
+    Assertions.assertNotEquals(
+        UrlFingerprint.normalize("https://example.com/path"),
+        UrlFingerprint.normalize("https://example.com/PATH"));
+    Assertions.assertNotEquals(
+        UrlFingerprint.normalize("https://example.com/?a=1&b=2"),
+        UrlFingerprint.normalize("https://example.com/?b=2&a=1"));
+  }
+
+  @Test
+  void normalize_WhenUrlIsNotHierarchical_ThenOnlyStripWhitespace() {
+    // When and Then
+    Assertions.assertEquals("not a url", UrlFingerprint.normalize(" not a url "));
+    Assertions.assertEquals("mailto:Someone", UrlFingerprint.normalize("mailto:Someone"));
+  }
+
+  @Test
+  void hash_WhenUrlsNormalizeEqually_ThenReturnSameHash() {
+    // Given
+    final var first = UrlFingerprint.normalize("https://EXAMPLE.com");
+    final var second = UrlFingerprint.normalize("https://example.com:443/");
+
+    // When and Then
+    Assertions.assertEquals(UrlFingerprint.hash(first), UrlFingerprint.hash(second));
+    Assertions.assertNotEquals(
+        UrlFingerprint.hash(first), UrlFingerprint.hash("https://example.com/other"));
+  }
+}